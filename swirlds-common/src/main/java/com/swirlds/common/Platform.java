@@ -22,6 +22,7 @@ import com.swirlds.common.stream.Signer;
 
 import javax.swing.JFrame;
 import java.time.Instant;
+import java.util.concurrent.Flow;
 
 /**
  * An interface for Swirlds Platform
@@ -81,6 +82,32 @@ public interface Platform extends Signer {
 	 */
 	boolean createTransaction(Transaction trans);
 
+	/**
+	 * Submit a new transaction, in the same way as {@link #createTransaction(Transaction)}, but with more information
+	 * about the outcome. If the transaction is accepted, the result holds a future that completes with its consensus
+	 * timestamp once it has been handled with consensus. If the transaction queues are full, the result says how
+	 * long to wait before trying again, estimated from the number of transactions waiting and the rate at which
+	 * they are being put into events.
+	 * <p>
+	 * This only waits briefly for other threads submitting transactions at the same time, so it may be called by
+	 * many threads at once.
+	 *
+	 * @param trans
+	 * 		the transaction to handle, encoded any way the swirld author chooses
+	 * @return the outcome of the submission
+	 */
+	TransactionSubmission submitTransaction(Transaction trans);
+
+	/**
+	 * Create a subscriber that submits every transaction published to it. It requests transactions from its
+	 * publisher in bounded batches, and only requests more once the platform has accepted the previous ones, so a
+	 * high-volume client is slowed down instead of having its transactions rejected. Each publisher needs its own
+	 * subscriber.
+	 *
+	 * @return a new subscriber
+	 */
+	Flow.Subscriber<Transaction> newTransactionSubscriber();
+
 	/**
 	 * Create a new window of the recommended size and location, including the Swirlds menu.
 	 *
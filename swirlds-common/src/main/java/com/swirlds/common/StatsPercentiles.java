@@ -0,0 +1,40 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.common;
+
+/**
+ * A {@link StatsBuffered} statistic that keeps a histogram of the values recorded, so the tail of their distribution
+ * can be reported and not only the mean. Anything that writes out statistics reports one of these as several values:
+ * the percentiles in {@link #PERCENTILES}, followed by the maximum.
+ */
+public interface StatsPercentiles extends StatsBuffered {
+	/** the percentiles that are reported, between 0 and 1 */
+	double[] PERCENTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+	/**
+	 * the suffix added to the name of the statistic for each of the values reported: one for each of PERCENTILES,
+	 * followed by one for the maximum
+	 */
+	String[] SUFFIXES = { "_p50", "_p90", "_p99", "_p999", "_max" };
+
+	/**
+	 * get the estimated value at the given percentile of the recently recorded values
+	 *
+	 * @param percentile
+	 * 		the percentile, between 0 and 1
+	 * @return the value at that percentile, or 0 if no values were recorded recently
+	 */
+	double getPercentile(double percentile);
+}
@@ -18,6 +18,7 @@ import com.swirlds.common.crypto.TransactionSignature;
 import com.swirlds.common.merkle.MerkleNode;
 
 import java.time.Instant;
+import java.util.Collection;
 
 /**
  * A Swirld app is defined by creating two classes, one implementing {@link SwirldMain}, and the other
@@ -151,6 +152,23 @@ public interface SwirldState extends MerkleNode, Archivable, FastCopyable<Swirld
 	 */
 	void expandSignatures(Transaction trans);
 
+	/**
+	 * Called against a given {@link Transaction} once, after {@link #expandSignatures(Transaction)}, when the
+	 * event holding it is added to the hashgraph, and long before the transaction is handled. This is a chance to
+	 * do work that doesn't depend on the transaction's position in the consensus order, such as parsing it,
+	 * looking up the keys it refers to, or loading data it will need. The result can be stored with {@link
+	 * Transaction#setPrehandleResult(Object)} and used by handleTransaction, which then only has to apply it.
+	 * <p>
+	 * This must not modify the state. It may be called on several threads at once, and at the same time as
+	 * handleTransaction. The signatures of the transaction may still be being verified when it is called. The
+	 * Platform guarantees that it has returned before the transaction is handled by any state.
+	 *
+	 * @param trans
+	 * 		the transaction to prehandle
+	 */
+	default void prehandleTransaction(Transaction trans) {
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -200,4 +218,97 @@ public interface SwirldState extends MerkleNode, Archivable, FastCopyable<Swirld
 	 */
 	interface SwirldState2 extends SwirldState {
 	}
+
+	/**
+	 * An app's state class may implement BatchSwirldState (in addition to SwirldState or SwirldState2) to
+	 * receive the transactions of an event in a single call, rather than one call per transaction. This lets
+	 * the app look things up, take locks and update its data structures once for many transactions. The
+	 * Platform uses handleTransactions for every run of consecutive non-system transactions in an event, and
+	 * still uses handleTransaction for transactions that are not in an event yet.
+	 * <p>
+	 * Calling handleTransactions must have exactly the same effect as calling handleTransaction on each of the
+	 * transactions in turn, with the i-th transaction of the batch (counting from 0) having the timestamp
+	 * {@code timestamp.plusNanos(i)}. Everything said about handleTransaction also applies here.
+	 */
+	interface BatchSwirldState extends SwirldState {
+		/**
+		 * Handle a batch of transactions from the same event, as described in {@link
+		 * #handleTransaction(long, boolean, Instant, Instant, Transaction, Address)}.
+		 *
+		 * @param id
+		 * 		the ID number of the member who created these transactions
+		 * @param isConsensus
+		 * 		are these transactions' timeCreated and position in history part of the consensus?
+		 * @param timeCreated
+		 * 		the time when the transactions were first created and sent to the network, as claimed
+		 * 		by the member that created them (which might be dishonest or mistaken)
+		 * @param timestamp
+		 * 		the consensus timestamp (or an estimate of it) of the first transaction in the batch. Each
+		 * 		later transaction is one nanosecond later than the one before it.
+		 * @param transactions
+		 * 		the array holding the batch. Only the elements from offset to offset + length - 1 are in the
+		 * 		batch, and they must not be modified.
+		 * @param offset
+		 * 		the index of the first transaction of the batch
+		 * @param length
+		 * 		the number of transactions in the batch
+		 */
+		void handleTransactions(long id, boolean isConsensus, Instant timeCreated, Instant timestamp,
+				Transaction[] transactions, int offset, int length);
+	}
+
+	/**
+	 * An app's state class may implement ParallelSwirldState to let the Platform handle non-conflicting
+	 * consensus transactions on several threads at once. For each transaction, the app declares which keys it
+	 * will read and which it will write. Two transactions conflict if one writes a key that the other reads or
+	 * writes. The Platform only runs transactions at the same time if they do not conflict, and it never runs
+	 * a transaction before an earlier conflicting one has finished. So if the declared keys are complete, the
+	 * resulting state is identical to handling the transactions one at a time in consensus order.
+	 * <p>
+	 * This means that, unlike other SwirldState implementations, handleTransaction may be called concurrently
+	 * for consensus transactions, and must not simply be synchronized on the whole state. Calls with
+	 * consensus=false are still made one at a time. Only transactions in the same event are run concurrently.
+	 * <p>
+	 * Every structure that handleTransaction modifies must therefore allow concurrent writes to different keys.
+	 * An FCHashMap only allows this after {@code FCHashMap.enableConcurrentWrites()}, which
+	 * must be disabled again before the state is copied. An FCMap never allows it, because every write also
+	 * updates its merkle tree, so writes to an FCMap must be serialized by the app, for example with a lock. The
+	 * Platform does not check any of this. Parallel handling is off unless the parallelTransactionThreads setting
+	 * is more than 1, and ParallelTransactionChecker can be used in an app's tests to compare the result of
+	 * handling transactions in parallel with handling them one at a time.
+	 */
+	interface ParallelSwirldState extends SwirldState2, BatchSwirldState {
+		/**
+		 * Declare the keys that handling a transaction will read and write. Keys are compared using equals
+		 * and hashCode, and may be any object the app chooses, such as the keys of an FCMap. A key that is
+		 * written does not also need to be declared as read. This is called on the consensus thread, before
+		 * the transaction is handled.
+		 *
+		 * @param id
+		 * 		the ID number of the member who created this transaction
+		 * @param trans
+		 * 		the transaction
+		 * @param reads
+		 * 		the collection to add the keys read to
+		 * @param writes
+		 * 		the collection to add the keys written to
+		 * @return true if the keys were declared, or false if they are not known, in which case the
+		 * 		transaction is treated as conflicting with every other transaction
+		 */
+		boolean getFootprint(long id, Transaction trans, Collection<Object> reads, Collection<Object> writes);
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * By default this handles each transaction of the batch in turn.
+		 */
+		@Override
+		default void handleTransactions(long id, boolean isConsensus, Instant timeCreated, Instant timestamp,
+				Transaction[] transactions, int offset, int length) {
+			for (int i = 0; i < length; i++) {
+				handleTransaction(id, isConsensus, timeCreated, timestamp.plusNanos(i), transactions[offset + i],
+						null);
+			}
+		}
+	}
 }
@@ -26,20 +26,22 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.security.MessageDigest;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * A hashgraph transaction that consists of an array of bytes and a list of immutable {@link TransactionSignature} objects. The
  * contents of the transaction is completely immutable; however, the list of signatures features controlled mutability
- * with a thread-safe and atomic implementation. The transaction internally uses a {@link ReadWriteLock} to provide
- * atomic reads and writes to the underlying list of signatures.
+ * with a thread-safe and atomic implementation. The signatures are held in an array that is never modified after it is
+ * published. Adding or removing signatures publishes a new array with a compare-and-set, so readers never lock and
+ * always see a consistent snapshot.
  * <p>
  * Selectively combining controlled mutability for certain aspects while using immutability for the rest grants a
  * significant performance improvement over a completely mutable or completely immutable object.
@@ -49,20 +51,32 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 	private static final long CLASS_ID = 0xa0eda13e329feccaL;
 	private static final int CLASS_VERSION = 1;
 
-	/** A per-transaction read/write lock to ensure thread safety of the signature list */
-	private final ReadWriteLock readWriteLock;
+	/** Atomically replaces the signature array, so that concurrent changes to the signatures are never lost */
+	private static final AtomicReferenceFieldUpdater<Transaction, TransactionSignature[]> SIGNATURES =
+			AtomicReferenceFieldUpdater.newUpdater(Transaction.class, TransactionSignature[].class, "signatures");
 
 	/** The content (payload) of the transaction */
 	private byte[] contents;
 
-	/** The list of optional signatures attached to this transaction */
-	private List<TransactionSignature> signatures;
+	/**
+	 * The optional signatures attached to this transaction, or null if there are none. The array is never modified
+	 * after it is assigned here, it is only replaced.
+	 */
+	private volatile TransactionSignature[] signatures;
 
 	/** A flag indicating whether this transaction was originated by the application or the platform */
 	private boolean system;
 
+	/** The result of {@link SwirldState#prehandleTransaction(Transaction)}, which is not part of the transaction */
+	private volatile Object prehandleResult;
+
+	/** Completed with the consensus timestamp once this transaction by self is handled, or null if not requested */
+	private volatile CompletableFuture<Instant> consensusFuture;
+
+	/** The times at which a sampled transaction reached each stage of the platform, or null if it is not traced */
+	private volatile AtomicLongArray traceStamps;
+
 	public Transaction() {
-		this.readWriteLock = new ReentrantReadWriteLock(false);
 	}
 
 	/**
@@ -158,10 +172,8 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 		this.system = system;
 
 		if (signatures != null && !signatures.isEmpty()) {
-			this.signatures = new ArrayList<>(signatures);
+			this.signatures = signatures.toArray(new TransactionSignature[0]);
 		}
-
-		this.readWriteLock = new ReentrantReadWriteLock(false);
 	}
 
 	/**
@@ -199,21 +211,10 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 			throw new NullPointerException("dos");
 		}
 
-		final Lock readLock = transaction.readWriteLock.readLock();
-
-		// Minimize read lock hold time - capture JIT picture of current state
-		List<TransactionSignature> jitSnapshot;
-		byte[] contents;
-		boolean system;
-
-		try {
-			readLock.lock();
-			jitSnapshot = (transaction.signatures != null) ? new ArrayList<>(transaction.signatures) : null;
-			contents = transaction.contents;
-			system = transaction.system;
-		} finally {
-			readLock.unlock();
-		}
+		// capture a consistent picture of the current signatures, the array itself never changes
+		final TransactionSignature[] jitSnapshot = transaction.signatures;
+		final byte[] contents = transaction.contents;
+		final boolean system = transaction.system;
 
 		final int[] totalBytes = new int[] { (4 * Integer.BYTES) + Byte.BYTES + (contents.length * Byte.BYTES) };
 
@@ -226,7 +227,7 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 		dos.write(contents);
 
 		// Write Signature Length w/ Simple Prime Number Checksum
-		final int sigLen = (withSignatures && jitSnapshot != null) ? jitSnapshot.size() : 0;
+		final int sigLen = (withSignatures && jitSnapshot != null) ? jitSnapshot.length : 0;
 		dos.writeInt(sigLen);
 		dos.writeInt(353 - sigLen);
 
@@ -506,14 +507,74 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 	 * @return a shallow copy of the original signature list
 	 */
 	public List<TransactionSignature> getSignatures() {
-		final Lock readLock = readWriteLock.readLock();
+		final TransactionSignature[] snapshot = signatures;
+		return (snapshot != null) ? new ArrayList<>(Arrays.asList(snapshot)) : new ArrayList<>(1);
+	}
 
-		try {
-			readLock.lock();
-			return (signatures != null) ? new ArrayList<>(signatures) : new ArrayList<>(1);
-		} finally {
-			readLock.unlock();
-		}
+	/**
+	 * Returns the object stored by the application when it prehandled this transaction. This is not part of the
+	 * transaction, so it is not serialized, hashed or compared.
+	 *
+	 * @return the object stored by {@link #setPrehandleResult(Object)}, or null if there is none
+	 * @see SwirldState#prehandleTransaction(Transaction)
+	 */
+	public Object getPrehandleResult() {
+		return prehandleResult;
+	}
+
+	/**
+	 * Stores an object for the application to use when it handles this transaction, such as the parsed
+	 * transaction or data loaded for it. This is not part of the transaction, so it is not serialized, hashed or
+	 * compared.
+	 *
+	 * @param prehandleResult
+	 * 		the object to store
+	 * @see SwirldState#prehandleTransaction(Transaction)
+	 */
+	public void setPrehandleResult(final Object prehandleResult) {
+		this.prehandleResult = prehandleResult;
+	}
+
+	/**
+	 * Internal use accessor for the System.nanoTime() at which this transaction reached each stage of the platform,
+	 * if it was sampled for latency tracing. This is not part of the transaction, so it is not serialized, hashed or
+	 * compared.
+	 *
+	 * @return the stamps, or null if this transaction is not being traced
+	 */
+	public AtomicLongArray getTraceStamps() {
+		return traceStamps;
+	}
+
+	/**
+	 * Internal use mutator that starts or stops tracing the latency of this transaction.
+	 *
+	 * @param traceStamps
+	 * 		the stamps to fill in, or null to stop tracing
+	 */
+	public void setTraceStamps(final AtomicLongArray traceStamps) {
+		this.traceStamps = traceStamps;
+	}
+
+	/**
+	 * Internal use accessor for the future to complete once this transaction has been handled with consensus. This is
+	 * not part of the transaction, so it is not serialized, hashed or compared.
+	 *
+	 * @return the future, or null if nothing is waiting for this transaction
+	 * @see Platform#submitTransaction(Transaction)
+	 */
+	public CompletableFuture<Instant> getConsensusFuture() {
+		return consensusFuture;
+	}
+
+	/**
+	 * Internal use mutator for the future to complete once this transaction has been handled with consensus.
+	 *
+	 * @param consensusFuture
+	 * 		the future, or null if nothing is waiting for this transaction
+	 */
+	public void setConsensusFuture(final CompletableFuture<Instant> consensusFuture) {
+		this.consensusFuture = consensusFuture;
 	}
 
 	/**
@@ -560,21 +621,15 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 			throw new NullPointerException("digest");
 		}
 
-		final Lock readLock = readWriteLock.readLock();
+		final TransactionSignature[] snapshot = signatures;
+		HashUtils.update(digest, (system) ? 1 : 0);
+		HashUtils.update(digest, contents);
+		HashUtils.update(digest, (snapshot != null) ? snapshot.length : 0);
 
-		try {
-			readLock.lock();
-			HashUtils.update(digest, (system) ? 1 : 0);
-			HashUtils.update(digest, contents);
-			HashUtils.update(digest, (signatures != null) ? signatures.size() : 0);
-
-			if (withSignatures) {
-				for (TransactionSignature s : signatures) {
-					s.computeDigest(digest);
-				}
+		if (withSignatures && snapshot != null) {
+			for (TransactionSignature s : snapshot) {
+				s.computeDigest(digest);
 			}
-		} finally {
-			readLock.unlock();
 		}
 	}
 
@@ -650,18 +705,7 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 			throw new NullPointerException("signature");
 		}
 
-		final Lock writeLock = readWriteLock.writeLock();
-
-		try {
-			writeLock.lock();
-			if (signatures == null) {
-				signatures = new ArrayList<>(5);
-			}
-
-			signatures.add(signature);
-		} finally {
-			writeLock.unlock();
-		}
+		addAll(signature);
 	}
 
 	/**
@@ -677,18 +721,23 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 			return;
 		}
 
-		final Lock writeLock = readWriteLock.writeLock();
-
-		try {
-			writeLock.lock();
-			if (this.signatures == null) {
-				this.signatures = new ArrayList<>(signatures.length);
+		for (TransactionSignature signature : signatures) {
+			if (signature == null) {
+				throw new NullPointerException("signature");
 			}
-
-			this.signatures.addAll(Arrays.asList(signatures));
-		} finally {
-			writeLock.unlock();
 		}
+
+		TransactionSignature[] current;
+		TransactionSignature[] updated;
+		do {
+			current = this.signatures;
+			if (current == null) {
+				updated = signatures.clone();
+			} else {
+				updated = Arrays.copyOf(current, current.length + signatures.length);
+				System.arraycopy(signatures, 0, updated, current.length, signatures.length);
+			}
+		} while (!SIGNATURES.compareAndSet(this, current, updated));
 	}
 
 	/**
@@ -705,18 +754,22 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 			return false;
 		}
 
-		final Lock writeLock = readWriteLock.writeLock();
+		TransactionSignature[] current;
+		TransactionSignature[] updated;
+		do {
+			current = this.signatures;
+			if (current == null) {
+				return false;
+			}
 
-		try {
-			writeLock.lock();
-			if (signatures == null) {
+			final List<TransactionSignature> remaining = new ArrayList<>(Arrays.asList(current));
+			if (!remaining.remove(signature)) {
 				return false;
 			}
+			updated = remaining.isEmpty() ? null : remaining.toArray(new TransactionSignature[0]);
+		} while (!SIGNATURES.compareAndSet(this, current, updated));
 
-			return signatures.remove(signature);
-		} finally {
-			writeLock.unlock();
-		}
+		return true;
 	}
 
 	/**
@@ -733,18 +786,23 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 			return false;
 		}
 
-		final Lock writeLock = readWriteLock.writeLock();
+		final List<TransactionSignature> toRemove = Arrays.asList(signatures);
+		TransactionSignature[] current;
+		TransactionSignature[] updated;
+		do {
+			current = this.signatures;
+			if (current == null) {
+				return false;
+			}
 
-		try {
-			writeLock.lock();
-			if (this.signatures == null) {
+			final List<TransactionSignature> remaining = new ArrayList<>(Arrays.asList(current));
+			if (!remaining.removeAll(toRemove)) {
 				return false;
 			}
+			updated = remaining.isEmpty() ? null : remaining.toArray(new TransactionSignature[0]);
+		} while (!SIGNATURES.compareAndSet(this, current, updated));
 
-			return this.signatures.removeAll(Arrays.asList(signatures));
-		} finally {
-			writeLock.unlock();
-		}
+		return true;
 	}
 
 	/**
@@ -753,18 +811,7 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 	 * This method is thread-safe and guaranteed to be atomic in nature.
 	 */
 	public void clear() {
-		final Lock writeLock = readWriteLock.writeLock();
-
-		try {
-			writeLock.lock();
-			if (signatures == null) {
-				return;
-			}
-
-			signatures.clear();
-		} finally {
-			writeLock.unlock();
-		}
+		signatures = null;
 	}
 
 	/**
@@ -960,7 +1007,7 @@ public class Transaction implements Comparable<Transaction>, SelfSerializable {
 	public String toString() {
 		return "Transaction{" +
 				"contents=" + Arrays.toString(contents) +
-				", signatures=" + signatures +
+				", signatures=" + Arrays.toString(signatures) +
 				", system=" + system +
 				'}';
 	}
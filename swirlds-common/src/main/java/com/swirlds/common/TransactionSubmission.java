@@ -0,0 +1,144 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.common;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The result of submitting a transaction with {@link Platform#submitTransaction(Transaction)}. Either the
+ * transaction was accepted, and {@link #getConsensusFuture()} will complete once it has been handled with consensus,
+ * or it was rejected, and {@link #getRetryAfter()} estimates how long to wait before submitting it again.
+ */
+public final class TransactionSubmission {
+	/** the outcome of a submission */
+	public enum Status {
+		/** the transaction was accepted, and will be put into an event */
+		ACCEPTED,
+		/** the transaction queues are full, so the transaction should be submitted again after a while */
+		BUSY,
+		/** the platform is not active (for example, it is reconnecting or recovering), so try again later */
+		INACTIVE,
+		/** the transaction can never be accepted, for example because it is too large */
+		INVALID
+	}
+
+	/** returned for every invalid transaction, since it holds no other information */
+	private static final TransactionSubmission INVALID_SUBMISSION =
+			new TransactionSubmission(Status.INVALID, null, Duration.ZERO, 0);
+
+	private final Status status;
+	private final CompletableFuture<Instant> consensusFuture;
+	private final Duration retryAfter;
+	private final int queueDepth;
+
+	private TransactionSubmission(final Status status, final CompletableFuture<Instant> consensusFuture,
+			final Duration retryAfter, final int queueDepth) {
+		this.status = status;
+		this.consensusFuture = consensusFuture;
+		this.retryAfter = retryAfter;
+		this.queueDepth = queueDepth;
+	}
+
+	/**
+	 * @param consensusFuture
+	 * 		the future that will complete when the transaction has been handled with consensus
+	 * @param queueDepth
+	 * 		the number of transactions by self waiting to be put into an event, including this one
+	 * @return a submission that was accepted
+	 */
+	public static TransactionSubmission accepted(final CompletableFuture<Instant> consensusFuture,
+			final int queueDepth) {
+		return new TransactionSubmission(Status.ACCEPTED, consensusFuture, Duration.ZERO, queueDepth);
+	}
+
+	/**
+	 * @param retryAfter
+	 * 		how long to wait before submitting the transaction again
+	 * @param queueDepth
+	 * 		the number of transactions by self waiting to be put into an event
+	 * @return a submission that was rejected because the queues are full
+	 */
+	public static TransactionSubmission busy(final Duration retryAfter, final int queueDepth) {
+		return new TransactionSubmission(Status.BUSY, null, retryAfter, queueDepth);
+	}
+
+	/**
+	 * @param retryAfter
+	 * 		how long to wait before submitting the transaction again
+	 * @return a submission that was rejected because the platform is not active
+	 */
+	public static TransactionSubmission inactive(final Duration retryAfter) {
+		return new TransactionSubmission(Status.INACTIVE, null, retryAfter, 0);
+	}
+
+	/**
+	 * @return a submission that was rejected because the transaction can never be accepted
+	 */
+	public static TransactionSubmission invalid() {
+		return INVALID_SUBMISSION;
+	}
+
+	/**
+	 * @return the outcome of the submission
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return true if the transaction was accepted
+	 */
+	public boolean isAccepted() {
+		return status == Status.ACCEPTED;
+	}
+
+	/**
+	 * Get a future that completes with the consensus timestamp of the transaction, once it has been handled by the
+	 * consensus state. If this node drops the transaction first, the future completes exceptionally with a
+	 * {@link TransactionDroppedException}. That happens when the event holding it goes stale, in which case it will
+	 * never reach consensus, and when the node reconnects or falls behind, in which case an event holding it may
+	 * already have been gossiped and may still reach consensus on the other nodes.
+	 *
+	 * @return the future, or null if the transaction was not accepted
+	 */
+	public CompletableFuture<Instant> getConsensusFuture() {
+		return consensusFuture;
+	}
+
+	/**
+	 * @return how long to wait before submitting the transaction again, or zero if it was accepted or is invalid
+	 */
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+	/**
+	 * @return the number of transactions by self waiting to be put into an event when this was submitted
+	 */
+	public int getQueueDepth() {
+		return queueDepth;
+	}
+
+	@Override
+	public String toString() {
+		return "TransactionSubmission{" +
+				"status=" + status +
+				", retryAfter=" + retryAfter +
+				", queueDepth=" + queueDepth +
+				'}';
+	}
+}
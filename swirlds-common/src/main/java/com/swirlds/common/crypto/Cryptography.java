@@ -175,6 +175,33 @@ public interface Cryptography {
 	 */
 	void digestSync(final SerializableHashable serializableHashable, final DigestType digestType);
 
+	/**
+	 * Same as {@link #digestAsync(SerializableHashable, DigestType)} with DigestType set to SHA_384
+	 *
+	 * @param serializableHashable
+	 * 		the object to be hashed
+	 * @return a {@link Future} containing the cryptographic hash for the object when resolved
+	 */
+	default Future<Hash> digestAsync(final SerializableHashable serializableHashable) {
+		return digestAsync(serializableHashable, DigestType.SHA_384);
+	}
+
+	/**
+	 * Computes a cryptographic hash for the {@link SerializableHashable} instance on a background thread, by
+	 * serializing it and hashing the bytes. The hash is passed to the object by calling {@link Hashable#setHash(Hash)}
+	 * before the returned future completes.
+	 *
+	 * Note: This implementation is non-blocking and returns almost immediately. The object must not be modified in a
+	 * way that changes its serialization until the future has completed.
+	 *
+	 * @param serializableHashable
+	 * 		the object to be hashed
+	 * @param digestType
+	 * 		the type of digest used to compute the hash
+	 * @return a {@link Future} containing the cryptographic hash for the object when resolved
+	 */
+	Future<Hash> digestAsync(final SerializableHashable serializableHashable, final DigestType digestType);
+
 	/**
 	 * Computes a cryptographic hash for the {@link MerkleInternal} instance. Requires a list of child hashes,
 	 * as it is possible that the MerkleInternal has not yet been given its children. The hash is passed to the object
@@ -52,7 +52,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 
@@ -141,6 +144,12 @@ public class CryptoEngine extends AbstractCryptography implements Cryptography {
 
 	private final MerkleHashBuilder merkleHashBuilder;
 
+	/**
+	 * the thread pool that computes hashes of {@link SerializableHashable} objects for
+	 * {@link #digestAsync(SerializableHashable, DigestType)}
+	 */
+	private final ExecutorService serializationDigestPool;
+
 	/**
 	 * the total number of available physical processors and physical processor cores
 	 */
@@ -183,6 +192,8 @@ public class CryptoEngine extends AbstractCryptography implements Cryptography {
 		this.merkleInternalDigestProvider = new MerkleInternalDigestProvider();
 		this.runningHashProvider = new RunningHashProvider();
 		this.merkleHashBuilder = new MerkleHashBuilder(this, settings.computeCpuDigestThreadCount());
+		this.serializationDigestPool = Executors.newFixedThreadPool(settings.computeCpuDigestThreadCount(),
+				new CryptoThreadFactory("serialization_digest", new ThreadExceptionHandler(this.getClass())));
 
 		if (!settings.forceCpu()) {
 			detectSystemFeatures();
@@ -342,6 +353,17 @@ public class CryptoEngine extends AbstractCryptography implements Cryptography {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Future<Hash> digestAsync(final SerializableHashable serializableHashable, final DigestType digestType) {
+		return CompletableFuture.supplyAsync(() -> {
+			digestSync(serializableHashable, digestType);
+			return serializableHashable.getHash();
+		}, serializationDigestPool);
+	}
+
 	@Override
 	public Hash digestTreeSync(MerkleNode root, DigestType digestType) {
 		return merkleHashBuilder.digestTreeSync(root);
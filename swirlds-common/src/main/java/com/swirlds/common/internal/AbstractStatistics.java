@@ -21,6 +21,7 @@ import com.swirlds.common.CommonUtils;
 import com.swirlds.common.StatEntry;
 import com.swirlds.common.Statistics;
 import com.swirlds.common.StatsBuffered;
+import com.swirlds.common.StatsPercentiles;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
@@ -74,9 +75,6 @@ public abstract class AbstractStatistics implements Statistics {
 	/** category contains this substring should not be expanded even Settings.verboseStatistics is true */
 	static private final String EXCLUDE_CATEGORY = "info";
 
-	/** pre-Calculated after init so don't have keeps recalculating */
-	private int expandableCount;
-
 	/**
 	 * Instantiate an object to hold a collection of statistics. If getStatEntriesArray() returns null when this
 	 * constructor calls it,then call setupStatEntries() later, after ensuring getStatEntriesArray will return non-null.
@@ -340,7 +338,7 @@ public abstract class AbstractStatistics implements Statistics {
 			if (stat == null) {
 				return "";
 			}
-			return String.format(Locale.US, stat.format, stat.supplier.get());
+			return getStatString(stat);
 		} catch (IllegalFormatException e) {
 			log.error(ERROR, "", e);
 		}
@@ -449,7 +447,8 @@ public abstract class AbstractStatistics implements Statistics {
 	/**
 	 * Returns a string representation of a statistic about how the network is running, given its StatEntry.
 	 * The statistic is converted to a String using the default format (right justified, spaces on the
-	 * left).
+	 * left). If the statistic keeps a histogram, the string holds each of its percentiles and its maximum, separated
+	 * by "/".
 	 *
 	 * @param stat
 	 * 		the StatEntry describing this statistic
@@ -457,6 +456,16 @@ public abstract class AbstractStatistics implements Statistics {
 	 */
 	String getStatString(StatEntry stat) {
 		try {
+			if (stat.buffered instanceof StatsPercentiles) {
+				final StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < StatsPercentiles.SUFFIXES.length; i++) {
+					if (i > 0) {
+						sb.append('/');
+					}
+					sb.append(getPercentileString(stat, i).trim());
+				}
+				return sb.toString();
+			}
 			return String.format(Locale.US, stat.format, stat.supplier.get());
 		} catch (IllegalFormatException e) {
 			log.error(ERROR, "", e);
@@ -464,6 +473,40 @@ public abstract class AbstractStatistics implements Statistics {
 		return "";
 	}
 
+	/**
+	 * Returns a string representation of one of the values reported for a statistic that keeps a histogram, using
+	 * the default format of the statistic.
+	 *
+	 * @param stat
+	 * 		the StatEntry describing this statistic, whose buffered statistic is a StatsPercentiles
+	 * @param which
+	 * 		the index in StatsPercentiles.SUFFIXES of the value: one of the percentiles, or the maximum
+	 * @return the value converted to a string
+	 */
+	private String getPercentileString(StatEntry stat, int which) {
+		final StatsPercentiles histogram = (StatsPercentiles) stat.buffered;
+		try {
+			return String.format(Locale.US, stat.format, which < StatsPercentiles.PERCENTILES.length
+					? histogram.getPercentile(StatsPercentiles.PERCENTILES[which])
+					: histogram.getMax());
+		} catch (IllegalFormatException e) {
+			log.error(ERROR, "", e);
+		}
+		return "";
+	}
+
+	/**
+	 * Is the statistic with the given index one that keeps a histogram, so that its string holds several values?
+	 *
+	 * @param index
+	 * 		index of the statistic in the array returned by getAvailableStats
+	 * @return true if the statistic reports percentiles and a maximum
+	 */
+	public boolean hasPercentiles(int index) {
+		StatEntry stat = index2entry.get(index);
+		return stat != null && stat.buffered instanceof StatsPercentiles;
+	}
+
 	/**
 	 * Print the available statistics to standard out in a format suitable for copying and pasting into the
 	 * JavaDoc for this class. This should be re-run and the documentation updated whenever this information
@@ -508,12 +551,6 @@ public abstract class AbstractStatistics implements Statistics {
 			allStatEntries[i][1] = stat.desc;
 			allStatEntries[i][2] = stat.format;
 		}
-
-		// count how many category can be expanded
-		expandableCount = (int) Arrays.stream(statEntries)
-				.filter(
-						(f) -> !f.category.contains(EXCLUDE_CATEGORY)
-				).count();
 	}
 
 	/**
@@ -528,22 +565,41 @@ public abstract class AbstractStatistics implements Statistics {
 	 */
 	public abstract StatEntry[] getStatEntriesArray();
 
+	/**
+	 * Get the number of values written out for a statistic. A statistic that keeps a histogram is written as its
+	 * percentiles and its maximum. Otherwise, if Settings.verboseStatistics is true, expandable statistics are
+	 * written as their value, max, min and standard deviation.
+	 *
+	 * @param entry
+	 * 		the statistic
+	 * @return the number of values
+	 */
+	private static int getExpandWidth(StatEntry entry) {
+		if (entry.buffered instanceof StatsPercentiles) {
+			return StatsPercentiles.SUFFIXES.length;
+		}
+		if (SettingsCommon.verboseStatistics && (!entry.category.contains(EXCLUDE_CATEGORY))) { //info category no
+			// need to be expanded
+			return STATS_EXPAND_WIDTH;
+		}
+		return 1;
+	}
+
 	/**
 	 * Get a big enough string array for preparing names, categories, etc
 	 *
 	 * @return empty string array or the size of string array the same as
-	 * 		number of entries
+	 * 		number of values written out for all entries
 	 */
 	private String[] getStringArray() {
 		if (allStatEntries == null || allStatEntries.length == 0) {
 			return new String[0];
-		} else {
-			// if Settings.verboseStatistics true, all expandable items appear expandableCount * STATS_EXPAND_WIDTH
-			// non expandable items appear (statEntries.length-expandableCount)
-			return SettingsCommon.verboseStatistics ?
-					new String[expandableCount * STATS_EXPAND_WIDTH + allStatEntries.length - expandableCount]
-					: new String[allStatEntries.length];
 		}
+		int size = 0;
+		for (String[] statEntry : allStatEntries) {
+			size += getExpandWidth(name2entry.get(statEntry[0]));
+		}
+		return new String[size];
 	}
 
 
@@ -560,15 +616,8 @@ public abstract class AbstractStatistics implements Statistics {
 			int stringCount = 0;
 			for (int index = 0; index < allStatEntries.length; index++) {
 				StatEntry entry = name2entry.get(allStatEntries[index][0]);
-				String category = entry.category;
-
-				if (SettingsCommon.verboseStatistics && (!category.contains(EXCLUDE_CATEGORY))) { //info category no
-					// need
-					// to be expanded
-					for (int repeat = 0; repeat < STATS_EXPAND_WIDTH; repeat++) {
-						result[stringCount++] = entry.category;
-					}
-				} else {
+				final int width = getExpandWidth(entry);
+				for (int repeat = 0; repeat < width; repeat++) {
 					result[stringCount++] = entry.category;
 				}
 			}
@@ -594,12 +643,13 @@ public abstract class AbstractStatistics implements Statistics {
 			for (int index = 0; index < allStatEntries.length; index++) {
 
 				StatEntry entry = name2entry.get(allStatEntries[index][0]);
-				String category = entry.category;
-
-				if (allowExpand && SettingsCommon.verboseStatistics && (!category.contains(
-						EXCLUDE_CATEGORY))) { //info category no need to be
-					// expanded
+				final int width = allowExpand ? getExpandWidth(entry) : 1;
 
+				if (width > 1 && entry.buffered instanceof StatsPercentiles) {
+					for (String suffix : StatsPercentiles.SUFFIXES) {
+						result[stringCount++] = entry.name + suffix;
+					}
+				} else if (width > 1) {
 					result[stringCount++] = entry.name;
 					result[stringCount++] = entry.name + "Max";
 					result[stringCount++] = entry.name + "Min";
@@ -626,11 +676,13 @@ public abstract class AbstractStatistics implements Statistics {
 			int stringCount = 0;
 			for (int index = 0; index < allStatEntries.length; index++) {
 				StatEntry entry = name2entry.get(allStatEntries[index][0]);
-				String category = entry.category;
+				final int width = getExpandWidth(entry);
 
-				if (SettingsCommon.verboseStatistics && (!category.contains(EXCLUDE_CATEGORY))) { //info category no
-					// need
-					// to be expanded
+				if (width > 1 && entry.buffered instanceof StatsPercentiles) {
+					for (int which = 0; which < width; which++) {
+						result[stringCount++] = getPercentileString(entry, which);
+					}
+				} else if (width > 1) {
 					result[stringCount++] = this.getStatString(index);
 					result[stringCount++] = this.getMaxString(index);
 					result[stringCount++] = this.getMinString(index);
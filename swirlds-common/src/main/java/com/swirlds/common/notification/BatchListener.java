@@ -0,0 +1,44 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.common.notification;
+
+import java.util.List;
+
+/**
+ * A {@link Listener} that can handle several notifications in a single call. When notifications are dispatched in
+ * batches, a batch listener is given all the notifications of a batch at once instead of one at a time.
+ *
+ * @param <N>
+ * 		the type of the supported {@link Notification}
+ */
+@FunctionalInterface
+public interface BatchListener<N extends Notification> extends Listener<N> {
+
+	/**
+	 * Called with notifications that this listener should handle, in the order they were dispatched.
+	 *
+	 * @param batch
+	 * 		the notifications to be handled
+	 */
+	void notifyBatch(final List<N> batch);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	default void notify(final N data) {
+		notifyBatch(List.of(data));
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.common.notification;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue depth and latency of the notifications dispatched to one {@link Listener} class. Latency is measured from the
+ * call to {@link NotificationEngine#dispatch(Class, Notification)} until all registered listeners have been notified.
+ */
+public class ListenerDispatchMetrics {
+
+	/**
+	 * the number of notifications waiting to be delivered
+	 */
+	private final AtomicLong queueDepth = new AtomicLong();
+
+	/**
+	 * the number of notifications delivered
+	 */
+	private final AtomicLong deliveredCount = new AtomicLong();
+
+	/**
+	 * the sum of the latencies of all delivered notifications, in nanoseconds
+	 */
+	private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+	/**
+	 * the largest latency of a delivered notification, in nanoseconds
+	 */
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+	/**
+	 * Called when a notification is queued for delivery.
+	 */
+	public void queued() {
+		queueDepth.incrementAndGet();
+	}
+
+	/**
+	 * Called when a queued notification has been delivered.
+	 *
+	 * @param latencyNanos
+	 * 		the nanoseconds between dispatch and delivery
+	 */
+	public void dequeuedAndDelivered(final long latencyNanos) {
+		queueDepth.decrementAndGet();
+		delivered(latencyNanos);
+	}
+
+	/**
+	 * Called when a notification has been delivered without being queued.
+	 *
+	 * @param latencyNanos
+	 * 		the nanoseconds between dispatch and delivery
+	 */
+	public void delivered(final long latencyNanos) {
+		deliveredCount.incrementAndGet();
+		totalLatencyNanos.addAndGet(latencyNanos);
+		maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+	}
+
+	/**
+	 * Getter for the number of notifications waiting to be delivered.
+	 *
+	 * @return the queue depth
+	 */
+	public long getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	/**
+	 * Getter for the number of notifications delivered.
+	 *
+	 * @return the number of notifications delivered
+	 */
+	public long getDeliveredCount() {
+		return deliveredCount.get();
+	}
+
+	/**
+	 * Getter for the average latency of the delivered notifications.
+	 *
+	 * @return the average latency in nanoseconds, or 0 if none have been delivered
+	 */
+	public double getAverageLatencyNanos() {
+		final long count = deliveredCount.get();
+		return count == 0 ? 0 : (double) totalLatencyNanos.get() / count;
+	}
+
+	/**
+	 * Getter for the largest latency of a delivered notification.
+	 *
+	 * @return the largest latency in nanoseconds
+	 */
+	public long getMaxLatencyNanos() {
+		return maxLatencyNanos.get();
+	}
+}
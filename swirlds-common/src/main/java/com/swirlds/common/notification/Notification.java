@@ -36,4 +36,17 @@ public interface Notification {
 	 */
 	void setSequence(final long id);
 
+	/**
+	 * Getter for the key of the partition that this notification belongs to. When a {@link NotificationEngine}
+	 * dispatches notifications on several threads, {@link DispatchOrder#ORDERED} delivery is guaranteed among the
+	 * notifications of a listener class that have equal partition keys.
+	 *
+	 * The default is null, which puts every notification of a listener class in the same partition.
+	 *
+	 * @return the partition key, or null
+	 */
+	default Object getPartitionKey() {
+		return null;
+	}
+
 }
@@ -84,4 +84,18 @@ public interface NotificationEngine {
 	 */
 	<L extends Listener> boolean unregister(final Class<L> listenerClass, final L callback);
 
+	/**
+	 * Getter for the queue depth and latency of the notifications dispatched to a listener class.
+	 *
+	 * @param listenerClass
+	 * 		the type of listener
+	 * @param <L>
+	 * 		the type of the {@link Listener} class
+	 * @return the metrics of the listener class, or null if this engine does not collect metrics or nothing has been
+	 * 		dispatched to the listener class
+	 */
+	default <L extends Listener> ListenerDispatchMetrics getMetrics(final Class<L> listenerClass) {
+		return null;
+	}
+
 }
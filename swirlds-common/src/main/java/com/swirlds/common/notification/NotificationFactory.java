@@ -15,6 +15,7 @@
 package com.swirlds.common.notification;
 
 import com.swirlds.common.notification.internal.AsyncNotificationEngine;
+import com.swirlds.common.notification.internal.ShardedNotificationEngine;
 
 /**
  * Factory that provides access to the default implementation of the {@link NotificationEngine} interface using a
@@ -25,11 +26,17 @@ public final class NotificationFactory {
 	/**
 	 * the internal singleton instance
 	 */
-	private static final NotificationEngine instance = new AsyncNotificationEngine();
+	private static volatile NotificationEngine instance;
 
-	static {
-		instance.initialize();
-	}
+	/**
+	 * the number of threads of the {@link ShardedNotificationEngine}, or 0 to use the {@link AsyncNotificationEngine}
+	 */
+	private static int dispatchThreads = 0;
+
+	/**
+	 * the most notifications that each thread of the {@link ShardedNotificationEngine} delivers at a time
+	 */
+	private static int maxBatchSize = 1;
 
 	/**
 	 * Private constructor to prevent class instantiation.
@@ -38,12 +45,43 @@ public final class NotificationFactory {
 
 	}
 
+	/**
+	 * Chooses the implementation of the singleton. Has no effect if the singleton has already been created, since
+	 * listeners may already be registered with it.
+	 *
+	 * @param dispatchThreads
+	 * 		if positive, a {@link ShardedNotificationEngine} with this many threads is used. If 0, an {@link
+	 *        AsyncNotificationEngine} with one thread per listener class is used.
+	 * @param maxBatchSize
+	 * 		the most notifications that each thread of a {@link ShardedNotificationEngine} delivers at a time
+	 */
+	public static synchronized void configure(final int dispatchThreads, final int maxBatchSize) {
+		NotificationFactory.dispatchThreads = dispatchThreads;
+		NotificationFactory.maxBatchSize = maxBatchSize;
+	}
+
 	/**
 	 * Getter that provides access to a singleton instance of the {@link NotificationEngine} interface.
 	 *
 	 * @return a singleton instance of the {@link NotificationEngine}
 	 */
 	public static NotificationEngine getEngine() {
-		return instance;
+		NotificationEngine engine = instance;
+
+		if (engine == null) {
+			synchronized (NotificationFactory.class) {
+				engine = instance;
+
+				if (engine == null) {
+					engine = (dispatchThreads > 0)
+							? new ShardedNotificationEngine(dispatchThreads, maxBatchSize)
+							: new AsyncNotificationEngine();
+					engine.initialize();
+					instance = engine;
+				}
+			}
+		}
+
+		return engine;
 	}
 }
@@ -0,0 +1,466 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.common.notification.internal;
+
+import com.swirlds.common.futures.WaitingFuture;
+import com.swirlds.common.notification.BatchListener;
+import com.swirlds.common.notification.DispatchException;
+import com.swirlds.common.notification.DispatchMode;
+import com.swirlds.common.notification.DispatchOrder;
+import com.swirlds.common.notification.Listener;
+import com.swirlds.common.notification.ListenerDispatchMetrics;
+import com.swirlds.common.notification.Notification;
+import com.swirlds.common.notification.NotificationResult;
+import com.swirlds.common.threading.StandardThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A {@link com.swirlds.common.notification.NotificationEngine} that dispatches asynchronous notifications on a fixed
+ * pool of shard threads, instead of one thread per listener class, so that a slow listener only delays the
+ * notifications that share its shard.
+ *
+ * Each shard delivers its notifications in the order they were queued. {@link DispatchOrder#ORDERED} notifications
+ * are assigned to a shard by their listener class and {@link Notification#getPartitionKey()}, so notifications with
+ * the same listener class and partition key are delivered in order. {@link DispatchOrder#UNORDERED} notifications
+ * are spread over all shards. Synchronous dispatches run on the calling thread, and only ORDERED dispatches with the
+ * same listener class and partition key exclude each other. They do so through a fixed set of striped locks, so
+ * unrelated partitions that share a stripe also exclude each other. As with the lock of each listener class in
+ * {@link AsyncNotificationEngine}, a listener of a synchronous ORDERED dispatch that itself dispatches synchronously to
+ * another ORDERED partition may deadlock with a thread that nests them in the opposite order.
+ *
+ * A shard takes up to a maximum number of queued notifications at a time. Consecutive notifications in that batch for
+ * the same listener class are given to each {@link BatchListener} in one call.
+ */
+public class ShardedNotificationEngine extends AbstractNotificationEngine {
+
+	private static final int THREAD_STOP_WAIT_MS = 5000;
+	private static final int THREAD_PRIORITY = 5;
+
+	/**
+	 * the number of bits of a partition's hash that select its lock, so there are 256 locks
+	 */
+	private static final int PARTITION_LOCK_BITS = 8;
+
+	/**
+	 * the listeners registered for each listener class
+	 */
+	private final Map<Class<? extends Listener>, List<Listener>> listenerRegistry;
+
+	/**
+	 * the metrics of each listener class
+	 */
+	private final Map<Class<? extends Listener>, ListenerDispatchMetrics> metrics;
+
+	/**
+	 * the shards that deliver asynchronous notifications
+	 */
+	private final Shard[] shards;
+
+	/**
+	 * locks that order the ORDERED dispatches of each partition. Each partition always uses the same lock, but many
+	 * partitions share each one, so the locks don't grow with the number of partition keys or keep the keys alive.
+	 */
+	private final Object[] partitionLocks;
+
+	/**
+	 * the most notifications that a shard takes from its queue at a time
+	 */
+	private final int maxBatchSize;
+
+	/**
+	 * used to spread unordered notifications over the shards
+	 */
+	private final AtomicInteger nextUnorderedShard;
+
+	private volatile boolean started;
+
+	/**
+	 * Create an engine.
+	 *
+	 * @param shardCount
+	 * 		the number of threads that deliver asynchronous notifications
+	 * @param maxBatchSize
+	 * 		the most notifications that a thread takes from its queue and delivers at a time
+	 */
+	public ShardedNotificationEngine(final int shardCount, final int maxBatchSize) {
+		if (shardCount < 1) {
+			throw new IllegalArgumentException("shardCount");
+		}
+
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("maxBatchSize");
+		}
+
+		this.listenerRegistry = new ConcurrentHashMap<>();
+		this.metrics = new ConcurrentHashMap<>();
+		this.maxBatchSize = maxBatchSize;
+		this.nextUnorderedShard = new AtomicInteger(0);
+		this.shards = new Shard[shardCount];
+		this.partitionLocks = new Object[1 << PARTITION_LOCK_BITS];
+
+		for (int i = 0; i < shardCount; i++) {
+			shards[i] = new Shard(i);
+		}
+
+		for (int i = 0; i < partitionLocks.length; i++) {
+			partitionLocks[i] = new Object();
+		}
+
+		Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void initialize() {
+		if (started) {
+			return;
+		}
+
+		for (Shard shard : shards) {
+			shard.start();
+		}
+
+		started = true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void shutdown() {
+		if (!started) {
+			return;
+		}
+
+		for (Shard shard : shards) {
+			shard.stop();
+		}
+
+		started = false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <L extends Listener<N>, N extends Notification> Future<NotificationResult<N>> dispatch(
+			final Class<L> listenerClass, final N notification) {
+
+		checkArguments(listenerClass, notification);
+
+		final List<Listener> listeners = listenerRegistry.get(listenerClass);
+
+		if (listeners == null || listeners.isEmpty()) {
+			return new WaitingFuture<>(new NotificationResult<>(notification, 0));
+		}
+
+		final DispatchOrder dispatchOrder = dispatchOrder(listenerClass);
+		final DispatchMode dispatchMode = dispatchMode(listenerClass);
+		final ListenerDispatchMetrics listenerMetrics = metricsOf(listenerClass);
+		final long dispatchTime = System.nanoTime();
+
+		final WaitingFuture<NotificationResult<N>> future = new WaitingFuture<>();
+
+		if (dispatchMode == DispatchMode.SYNC) {
+			if (dispatchOrder == DispatchOrder.ORDERED) {
+				synchronized (lockOf(listenerClass, notification)) {
+					assignSequence(notification);
+					deliverSync(listeners, notification, future::done);
+				}
+			} else {
+				assignSequence(notification);
+				deliverSync(listeners, notification, future::done);
+			}
+
+			listenerMetrics.delivered(System.nanoTime() - dispatchTime);
+			return future;
+		}
+
+		if (!started) {
+			initialize();
+		}
+
+		final ShardTask<N> task = new ShardTask<>(listenerClass, notification, future::done, dispatchTime);
+
+		listenerMetrics.queued();
+
+		if (dispatchOrder == DispatchOrder.ORDERED) {
+			// the sequence and the queue must agree on the order of the partition
+			synchronized (lockOf(listenerClass, notification)) {
+				assignSequence(notification);
+				shards[shardOf(listenerClass, notification)].queue.add(task);
+			}
+		} else {
+			assignSequence(notification);
+			shards[Math.floorMod(nextUnorderedShard.getAndIncrement(), shards.length)].queue.add(task);
+		}
+
+		return future;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <L extends Listener> boolean register(final Class<L> listenerClass, final L callback) {
+
+		checkArguments(listenerClass, callback);
+
+		return listenerRegistry.computeIfAbsent(listenerClass, (key) -> new CopyOnWriteArrayList<>()).add(callback);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <L extends Listener> boolean unregister(final Class<L> listenerClass, final L callback) {
+
+		checkArguments(listenerClass, callback);
+
+		final List<Listener> listeners = listenerRegistry.get(listenerClass);
+
+		return listeners != null && listeners.remove(callback);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <L extends Listener> ListenerDispatchMetrics getMetrics(final Class<L> listenerClass) {
+		return metrics.get(listenerClass);
+	}
+
+	private ListenerDispatchMetrics metricsOf(final Class<? extends Listener> listenerClass) {
+		return metrics.computeIfAbsent(listenerClass, (key) -> new ListenerDispatchMetrics());
+	}
+
+	/**
+	 * Find the lock that orders the dispatches of the partition of a notification.
+	 */
+	private Object lockOf(final Class<? extends Listener> listenerClass, final Notification notification) {
+		final Object key = notification.getPartitionKey();
+		final int hash = listenerClass.hashCode() * 31 + (key == null ? 0 : key.hashCode());
+		// take the top bits of a multiplicative hash, unlike shardOf, so the partitions of a shard are spread over
+		// all the locks
+		return partitionLocks[(hash * 0x9E3779B9) >>> (Integer.SIZE - PARTITION_LOCK_BITS)];
+	}
+
+	/**
+	 * Find the shard that delivers the partition of a notification.
+	 */
+	private int shardOf(final Class<? extends Listener> listenerClass, final Notification notification) {
+		final Object key = notification.getPartitionKey();
+		int hash = listenerClass.hashCode() * 31 + (key == null ? 0 : key.hashCode());
+		hash ^= (hash >>> 16);
+		return Math.floorMod(hash, shards.length);
+	}
+
+	private <N extends Notification> void deliverSync(final List<Listener> listeners, final N notification,
+			final Consumer<NotificationResult<N>> callback) {
+		final NotificationResult<N> result = new NotificationResult<>(notification, listeners.size());
+
+		for (final Listener l : listeners) {
+			try {
+				@SuppressWarnings("unchecked") final Listener<N> listener = (Listener<N>) l;
+				listener.notify(notification);
+			} catch (Exception ex) {
+				throw new DispatchException(ex);
+			}
+		}
+
+		callback.accept(result);
+	}
+
+	/**
+	 * Deliver a batch taken from the queue of a shard. Runs of consecutive notifications for the same listener class
+	 * are delivered together.
+	 */
+	private void deliverBatch(final List<ShardTask<?>> batch) {
+		int runStart = 0;
+
+		while (runStart < batch.size()) {
+			final Class<? extends Listener> listenerClass = batch.get(runStart).listenerClass;
+			int runEnd = runStart + 1;
+
+			while (runEnd < batch.size() && batch.get(runEnd).listenerClass == listenerClass) {
+				runEnd++;
+			}
+
+			deliverRun(listenerClass, batch.subList(runStart, runEnd));
+			runStart = runEnd;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void deliverRun(final Class<? extends Listener> listenerClass, final List<ShardTask<?>> run) {
+		final List<Listener> registered = listenerRegistry.get(listenerClass);
+		final List<Listener> listeners = (registered != null) ? registered : List.of();
+
+		final List<Notification> notifications = new ArrayList<>(run.size());
+		final List<NotificationResult<Notification>> results = new ArrayList<>(run.size());
+
+		for (final ShardTask<?> task : run) {
+			notifications.add(task.notification);
+			results.add(new NotificationResult<>(task.notification, listeners.size()));
+		}
+
+		for (final Listener l : listeners) {
+			if (l instanceof BatchListener && notifications.size() > 1) {
+				try {
+					((BatchListener<Notification>) l).notifyBatch(notifications);
+				} catch (Exception ex) {
+					for (final NotificationResult<Notification> result : results) {
+						result.addException(ex);
+					}
+				}
+				continue;
+			}
+
+			for (int i = 0; i < notifications.size(); i++) {
+				try {
+					((Listener<Notification>) l).notify(notifications.get(i));
+				} catch (Exception ex) {
+					results.get(i).addException(ex);
+				}
+			}
+		}
+
+		final ListenerDispatchMetrics listenerMetrics = metricsOf(listenerClass);
+		final long now = System.nanoTime();
+
+		for (int i = 0; i < run.size(); i++) {
+			final ShardTask<Notification> task = (ShardTask<Notification>) run.get(i);
+			listenerMetrics.dequeuedAndDelivered(now - task.dispatchTime);
+
+			if (task.callback != null) {
+				task.callback.accept(results.get(i));
+			}
+		}
+	}
+
+	private <L extends Listener<N>, N extends Notification> void checkArguments(final Class<L> listenerClass,
+			final N notification) {
+		if (listenerClass == null) {
+			throw new IllegalArgumentException("listenerClass");
+		}
+
+		if (notification == null) {
+			throw new IllegalArgumentException("notification");
+		}
+	}
+
+	private <L extends Listener> void checkArguments(final Class<L> listenerClass, final L callback) {
+		if (listenerClass == null) {
+			throw new IllegalArgumentException("listenerClass");
+		}
+
+		if (callback == null) {
+			throw new IllegalArgumentException("callback");
+		}
+	}
+
+	/**
+	 * A notification waiting in the queue of a shard.
+	 */
+	private static class ShardTask<N extends Notification> {
+		private final Class<? extends Listener> listenerClass;
+		private final N notification;
+		private final Consumer<NotificationResult<N>> callback;
+		private final long dispatchTime;
+
+		ShardTask(final Class<? extends Listener> listenerClass, final N notification,
+				final Consumer<NotificationResult<N>> callback, final long dispatchTime) {
+			this.listenerClass = listenerClass;
+			this.notification = notification;
+			this.callback = callback;
+			this.dispatchTime = dispatchTime;
+		}
+	}
+
+	/**
+	 * A thread and the queue of notifications that it delivers in order.
+	 */
+	private class Shard {
+		private final int index;
+		private final BlockingQueue<ShardTask<?>> queue;
+		private volatile Thread thread;
+		private volatile boolean running;
+
+		Shard(final int index) {
+			this.index = index;
+			this.queue = new LinkedBlockingQueue<>();
+		}
+
+		void start() {
+			thread = StandardThreadFactory.newThread(
+					String.format("< notify shard: %d >", index),
+					this::worker,
+					true,
+					THREAD_PRIORITY
+			);
+
+			running = true;
+			thread.start();
+		}
+
+		void stop() {
+			running = false;
+
+			if (queue.isEmpty()) {
+				thread.interrupt();
+			}
+
+			try {
+				thread.join(THREAD_STOP_WAIT_MS);
+
+				if (thread.isAlive() && !thread.isInterrupted()) {
+					thread.interrupt();
+				}
+
+				thread = null;
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void worker() {
+			final List<ShardTask<?>> batch = new ArrayList<>(maxBatchSize);
+
+			try {
+				while (running || !queue.isEmpty()) {
+					batch.add(queue.take());
+					queue.drainTo(batch, maxBatchSize - 1);
+
+					deliverBatch(batch);
+					batch.clear();
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
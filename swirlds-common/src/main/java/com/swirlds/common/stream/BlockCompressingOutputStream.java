@@ -0,0 +1,191 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.common.stream;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static com.swirlds.common.stream.TimestampStreamFileWriter.COMPRESSED_FILE_VERSION;
+
+/**
+ * Writes a compressed object stream file. The content of the file, which is everything an uncompressed stream file
+ * has after its file version, is split into blocks of a fixed size, and each block is compressed on its own. The file
+ * has this layout:
+ * <ul>
+ * <li>the file version {@link TimestampStreamFileWriter#COMPRESSED_FILE_VERSION}, and the block size</li>
+ * <li>for each block: the uncompressed length, the compressed length, the CRC32 of the uncompressed bytes, and
+ * the compressed bytes</li>
+ * <li>an uncompressed length of 0, marking the end of the blocks</li>
+ * <li>the block index: the number of blocks, then for each block, its offset in the file and the offset of its
+ * first byte in the uncompressed content</li>
+ * <li>the offset of the block index in the file</li>
+ * </ul>
+ * Since each block can be decompressed on its own, a reader can use the block index to start reading anywhere in
+ * the content. See {@link BlockDecompressingInputStream}.
+ */
+public class BlockCompressingOutputStream extends OutputStream {
+	/** the file being written, which also counts the bytes written to it */
+	private final DataOutputStream out;
+	/** compresses each block */
+	private final Deflater deflater = new Deflater();
+	/** calculates the checksum of each block */
+	private final CRC32 crc = new CRC32();
+
+	/** the uncompressed bytes of the block being filled */
+	private final byte[] block;
+	/** the number of bytes in the block being filled */
+	private int count;
+	/** the compressed bytes of the last block */
+	private byte[] compressed;
+
+	/** the number of blocks written */
+	private int numBlocks;
+	/** the offset in the file of each block */
+	private long[] blockFileOffsets = new long[16];
+	/** the offset in the uncompressed content of each block */
+	private long[] blockContentOffsets = new long[16];
+	/** the number of uncompressed bytes in all the blocks written */
+	private long contentWritten;
+
+	/** true once the end of the blocks and the block index have been written */
+	private boolean finished = false;
+
+	/**
+	 * Start a compressed stream file by writing its file version and block size
+	 *
+	 * @param out
+	 * 		the file to write to, which must be empty
+	 * @param blockSize
+	 * 		the number of uncompressed bytes in each block
+	 * @throws IOException
+	 * 		if the file throws
+	 */
+	public BlockCompressingOutputStream(final OutputStream out, final int blockSize) throws IOException {
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("blockSize must be positive, was " + blockSize);
+		}
+		this.out = new DataOutputStream(out);
+		this.block = new byte[blockSize];
+		this.compressed = new byte[blockSize + blockSize / 8 + 64];
+		this.out.writeInt(COMPRESSED_FILE_VERSION);
+		this.out.writeInt(blockSize);
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		if (count == block.length) {
+			writeBlock();
+		}
+		block[count++] = (byte) b;
+	}
+
+	@Override
+	public void write(final byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (count == block.length) {
+				writeBlock();
+			}
+			final int n = Math.min(len, block.length - count);
+			System.arraycopy(b, off, block, count, n);
+			count += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * Flush the file. The block being filled is not written until it is full, or the stream is finished, so that
+	 * frequent flushes do not produce small blocks that compress badly.
+	 */
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Write the block being filled, the end of the blocks, and the block index. Nothing more can be written after
+	 * this. The file is not closed.
+	 *
+	 * @throws IOException
+	 * 		if the file throws
+	 */
+	public void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		if (count > 0) {
+			writeBlock();
+		}
+		out.writeInt(0);
+
+		final long indexOffset = out.size();
+		out.writeInt(numBlocks);
+		for (int i = 0; i < numBlocks; i++) {
+			out.writeLong(blockFileOffsets[i]);
+			out.writeLong(blockContentOffsets[i]);
+		}
+		out.writeLong(indexOffset);
+		out.flush();
+		deflater.end();
+		finished = true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		finish();
+		out.close();
+	}
+
+	/**
+	 * compress the block being filled, and write it with its lengths and checksum
+	 */
+	private void writeBlock() throws IOException {
+		if (finished) {
+			throw new IOException("BlockCompressingOutputStream has been finished");
+		}
+		deflater.reset();
+		deflater.setInput(block, 0, count);
+		deflater.finish();
+		int compressedLength = 0;
+		while (!deflater.finished()) {
+			if (compressedLength == compressed.length) {
+				compressed = Arrays.copyOf(compressed, compressed.length * 2);
+			}
+			compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+		}
+		crc.reset();
+		crc.update(block, 0, count);
+
+		if (numBlocks == blockFileOffsets.length) {
+			blockFileOffsets = Arrays.copyOf(blockFileOffsets, numBlocks * 2);
+			blockContentOffsets = Arrays.copyOf(blockContentOffsets, numBlocks * 2);
+		}
+		// DataOutputStream.size() is an int, which is enough for the files we write
+		blockFileOffsets[numBlocks] = out.size();
+		blockContentOffsets[numBlocks] = contentWritten;
+		numBlocks++;
+
+		out.writeInt(count);
+		out.writeInt(compressedLength);
+		out.writeInt((int) crc.getValue());
+		out.write(compressed, 0, compressedLength);
+		contentWritten += count;
+		count = 0;
+	}
+}
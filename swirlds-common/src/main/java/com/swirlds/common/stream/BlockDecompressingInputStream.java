@@ -0,0 +1,256 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.common.stream;
+
+import com.swirlds.common.io.BadIOException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the uncompressed content of a compressed object stream file written by
+ * {@link BlockCompressingOutputStream}, checking the checksum of each block. It can read the content from the
+ * beginning, or start anywhere in it by using the block index (see {@link #open(File, long)}).
+ */
+public class BlockDecompressingInputStream extends InputStream {
+	/** the largest block that will be accepted, so that a corrupt length cannot exhaust memory */
+	private static final int MAX_BLOCK_SIZE = 64 * 1024 * 1024;
+
+	/** the compressed blocks */
+	private final DataInputStream in;
+	/** decompresses each block */
+	private final Inflater inflater = new Inflater();
+	/** calculates the checksum of each block */
+	private final CRC32 crc = new CRC32();
+
+	/** the uncompressed bytes of the current block */
+	private byte[] block = new byte[0];
+	/** the compressed bytes of the current block */
+	private byte[] compressed = new byte[0];
+	/** the position of the next byte to read in the current block */
+	private int pos;
+	/** the number of bytes in the current block */
+	private int limit;
+	/** true once the end of the blocks has been read */
+	private boolean ended = false;
+
+	/**
+	 * Read the content of a compressed stream file from the beginning
+	 *
+	 * @param in
+	 * 		the file, positioned after its file version. The block size is read from it.
+	 * @throws IOException
+	 * 		if the file throws
+	 */
+	public BlockDecompressingInputStream(final InputStream in) throws IOException {
+		this.in = new DataInputStream(in);
+		final int blockSize = this.in.readInt();
+		if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE) {
+			throw new BadIOException("invalid block size in compressed stream file: " + blockSize);
+		}
+	}
+
+	/**
+	 * @param in
+	 * 		the file, positioned at the start of a block
+	 * @param atBlock
+	 * 		only used to distinguish this constructor
+	 */
+	private BlockDecompressingInputStream(final InputStream in, final boolean atBlock) {
+		this.in = new DataInputStream(in);
+	}
+
+	/**
+	 * Open a compressed stream file and start reading its content at the given offset, using the block index to
+	 * skip to the block that contains it
+	 *
+	 * @param file
+	 * 		a compressed stream file
+	 * @param contentOffset
+	 * 		the offset in the uncompressed content of the first byte to read
+	 * @return a stream of the content from the offset on
+	 * @throws IOException
+	 * 		if the file cannot be read, or its block index is not valid
+	 */
+	public static BlockDecompressingInputStream open(final File file, final long contentOffset) throws IOException {
+		final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			final long size = channel.size();
+			final ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+			readFully(channel, trailer, size - Long.BYTES);
+			final long indexOffset = trailer.getLong(0);
+			if (indexOffset < 2L * Integer.BYTES || indexOffset > size - Long.BYTES - Integer.BYTES) {
+				throw new BadIOException("invalid block index offset in " + file.getName() + ": " + indexOffset);
+			}
+			final ByteBuffer index = ByteBuffer.allocate((int) (size - Long.BYTES - indexOffset));
+			readFully(channel, index, indexOffset);
+			final int numBlocks = index.getInt(0);
+			if (numBlocks < 0 || (long) numBlocks * 2 * Long.BYTES != index.capacity() - Integer.BYTES) {
+				throw new BadIOException("invalid block index in " + file.getName());
+			}
+
+			// the last block that starts at or before the offset
+			long blockFileOffset = -1;
+			long blockContentOffset = 0;
+			for (int i = 0; i < numBlocks; i++) {
+				final long contentStart = index.getLong(Integer.BYTES + (2 * i + 1) * Long.BYTES);
+				if (contentStart > contentOffset) {
+					break;
+				}
+				blockFileOffset = index.getLong(Integer.BYTES + 2 * i * Long.BYTES);
+				blockContentOffset = contentStart;
+			}
+
+			final BlockDecompressingInputStream stream;
+			if (blockFileOffset < 0) {
+				// there are no blocks, or the offset is before the first, so read from the beginning
+				channel.position(Integer.BYTES);
+				stream = new BlockDecompressingInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+			} else {
+				channel.position(blockFileOffset);
+				stream = new BlockDecompressingInputStream(
+						new BufferedInputStream(Channels.newInputStream(channel)), true);
+			}
+			stream.skipNBytes(contentOffset - blockContentOffset);
+			return stream;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+			throws IOException {
+		long p = position;
+		while (buffer.hasRemaining()) {
+			final int n = channel.read(buffer, p);
+			if (n < 0) {
+				throw new BadIOException("unexpected end of compressed stream file");
+			}
+			p += n;
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (pos == limit && !nextBlock()) {
+			return -1;
+		}
+		return block[pos++] & 0xFF;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (pos == limit && !nextBlock()) {
+			return -1;
+		}
+		final int n = Math.min(len, limit - pos);
+		System.arraycopy(block, pos, b, off, n);
+		pos += n;
+		return n;
+	}
+
+	@Override
+	public long skip(final long n) throws IOException {
+		long skipped = 0;
+		while (skipped < n && (pos < limit || nextBlock())) {
+			final int s = (int) Math.min(n - skipped, limit - pos);
+			pos += s;
+			skipped += s;
+		}
+		return skipped;
+	}
+
+	/**
+	 * @return the number of bytes left in the current block, or in the next block if this one has been read. This
+	 * 		is 0 only at the end of the content.
+	 */
+	@Override
+	public int available() throws IOException {
+		if (pos == limit) {
+			nextBlock();
+		}
+		return limit - pos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		inflater.end();
+		in.close();
+	}
+
+	/**
+	 * read, decompress and check the next block
+	 *
+	 * @return false if there are no more blocks
+	 */
+	private boolean nextBlock() throws IOException {
+		if (ended) {
+			return false;
+		}
+		final int length = in.readInt();
+		if (length == 0) {
+			ended = true;
+			pos = 0;
+			limit = 0;
+			return false;
+		}
+		final int compressedLength = in.readInt();
+		final int checksum = in.readInt();
+		if (length < 0 || length > MAX_BLOCK_SIZE || compressedLength <= 0 || compressedLength > MAX_BLOCK_SIZE) {
+			throw new BadIOException("invalid block lengths in compressed stream file: "
+					+ length + ", " + compressedLength);
+		}
+		if (compressed.length < compressedLength) {
+			compressed = new byte[compressedLength];
+		}
+		in.readFully(compressed, 0, compressedLength);
+		if (block.length < length) {
+			block = new byte[length];
+		}
+
+		inflater.reset();
+		inflater.setInput(compressed, 0, compressedLength);
+		try {
+			final int inflated = inflater.inflate(block, 0, length);
+			if (inflated != length || !inflater.finished()) {
+				throw new BadIOException("compressed block does not have its stated length " + length);
+			}
+		} catch (DataFormatException e) {
+			throw new BadIOException("compressed block is corrupt: " + e.getMessage());
+		}
+		crc.reset();
+		crc.update(block, 0, length);
+		if ((int) crc.getValue() != checksum) {
+			throw new BadIOException("checksum of compressed block does not match");
+		}
+		pos = 0;
+		limit = length;
+		return true;
+	}
+}
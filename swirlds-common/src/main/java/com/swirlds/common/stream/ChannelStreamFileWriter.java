@@ -0,0 +1,505 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.common.stream;
+
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.crypto.SerializableHashable;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import com.swirlds.common.threading.StandardThreadFactory;
+import com.swirlds.common.threading.StandardThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import static com.swirlds.common.Constants.MS_TO_NS;
+import static com.swirlds.common.Constants.SEC_TO_NS;
+import static com.swirlds.common.stream.TimestampStreamFileWriter.FILE_VERSION;
+import static com.swirlds.common.stream.TimestampStreamFileWriter.generateSigFilePath;
+import static com.swirlds.common.stream.TimestampStreamFileWriter.generateStreamFileNameFromInstant;
+import static com.swirlds.common.stream.TimestampStreamFileWriter.writeSignatureFile;
+
+/**
+ * Writes the same object stream files as {@link TimestampStreamFileWriter}, but in batches: every object waiting in
+ * the queue is serialized into pooled direct buffers, and the buffers are written to the file with a single gathering
+ * {@link FileChannel} write. The file is synced after every batch, or at most once per period, and always when it is
+ * closed. Signature files are generated on a separate thread, so that writing the next file does not wait for the
+ * signature of the last one.
+ */
+public class ChannelStreamFileWriter<T extends Timestamped & SerializableHashable> implements ObjectStreamConsumer<T> {
+	/** use this for all logging, as controlled by the optional data/log4j2.xml file */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * logs related to Object Stream threads
+	 */
+	private static final Marker LOGM_OBJECT_STREAM = MarkerManager.getMarker("OBJECT_STREAM");
+	/**
+	 * logs related to files created for Object Stream
+	 */
+	private static final Marker LOGM_OBJECT_STREAM_FILE = MarkerManager.getMarker("OBJECT_STREAM_FILE");
+	private static final Marker LOGM_EXCEPTION = MarkerManager.getMarker("EXCEPTION");
+
+	/** the most buffers that are filled before they are written to the file, even if more objects are waiting */
+	private static final int MAX_BUFFERS_PER_BATCH = 64;
+
+	/** the path to which we write object stream files and signature files */
+	private final String dirPath;
+	/** period of generating object stream files in ms */
+	private final long logPeriodMs;
+	/** generate signature bytes for lastRunningHash in corresponding file */
+	private final Signer signer;
+	/** if true, we don't write object stream file until the first complete window */
+	private final boolean startWriteAtCompleteWindow;
+	/** the size in bytes of each direct buffer */
+	private final int bufferSize;
+	/** the number of uncompressed bytes in each compressed block, or 0 to write uncompressed files */
+	private final int compressionBlockSize;
+	/** sync the file after every batch if this is 0, else at most once per this many milliseconds */
+	private final long fsyncPeriodMs;
+	/** if not null, is passed the number of nanoseconds taken by each sync of the file */
+	private final LongConsumer fsyncTimeListener;
+
+	/** queue for stream to observer */
+	private final BlockingQueue<WorkLoad<T>> forStream;
+	/** the thread which writes objects to files */
+	private final Thread writeThread;
+	/** the thread which signs files once they have been closed */
+	private final ExecutorService signThread;
+
+	/** direct buffers that are not in use. Only used by the write thread */
+	private final ArrayDeque<ByteBuffer> bufferPool = new ArrayDeque<>();
+	/** buffers filled since the last write to the file, in order. Only used by the write thread */
+	private final List<ByteBuffer> batch = new ArrayList<>();
+	/** copies everything written to it into the buffers of the batch */
+	private final BatchOutputStream batchStream = new BatchOutputStream();
+
+	/** the file being written, or null if none */
+	private FileChannel channel;
+	private File file;
+	private String fileNameShort;
+	/**
+	 * serializes objects into the buffers of the batch, through the compressor if files are compressed. Its size is
+	 * the number of content bytes written to the current file so far
+	 */
+	private SerializableDataOutputStream dos;
+	/** compresses the content of the file being written, or null if files are not compressed */
+	private BlockCompressingOutputStream compressor;
+	/** the index of the file being written, which is written next to it when it is closed */
+	private StreamFileIndex index;
+
+	/** current runningHash */
+	private Hash runningHash;
+	/** the consensus timestamp of the last object, used to decide when to start a new file */
+	private Instant lastConsensusTimestamp;
+	/** the value of {@link System#nanoTime()} at the last sync of the file */
+	private long lastFsyncTime;
+	/** true if bytes have been written to the file since it was last synced */
+	private boolean unsynced;
+
+	/** the number of bytes written to files since the last call to {@link #getBytesWrittenSinceLast()} */
+	private final AtomicLong bytesWritten = new AtomicLong();
+
+	/** has writing thread been stopped or not */
+	private volatile boolean stopped = false;
+
+	/**
+	 * whether writing thread should close file after finish writing the last WorkLoad in
+	 * forStream queue, and then stop itself
+	 */
+	private volatile boolean closed = false;
+
+	public ChannelStreamFileWriter(final Hash initialHash,
+			final String dirPath,
+			final long logPeriodMs,
+			final Signer signer,
+			final boolean startWriteAtCompleteWindow,
+			final int eventStreamQueueCapacity,
+			final int bufferSize,
+			final int compressionBlockSize,
+			final long fsyncPeriodMs,
+			final LongConsumer fsyncTimeListener) {
+		this.runningHash = initialHash;
+		this.dirPath = dirPath;
+		this.logPeriodMs = logPeriodMs;
+		this.signer = signer;
+		this.startWriteAtCompleteWindow = startWriteAtCompleteWindow;
+		this.bufferSize = bufferSize;
+		this.compressionBlockSize = compressionBlockSize;
+		this.fsyncPeriodMs = fsyncPeriodMs;
+		this.fsyncTimeListener = fsyncTimeListener;
+		forStream = new ArrayBlockingQueue<>(eventStreamQueueCapacity);
+		signThread = Executors.newSingleThreadExecutor(new StandardThreadFactoryBuilder()
+				.poolName("streamSigner")
+				.daemon(false)
+				.build());
+		writeThread = StandardThreadFactory.newThread("streamWriter", this::work, false);
+		writeThread.start();
+	}
+
+	@Override
+	public void addToObjectStream(final T object, final Hash runningHash) {
+		try {
+			forStream.put(new WorkLoad<>(object, runningHash));
+		} catch (InterruptedException ex) {
+			// Restore interrupted state
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void work() {
+		final List<WorkLoad<T>> workLoads = new ArrayList<>();
+		while (!stopped) {
+			try {
+				final WorkLoad<T> first;
+				if (unsynced) {
+					// don't wait for more objects past the end of the period, so that the last batch is synced
+					// in time even if no more objects arrive
+					first = forStream.poll(fsyncPeriodMs * MS_TO_NS - (System.nanoTime() - lastFsyncTime),
+							TimeUnit.NANOSECONDS);
+				} else {
+					first = forStream.take();
+				}
+				if (first != null) {
+					workLoads.add(first);
+					forStream.drainTo(workLoads);
+					for (WorkLoad<T> workLoad : workLoads) {
+						consume(workLoad);
+					}
+					workLoads.clear();
+					writeBatch();
+				}
+
+				if (channel != null && unsynced && (fsyncPeriodMs <= 0
+						|| System.nanoTime() - lastFsyncTime >= fsyncPeriodMs * MS_TO_NS)) {
+					fsync(false);
+				}
+
+				// if close() has been called, and this is the last object in forStream queue
+				// we should close current file, and stop this writing thread
+				if (closed && forStream.isEmpty()) {
+					closeCurrentAndSign();
+					stopped = true;
+					signThread.shutdown();
+					log.info(LOGM_OBJECT_STREAM,
+							"ChannelStreamFileWriter finished writing the last object in forStream, will be stopped");
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (IOException e) {
+				if (stopped) {
+					// stopAndClear() interrupted a write, and will delete the file
+					return;
+				}
+				log.error(LOGM_EXCEPTION, "IOException when writing to {}", fileNameShort, e);
+				workLoads.clear();
+				// the buffers may have been flipped for a write that failed, so they can't be appended to
+				discardBatch();
+			}
+		}
+	}
+
+	/**
+	 * start a new file if the object is in a new period, then serialize the object into the batch if a file is
+	 * being written
+	 */
+	private void consume(final WorkLoad<T> workLoad) throws IOException {
+		final T object = workLoad.object;
+		if (checkIfShouldWriteNewFile(object)) {
+			closeCurrentAndSign();
+			startNewFile(object);
+		}
+		// if channel is null, it means startWriteAtCompleteWindow is true and we are still in the first
+		// incomplete window, so we don't serialize this object
+		if (channel != null) {
+			// offsets in a compressed file are positions in its uncompressed content, which excludes the file version
+			index.add(object, compressor == null ? dos.size() : Integer.BYTES + dos.size());
+			dos.writeSerializable(object, true);
+		}
+		runningHash = workLoad.hash;
+	}
+
+	/**
+	 * open the file to which we write objects, and write its beginning: File Version ID, and initial runningHash
+	 *
+	 * @param object
+	 * 		the first object to be written to new file
+	 */
+	private void startNewFile(final T object) throws IOException {
+		file = new File(dirPath + File.separator + generateStreamFileNameFromInstant(object.getTimestamp()));
+		fileNameShort = file.getName();
+		if (file.exists() && !file.isDirectory()) {
+			log.info(LOGM_OBJECT_STREAM, "Stream file already exists {}", () -> fileNameShort);
+			return;
+		}
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		lastFsyncTime = System.nanoTime();
+		index = new StreamFileIndex();
+		log.info(LOGM_OBJECT_STREAM_FILE, "Stream file created {}", () -> fileNameShort);
+
+		if (compressionBlockSize > 0) {
+			// the compressor writes the file version
+			compressor = new BlockCompressingOutputStream(batchStream, compressionBlockSize);
+			dos = new SerializableDataOutputStream(compressor);
+		} else {
+			dos = new SerializableDataOutputStream(batchStream);
+			dos.writeInt(FILE_VERSION);
+		}
+		dos.writeSerializable(runningHash, true);
+	}
+
+	/**
+	 * if a file is being written: write the last runningHash, write everything in the batch, sync and close the
+	 * file, and then generate its signature file on the sign thread
+	 */
+	private void closeCurrentAndSign() throws IOException {
+		if (channel == null) {
+			return;
+		}
+		dos.writeSerializable(runningHash, true);
+		if (compressor != null) {
+			// write the last block and the block index
+			compressor.finish();
+		}
+		writeBatch();
+		fsync(true);
+		channel.close();
+		channel = null;
+		dos = null;
+		compressor = null;
+		log.info(LOGM_OBJECT_STREAM_FILE, "File {} is closed at {}", () -> fileNameShort, Instant::now);
+
+		final File closedFile = file;
+		final Hash lastRunningHash = runningHash;
+		final StreamFileIndex closedIndex = index;
+		index = null;
+		signThread.execute(() -> {
+			// write the index of the file, so that readers can seek within it
+			closedIndex.write(closedFile);
+			try {
+				writeSignatureFile(signer.sign(lastRunningHash.getValue()), generateSigFilePath(closedFile));
+			} catch (IOException e) {
+				log.error(LOGM_EXCEPTION,
+						"writeSignatureFile :: Fail to generate signature file for {}", closedFile.getName(), e);
+			}
+		});
+	}
+
+	/**
+	 * write all the buffers of the batch to the file with one gathering write, and return them to the pool
+	 */
+	private void writeBatch() throws IOException {
+		if (batch.isEmpty()) {
+			return;
+		}
+		final ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+		long remaining = 0;
+		for (ByteBuffer buffer : buffers) {
+			buffer.flip();
+			remaining += buffer.remaining();
+		}
+		final long total = remaining;
+		while (remaining > 0) {
+			remaining -= channel.write(buffers);
+		}
+		bytesWritten.addAndGet(total);
+		unsynced = true;
+		discardBatch();
+	}
+
+	/**
+	 * empty all the buffers of the batch and return them to the pool
+	 */
+	private void discardBatch() {
+		for (ByteBuffer buffer : batch) {
+			buffer.clear();
+			bufferPool.push(buffer);
+		}
+		batch.clear();
+	}
+
+	/**
+	 * force everything written so far to the disk
+	 *
+	 * @param metaData
+	 * 		whether the file's metadata should also be written
+	 */
+	private void fsync(final boolean metaData) throws IOException {
+		final long start = System.nanoTime();
+		channel.force(metaData);
+		lastFsyncTime = System.nanoTime();
+		unsynced = false;
+		if (fsyncTimeListener != null) {
+			fsyncTimeListener.accept(lastFsyncTime - start);
+		}
+	}
+
+	/**
+	 * check whether need to start a new file
+	 * return a boolean value which indicates whether we should start a new File
+	 */
+	private boolean checkIfShouldWriteNewFile(final T object) {
+		final Instant currentConsensusTimestamp = object.getTimestamp();
+		final boolean result;
+		if (lastConsensusTimestamp == null) {
+			// this is the first object, we either start writing it to a new file now,
+			// or wait for the first complete window
+			result = !startWriteAtCompleteWindow;
+		} else {
+			// if lastConsensusTimestamp and currentConsensusTimestamp are in different periods,
+			// we should start a new file
+			result = getPeriod(lastConsensusTimestamp) != getPeriod(currentConsensusTimestamp);
+		}
+		lastConsensusTimestamp = currentConsensusTimestamp;
+		return result;
+	}
+
+	private long getPeriod(final Instant consensusTimestamp) {
+		final long nanos = consensusTimestamp.getEpochSecond() * SEC_TO_NS + consensusTimestamp.getNano();
+		return nanos / MS_TO_NS / logPeriodMs;
+	}
+
+	/**
+	 * @return the number of objects waiting to be written
+	 */
+	public int getQueueSize() {
+		return forStream.size();
+	}
+
+	/**
+	 * @return the number of bytes written to stream files since the last call to this method
+	 */
+	public long getBytesWrittenSinceLast() {
+		return bytesWritten.getAndSet(0);
+	}
+
+	public void waitUntilDone() throws InterruptedException {
+		writeThread.join();
+		signThread.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * this method is called when the node falls behind,
+	 * clears the queue, and stops the thread.
+	 * if current stream file is half written, deletes this file.
+	 * signature files of files that were already closed are still generated.
+	 */
+	@Override
+	public void stopAndClear() {
+		stopped = true;
+		forStream.clear();
+		writeThread.interrupt();
+		try {
+			writeThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		signThread.shutdown();
+		if (channel != null) {
+			final File currentFile = file;
+			try {
+				channel.close();
+				// delete this file since it is half written
+				Files.delete(currentFile.toPath());
+				log.info(LOGM_OBJECT_STREAM, "ChannelStreamFileWriter::stopAndClear deleted {}",
+						currentFile::getName);
+			} catch (IOException ex) {
+				log.error(LOGM_EXCEPTION, "ChannelStreamFileWriter::stopAndClear got IOException " +
+						"when deleting file {}", currentFile.getName(), ex);
+			}
+			channel = null;
+			dos = null;
+			compressor = null;
+		}
+		batch.clear();
+		log.info(LOGM_OBJECT_STREAM, "ChannelStreamFileWriter stopped");
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+	}
+
+	private static class WorkLoad<T> {
+		final T object;
+		final Hash hash;
+
+		WorkLoad(final T object, final Hash hash) {
+			this.object = object;
+			this.hash = hash;
+		}
+	}
+
+	/**
+	 * An output stream that copies everything written to it into the direct buffers of the batch, taking buffers
+	 * from the pool as they are needed. If the batch grows too large, it is written to the file.
+	 */
+	private class BatchOutputStream extends OutputStream {
+		@Override
+		public void write(final int b) throws IOException {
+			currentBuffer().put((byte) b);
+		}
+
+		@Override
+		public void write(final byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				final ByteBuffer buffer = currentBuffer();
+				final int count = Math.min(len, buffer.remaining());
+				buffer.put(b, off, count);
+				off += count;
+				len -= count;
+			}
+		}
+
+		/**
+		 * @return the last buffer of the batch, or a new one if that is full
+		 */
+		private ByteBuffer currentBuffer() throws IOException {
+			if (!batch.isEmpty()) {
+				final ByteBuffer last = batch.get(batch.size() - 1);
+				if (last.hasRemaining()) {
+					return last;
+				}
+				if (batch.size() >= MAX_BUFFERS_PER_BATCH) {
+					writeBatch();
+				}
+			}
+			final ByteBuffer buffer = bufferPool.isEmpty() ? ByteBuffer.allocateDirect(bufferSize) : bufferPool.pop();
+			batch.add(buffer);
+			return buffer;
+		}
+	}
+}
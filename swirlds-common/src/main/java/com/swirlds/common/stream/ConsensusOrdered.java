@@ -0,0 +1,31 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.common.stream;
+
+/**
+ * A stream object that has reached consensus, so that stream files can be indexed by round and consensus order as
+ * well as by timestamp
+ */
+public interface ConsensusOrdered extends Timestamped {
+	/**
+	 * @return the round in which this object reached consensus
+	 */
+	long getRoundReceived();
+
+	/**
+	 * @return the position of this object in the consensus order of all objects
+	 */
+	long getConsensusOrder();
+}
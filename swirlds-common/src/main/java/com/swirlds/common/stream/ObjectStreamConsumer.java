@@ -29,6 +29,12 @@ public interface ObjectStreamConsumer<T extends SelfSerializable> extends AutoCl
 	 */
 	void addToObjectStream(T object, Hash runningHash);
 
+	/**
+	 * discard all objects not yet written, and stop writing.
+	 * this is called when the node falls behind and will reconnect
+	 */
+	void stopAndClear();
+
 	@Override
 	void close();
 }
@@ -21,6 +21,7 @@ import com.swirlds.common.crypto.Signature;
 import com.swirlds.common.internal.SettingsCommon;
 import com.swirlds.common.io.SelfSerializable;
 import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.threading.StandardThreadFactoryBuilder;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -35,10 +36,17 @@ import java.io.InputStream;
 import java.security.InvalidParameterException;
 import java.security.PublicKey;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.swirlds.common.stream.StreamValidationResult.CALCULATED_LAST_HASH_NOT_MATCH;
+import static com.swirlds.common.stream.StreamValidationResult.INITIAL_HASH_NOT_MATCH;
 import static com.swirlds.common.stream.StreamValidationResult.OK;
 import static com.swirlds.common.stream.StreamValidationResult.PARSE_SIG_FILE_FAIL;
 import static com.swirlds.common.stream.StreamValidationResult.PARSE_STREAM_FILE_FAIL;
@@ -49,6 +57,7 @@ import static com.swirlds.common.stream.StreamValidationResult.STREAM_FILE_MISS_
 import static com.swirlds.common.stream.StreamValidationResult.STREAM_FILE_MISS_OBJECTS;
 import static com.swirlds.common.stream.TimestampStreamFileWriter.OBJECT_STREAM_FILE_EXTENSION;
 import static com.swirlds.common.stream.TimestampStreamFileWriter.OBJECT_STREAM_SIG_EXTENSION;
+import static com.swirlds.common.stream.TimestampStreamFileWriter.generateSigFilePath;
 
 public class ObjectStreamUtilities {
 	/** use this for all logging, as controlled by the optional data/log4j2.xml file */
@@ -101,6 +110,29 @@ public class ObjectStreamUtilities {
 		return new SingleStreamIterator<>(file);
 	}
 
+	/**
+	 * Parses a single stream file from the given offset, which should be the offset of a stream object, such as
+	 * one found in the file's {@link StreamFileIndex}. The iterator does not return the initialRunningHash;
+	 * the last object is lastRunningHash
+	 *
+	 * @param file
+	 * 		a .soc stream file
+	 * @param offset
+	 * 		the offset of the first object to be read
+	 * @return an Iterator from which we can get the SelfSerializable objects in the file from the offset on
+	 */
+	public static <T extends SelfSerializable> SingleStreamIterator<T> parseStreamFileFrom(
+			File file, long offset) throws InvalidParameterException {
+		// if this file's extension name doesn't match expected
+		if (!isStreamFile(file)) {
+			String msg = String.format("Fail to parse File %s, its extension doesn't match %s",
+					file.getName(), OBJECT_STREAM_FILE_EXTENSION);
+			throw new InvalidParameterException(msg);
+		}
+
+		return new SingleStreamIterator<>(file, offset);
+	}
+
 	/**
 	 * Parses a single stream file, return initialRunningHash saved in the .soc file
 	 *
@@ -245,6 +277,123 @@ public class ObjectStreamUtilities {
 		return validateIterator(parseStreamFileList(fileList));
 	}
 
+	/**
+	 * validate a list of stream object files on several threads.
+	 * each file is validated on its own, concurrently with the others: its lastRunningHash must match the
+	 * RunningHash calculated from its initialRunningHash and objects, and if a publicKey is given, its signature file
+	 * must contain a valid signature of its lastRunningHash.
+	 * the files are then stitched together in increasing order by file name: each file's initialRunningHash must
+	 * match the lastRunningHash of the file before it.
+	 *
+	 * @param fileList
+	 * 		a list of stream object files
+	 * @param publicKey
+	 * 		the key to check the signature file of each stream file with, or null to not check signatures
+	 * @param threadCount
+	 * 		the number of files to validate at the same time
+	 * @return a Pair of the result for the first file that is not valid (or OK), and the lastRunningHash of the
+	 * 		last file if all are valid
+	 */
+	public static Pair<StreamValidationResult, Hash> validateFileListParallel(final List<File> fileList,
+			final PublicKey publicKey, final int threadCount) {
+		final File[] files = fileList.stream().filter(ObjectStreamUtilities::isStreamFile)
+				.sorted(Comparator.comparing(File::getName)).toArray(File[]::new);
+		if (files.length == 0) {
+			return Pair.of(STREAM_FILE_EMPTY, null);
+		}
+		final ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threadCount),
+				new StandardThreadFactoryBuilder().poolName("streamValidator").daemon(true).build());
+		try {
+			final List<Future<FileValidation>> results = new ArrayList<>(files.length);
+			for (File file : files) {
+				results.add(pool.submit(() -> validateSingleFile(file, publicKey)));
+			}
+			Hash lastRunningHash = null;
+			for (int i = 0; i < files.length; i++) {
+				final FileValidation validation = results.get(i).get();
+				if (validation.result != OK) {
+					LOGGER.error(LOGM_EXCEPTION, "validateFileListParallel :: {} is not valid: {}",
+							files[i].getName(), validation.result);
+					return Pair.of(validation.result, null);
+				}
+				if (lastRunningHash != null && !validation.initialRunningHash.equals(lastRunningHash)) {
+					LOGGER.error(LOGM_EXCEPTION,
+							"validateFileListParallel :: initialRunningHash in {} doesn't match lastRunningHash in {}",
+							files[i].getName(), files[i - 1].getName());
+					return Pair.of(INITIAL_HASH_NOT_MATCH, null);
+				}
+				lastRunningHash = validation.lastRunningHash;
+			}
+			return Pair.of(OK, lastRunningHash);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return Pair.of(PARSE_STREAM_FILE_FAIL, null);
+		} catch (ExecutionException ex) {
+			LOGGER.error(LOGM_EXCEPTION, "validateFileListParallel :: got exception when validating", ex.getCause());
+			return Pair.of(PARSE_STREAM_FILE_FAIL, null);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * validate a single stream object file and, if a publicKey is given, its signature file
+	 */
+	private static FileValidation validateSingleFile(final File file, final PublicKey publicKey) {
+		final SingleStreamIterator<SelfSerializable> iterator = parseStreamFile(file);
+		if (!iterator.hasNext()) {
+			return new FileValidation(STREAM_FILE_EMPTY, null, null);
+		}
+		final SelfSerializable first = iterator.next();
+		if (!(first instanceof Hash)) {
+			iterator.closeStream();
+			return new FileValidation(STREAM_FILE_MISS_INITIAL_HASH, null, null);
+		}
+		final Hash initialRunningHash = (Hash) first;
+
+		// validateIterator expects to read the initialRunningHash first, so give it back
+		final Pair<StreamValidationResult, Hash> result = validateIterator(new Iterator<SelfSerializable>() {
+			private boolean firstReturned = false;
+
+			@Override
+			public boolean hasNext() {
+				return !firstReturned || iterator.hasNext();
+			}
+
+			@Override
+			public SelfSerializable next() {
+				if (!firstReturned) {
+					firstReturned = true;
+					return initialRunningHash;
+				}
+				return iterator.next();
+			}
+		});
+		iterator.closeStream();
+		if (result.getLeft() != OK || publicKey == null) {
+			return new FileValidation(result.getLeft(), initialRunningHash, result.getRight());
+		}
+		final StreamValidationResult sigResult = validateSignature(result.getRight(),
+				new File(generateSigFilePath(file)), publicKey);
+		return new FileValidation(sigResult, initialRunningHash, result.getRight());
+	}
+
+	/**
+	 * the result of validating a single stream file, with the hashes needed to stitch it to its neighbours
+	 */
+	private static class FileValidation {
+		final StreamValidationResult result;
+		final Hash initialRunningHash;
+		final Hash lastRunningHash;
+
+		FileValidation(final StreamValidationResult result, final Hash initialRunningHash,
+				final Hash lastRunningHash) {
+			this.result = result;
+			this.initialRunningHash = initialRunningHash;
+			this.lastRunningHash = lastRunningHash;
+		}
+	}
+
 	/**
 	 * Calculates a RunningHash for given initialRunningHash and objects in the iterator
 	 * Verifies if the lastRunningHash in the Iterator matches the calculated RunningHash
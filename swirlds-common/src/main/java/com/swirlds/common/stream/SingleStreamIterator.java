@@ -46,6 +46,11 @@ public class SingleStreamIterator<T extends SelfSerializable> implements Iterato
 	 */
 	private boolean streamClosed;
 
+	/**
+	 * whether the file is in the compressed format {@link TimestampStreamFileWriter#COMPRESSED_FILE_VERSION}
+	 */
+	private boolean compressed;
+
 	public SingleStreamIterator(File file) {
 		try {
 			stream = new SerializableDataInputStream(
@@ -56,6 +61,11 @@ public class SingleStreamIterator<T extends SelfSerializable> implements Iterato
 			int fileVersion = stream.readInt();
 			log.info(LOGM_OBJECT_STREAM, "SingleStreamIterator :: read file version: {}",
 					() -> fileVersion);
+			if (fileVersion == TimestampStreamFileWriter.COMPRESSED_FILE_VERSION) {
+				// the rest of the file is read through the decompressor, so objects are parsed the same way
+				compressed = true;
+				stream = new SerializableDataInputStream(new BlockDecompressingInputStream(stream));
+			}
 		} catch (IOException e) {
 			log.error(LOGM_EXCEPTION, "SingleStreamIterator :: got IOException when parse File {}",
 					file.getName(), e);
@@ -63,6 +73,39 @@ public class SingleStreamIterator<T extends SelfSerializable> implements Iterato
 		}
 	}
 
+	/**
+	 * parse a stream file starting at the given offset, such as one found in its {@link StreamFileIndex}.
+	 * the file version and initialRunningHash are not returned, since the file is read from the middle
+	 *
+	 * @param file
+	 * 		a stream file
+	 * @param offset
+	 * 		the offset in the file of the first object to be read. For a compressed file, this is the offset in its
+	 * 		uncompressed content, counting the file version
+	 */
+	public SingleStreamIterator(File file, long offset) {
+		this(file);
+		if (streamClosed) {
+			return;
+		}
+		try {
+			if (compressed) {
+				// the offset is in the uncompressed content, so use the block index to find it
+				stream.close();
+				stream = new SerializableDataInputStream(
+						BlockDecompressingInputStream.open(file, offset - Integer.BYTES));
+			} else {
+				// the file version has been read already
+				stream.skipNBytes(offset - Integer.BYTES);
+			}
+			log.info(LOGM_OBJECT_STREAM, "SingleStreamIterator :: skipped to offset: {}", () -> offset);
+		} catch (IOException e) {
+			log.error(LOGM_EXCEPTION, "SingleStreamIterator :: got IOException when skipping to offset {} in {}",
+					offset, file.getName(), e);
+			closeStream();
+		}
+	}
+
 	public SingleStreamIterator(InputStream inputStream) {
 		stream = new SerializableDataInputStream(
 				new BufferedInputStream(inputStream));
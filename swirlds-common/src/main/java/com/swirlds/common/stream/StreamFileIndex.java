@@ -0,0 +1,257 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.common.stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * A sidecar index of an object stream file. It has one entry for the first object of each round in the file, giving
+ * the round, consensus order, consensus timestamp and byte offset of that object. A reader can use it to seek to the
+ * first object it needs instead of deserializing the file from the beginning. The offsets of a compressed stream file
+ * are offsets in its uncompressed content, which {@link BlockDecompressingInputStream} finds using the block index.
+ * <p>
+ * The index is written to a file next to the stream file, named like the stream file with the extension
+ * {@value #OBJECT_STREAM_INDEX_EXTENSION}. It is only a hint: if it is missing or invalid, the stream file is read
+ * from the beginning as before.
+ */
+public class StreamFileIndex {
+	/** use this for all logging, as controlled by the optional data/log4j2.xml file */
+	private static final Logger log = LogManager.getLogger();
+
+	private static final Marker LOGM_OBJECT_STREAM_FILE = MarkerManager.getMarker("OBJECT_STREAM_FILE");
+	private static final Marker LOGM_EXCEPTION = MarkerManager.getMarker("EXCEPTION");
+
+	public static final String OBJECT_STREAM_INDEX_EXTENSION = ".soci";
+
+	private static final int INDEX_FILE_VERSION = 1;
+
+	/** the number of bytes in the header of an index file: version and number of entries */
+	private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+	/** the number of bytes in each entry: round, consensus order, seconds, nanos and offset */
+	private static final int ENTRY_BYTES = 4 * Long.BYTES + Integer.BYTES;
+
+	/** the number of entries */
+	private int size;
+	/** the round of each entry */
+	private long[] rounds;
+	/** the consensus order of each entry */
+	private long[] consensusOrders;
+	/** the consensus timestamp of each entry */
+	private Instant[] timestamps;
+	/**
+	 * the offset in the stream file of each entry. For a compressed stream file, this is the offset in its
+	 * uncompressed content, counting the file version
+	 */
+	private long[] offsets;
+
+	/**
+	 * Create an empty index, for a stream file that is about to be written
+	 */
+	public StreamFileIndex() {
+		this(16);
+	}
+
+	private StreamFileIndex(final int capacity) {
+		rounds = new long[capacity];
+		consensusOrders = new long[capacity];
+		timestamps = new Instant[capacity];
+		offsets = new long[capacity];
+	}
+
+	/**
+	 * Called for each object written to the stream file, in order. Adds an entry if the object is the first of its
+	 * round in the file. Objects that are not {@link ConsensusOrdered} are not indexed.
+	 *
+	 * @param object
+	 * 		the object about to be written
+	 * @param offset
+	 * 		the offset in the stream file at which the object will be written
+	 */
+	public void add(final Object object, final long offset) {
+		if (!(object instanceof ConsensusOrdered)) {
+			return;
+		}
+		final ConsensusOrdered ordered = (ConsensusOrdered) object;
+		if (size > 0 && rounds[size - 1] == ordered.getRoundReceived()) {
+			return;
+		}
+		add(ordered.getRoundReceived(), ordered.getConsensusOrder(), ordered.getTimestamp(), offset);
+	}
+
+	private void add(final long round, final long consensusOrder, final Instant timestamp, final long offset) {
+		if (size == rounds.length) {
+			final int capacity = size * 2;
+			rounds = Arrays.copyOf(rounds, capacity);
+			consensusOrders = Arrays.copyOf(consensusOrders, capacity);
+			timestamps = Arrays.copyOf(timestamps, capacity);
+			offsets = Arrays.copyOf(offsets, capacity);
+		}
+		rounds[size] = round;
+		consensusOrders[size] = consensusOrder;
+		timestamps[size] = timestamp;
+		offsets[size] = offset;
+		size++;
+	}
+
+	/**
+	 * @return the number of entries in this index
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Find where to start reading in order to get every object with a consensus timestamp after the given one. All
+	 * objects before the returned offset have a timestamp that is not after the given one.
+	 *
+	 * @param timestamp
+	 * 		only objects after this timestamp are needed
+	 * @return the offset of the first object of the last round that starts at or before the timestamp, or -1 if the
+	 * 		file must be read from its first object
+	 */
+	public long findOffsetAfter(final Instant timestamp) {
+		// the last entry whose timestamp is not after the given one
+		int low = 0;
+		int high = size - 1;
+		int found = -1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			if (timestamps[mid].isAfter(timestamp)) {
+				high = mid - 1;
+			} else {
+				found = mid;
+				low = mid + 1;
+			}
+		}
+		return found < 0 ? -1 : offsets[found];
+	}
+
+	/**
+	 * Find where to start reading in order to get every object that reached consensus in the given round or later.
+	 *
+	 * @param round
+	 * 		the first round needed
+	 * @return the offset of the first object of the earliest round in the file that is not before the given one, or
+	 * 		-1 if there is no such round in this file
+	 */
+	public long findOffsetOfRound(final long round) {
+		// the first entry whose round is not before the given one
+		int low = 0;
+		int high = size - 1;
+		int found = -1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			if (rounds[mid] < round) {
+				low = mid + 1;
+			} else {
+				found = mid;
+				high = mid - 1;
+			}
+		}
+		return found < 0 ? -1 : offsets[found];
+	}
+
+	/**
+	 * @param streamFile
+	 * 		a stream file
+	 * @return the index file for the stream file
+	 */
+	public static File getIndexFile(final File streamFile) {
+		return new File(streamFile.getAbsolutePath() + "i");
+	}
+
+	/**
+	 * Write this index next to the stream file it describes. Failure is logged, and leaves no index file, since
+	 * readers then fall back to reading the whole stream file.
+	 *
+	 * @param streamFile
+	 * 		the stream file that this indexes
+	 */
+	public void write(final File streamFile) {
+		final File indexFile = getIndexFile(streamFile);
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+			out.writeInt(INDEX_FILE_VERSION);
+			out.writeInt(size);
+			for (int i = 0; i < size; i++) {
+				out.writeLong(rounds[i]);
+				out.writeLong(consensusOrders[i]);
+				out.writeLong(timestamps[i].getEpochSecond());
+				out.writeInt(timestamps[i].getNano());
+				out.writeLong(offsets[i]);
+			}
+			log.info(LOGM_OBJECT_STREAM_FILE, "index file saved: {}", indexFile::getName);
+		} catch (IOException e) {
+			log.error(LOGM_EXCEPTION, "Fail to write index file {}", indexFile.getName(), e);
+			if (!indexFile.delete()) {
+				log.error(LOGM_EXCEPTION, "Fail to delete partial index file {}", indexFile.getName());
+			}
+		}
+	}
+
+	/**
+	 * Read the index of a stream file
+	 *
+	 * @param streamFile
+	 * 		the stream file
+	 * @return the index, or null if the stream file has no index, or the index is not valid
+	 */
+	public static StreamFileIndex read(final File streamFile) {
+		final File indexFile = getIndexFile(streamFile);
+		if (!indexFile.exists()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+			final int version = in.readInt();
+			final int size = in.readInt();
+			if (version != INDEX_FILE_VERSION || size < 0
+					|| indexFile.length() != HEADER_BYTES + (long) size * ENTRY_BYTES) {
+				log.error(LOGM_EXCEPTION, "Ignoring invalid index file {}", indexFile.getName());
+				return null;
+			}
+			final StreamFileIndex index = new StreamFileIndex(Math.max(1, size));
+			for (int i = 0; i < size; i++) {
+				final long round = in.readLong();
+				final long consensusOrder = in.readLong();
+				final Instant timestamp = Instant.ofEpochSecond(in.readLong(), in.readInt());
+				final long offset = in.readLong();
+				if (offset < 0 || i > 0 && (round <= index.rounds[i - 1] || offset <= index.offsets[i - 1])) {
+					log.error(LOGM_EXCEPTION, "Ignoring invalid index file {}", indexFile.getName());
+					return null;
+				}
+				index.add(round, consensusOrder, timestamp, offset);
+			}
+			return index;
+		} catch (IOException e) {
+			log.error(LOGM_EXCEPTION, "Fail to read index file {}", indexFile.getName(), e);
+			return null;
+		}
+	}
+}
@@ -55,7 +55,10 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 	private static final Marker LOGM_OBJECT_STREAM_FILE = MarkerManager.getMarker("OBJECT_STREAM_FILE");
 	private static final Marker LOGM_EXCEPTION = MarkerManager.getMarker("EXCEPTION");
 
-	private static final int FILE_VERSION = 1;
+	static final int FILE_VERSION = 1;
+
+	/** the version of stream files whose content is compressed in blocks, see {@link BlockCompressingOutputStream} */
+	static final int COMPRESSED_FILE_VERSION = 2;
 
 	private static final int SIG_FILE_VERSION = 1;
 
@@ -66,9 +69,18 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 	/** file stream and output stream for dump event bytes to file */
 	private FileOutputStream stream = null;
 	private SerializableDataOutputStream dos = null;
+	/** compresses the content of the file being written, or null if files are not compressed */
+	private BlockCompressingOutputStream compressor = null;
+
+	/**
+	 * the number of uncompressed bytes in each compressed block of a stream file, or 0 to write uncompressed files
+	 */
+	private int compressionBlockSize;
 
 	private String fileNameShort;
 	private File file;
+	/** the index of the file being written, which is written next to it when it is closed */
+	private StreamFileIndex index;
 	/**
 	 * the path to which we write object stream files and signature files
 	 */
@@ -130,11 +142,27 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 			Signer signer,
 			boolean startWriteAtCompleteWindow,
 			int eventStreamQueueCapacity) {
+		this(initialHash, dirPath, logPeriodMs, signer, startWriteAtCompleteWindow, eventStreamQueueCapacity, 0);
+	}
+
+	/**
+	 * @param compressionBlockSize
+	 * 		if positive, stream files are written in the compressed format {@link #COMPRESSED_FILE_VERSION}, with
+	 * 		blocks of this many uncompressed bytes. If 0, they are written uncompressed.
+	 */
+	public TimestampStreamFileWriter(Hash initialHash,
+			String dirPath,
+			long logPeriodMs,
+			Signer signer,
+			boolean startWriteAtCompleteWindow,
+			int eventStreamQueueCapacity,
+			int compressionBlockSize) {
 		runningHash = initialHash;
 		this.dirPath = dirPath;
 		this.logPeriodMs = logPeriodMs;
 		this.signer = signer;
 		this.startWriteAtCompleteWindow = startWriteAtCompleteWindow;
+		this.compressionBlockSize = compressionBlockSize;
 		forStream = new ArrayBlockingQueue<>(eventStreamQueueCapacity);
 		writeThread = new Thread(this::work);
 		//writeThread.setDaemon(true);
@@ -200,6 +228,8 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 	 */
 	private void consume(T object) {
 		try {
+			// offsets in a compressed file are positions in its uncompressed content, which excludes the file version
+			index.add(object, compressor == null ? dos.size() : Integer.BYTES + dos.size());
 			dos.writeSerializable(object, true);
 			dos.flush();
 			log.info(LOGM_OBJECT_STREAM_DETAIL, "consume :: write object {}",
@@ -224,11 +254,28 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 						() -> fileNameShort);
 			} else {
 				stream = new FileOutputStream(file, false);
-				dos = new SerializableDataOutputStream(new BufferedOutputStream(stream));
+				if (compressionBlockSize > 0) {
+					// the compressor writes the file version
+					compressor = new BlockCompressingOutputStream(new BufferedOutputStream(stream),
+							compressionBlockSize);
+					dos = new SerializableDataOutputStream(compressor);
+				} else {
+					dos = new SerializableDataOutputStream(new BufferedOutputStream(stream));
+				}
+				index = new StreamFileIndex();
 				log.info(LOGM_OBJECT_STREAM_FILE, "Stream file created {}", () -> fileNameShort);
 			}
 		} catch (FileNotFoundException e) {
 			log.error(LOGM_EXCEPTION, "startNewFile :: FileNotFound: ", e);
+		} catch (IOException e) {
+			log.error(LOGM_EXCEPTION, "startNewFile :: Fail to start compressed file {}", fileNameShort, e);
+			try {
+				stream.close();
+			} catch (IOException ex) {
+				log.warn(LOGM_EXCEPTION, "Exception in close file", ex);
+			}
+			stream = null;
+			compressor = null;
 		}
 	}
 
@@ -238,9 +285,13 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 	 */
 	private void begin() {
 		try {
-			// write file version
-			dos.writeInt(FILE_VERSION);
-			log.info(LOGM_OBJECT_STREAM_FILE, "begin :: write File_VERSION {}", () -> FILE_VERSION);
+			// write file version, unless the compressor has written it
+			if (compressor == null) {
+				dos.writeInt(FILE_VERSION);
+				log.info(LOGM_OBJECT_STREAM_FILE, "begin :: write File_VERSION {}", () -> FILE_VERSION);
+			} else {
+				log.info(LOGM_OBJECT_STREAM_FILE, "begin :: write File_VERSION {}", () -> COMPRESSED_FILE_VERSION);
+			}
 			// write initialRunningHash
 			dos.writeSerializable(runningHash, true);
 			log.info(LOGM_OBJECT_STREAM_FILE, "begin :: write initialRunningHash {}", () -> runningHash);
@@ -268,6 +319,9 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 			File currentFile = file;
 			// close current file
 			closeFile();
+			// write the index of the file, so that readers can seek within it
+			index.write(currentFile);
+			index = null;
 			// generate signature file
 			byte[] signature = signer.sign(runningHash.getValue());
 			try {
@@ -305,6 +359,10 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 		if (stream != null) {
 			try {
 				dos.flush();
+				if (compressor != null) {
+					// write the last block and the block index before the file is synced
+					compressor.finish();
+				}
 				stream.flush();
 
 				stream.getChannel().force(true);
@@ -316,6 +374,7 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 				file = null;
 				stream = null;
 				dos = null;
+				compressor = null;
 
 			} catch (IOException e) {
 				log.warn(LOGM_EXCEPTION, "Exception in close file", e);
@@ -371,7 +430,7 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 	/**
 	 * generate signature file name for current stream file
 	 */
-	String generateSigFilePath(File file) {
+	static String generateSigFilePath(File file) {
 		return file.getAbsolutePath() + "s";
 	}
 
@@ -394,6 +453,7 @@ public class TimestampStreamFileWriter<T extends Timestamped & SerializableHasha
 	 * clears the queue, and stops the thread.
 	 * if current stream file is half written, deletes this file.
 	 */
+	@Override
 	public void stopAndClear() {
 		stopped = true;
 		forStream.clear();
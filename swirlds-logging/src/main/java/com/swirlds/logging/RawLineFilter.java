@@ -0,0 +1,94 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.logging;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * A cheap test on the raw bytes of a log line, used to skip lines before they are decoded and parsed. A line passes
+ * if it contains any of a set of byte patterns.
+ *
+ * A raw line filter should only be used to reject lines that the real filter would also reject. It may let through
+ * lines that the real filter rejects, since every entry that is parsed is still given to the real filter.
+ */
+public class RawLineFilter {
+
+	private final byte[][] patterns;
+
+	/**
+	 * Create a filter that passes lines containing any of the given strings.
+	 *
+	 * @param strings
+	 * 		the strings to look for, which are matched as UTF-8 bytes
+	 */
+	public static RawLineFilter containsAny(final Collection<String> strings) {
+		final byte[][] patterns = new byte[strings.size()][];
+		int i = 0;
+		for (String string : strings) {
+			patterns[i++] = string.getBytes(StandardCharsets.UTF_8);
+		}
+		return new RawLineFilter(patterns);
+	}
+
+	private RawLineFilter(final byte[][] patterns) {
+		this.patterns = patterns;
+	}
+
+	/**
+	 * Check if a line contains any of the patterns.
+	 *
+	 * @param buffer
+	 * 		the buffer holding the line
+	 * @param start
+	 * 		the index of the first byte of the line
+	 * @param end
+	 * 		the index after the last byte of the line
+	 * @return true if the line should be parsed
+	 */
+	public boolean test(final ByteBuffer buffer, final int start, final int end) {
+		for (byte[] pattern : patterns) {
+			if (contains(buffer, start, end, pattern)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Check if a range of a buffer contains a pattern.
+	 */
+	private static boolean contains(final ByteBuffer buffer, final int start, final int end, final byte[] pattern) {
+		if (pattern.length == 0) {
+			return true;
+		}
+		final byte first = pattern[0];
+		final int last = end - pattern.length;
+		for (int i = start; i <= last; i++) {
+			if (buffer.get(i) != first) {
+				continue;
+			}
+			int j = 1;
+			while (j < pattern.length && buffer.get(i + j) == pattern[j]) {
+				j++;
+			}
+			if (j == pattern.length) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.logging;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Aggregates a value taken from each log entry over a rolling window of time. The window ends at the timestamp of the
+ * latest entry, not at the current time, so a log that is replayed gives the same results as one that is followed
+ * live.
+ *
+ * This is an action for a log reader. For example, to follow the data used by reconnects over the last 10 minutes:
+ *
+ * <pre>
+ * RollingWindowAggregate&lt;JsonLogEntry&gt; reconnectData = new RollingWindowAggregate&lt;&gt;(
+ * 		Duration.ofMinutes(10),
+ * 		JsonLogEntry::getTimestamp,
+ * 		(entry) -&gt; entry.getPayload(ReconnectDataUsagePayload.class).getDataMegabytes());
+ * reader.addAction(payloadType(ReconnectDataUsagePayload.class.getName()), reconnectData);
+ * </pre>
+ *
+ * Entries do not have to be added in timestamp order, since log entries written by several threads are often slightly
+ * out of order. An entry that is older than the latest one is inserted in timestamp order if it is inside the window,
+ * and ignored if it is already outside it.
+ *
+ * The aggregates can be read from any thread while entries are being added.
+ */
+public class RollingWindowAggregate<T> implements Consumer<T> {
+
+	private final long windowNanos;
+	private final Function<T, Instant> timestampOf;
+	private final ToDoubleFunction<T> valueOf;
+
+	/**
+	 * The samples in the window, oldest first.
+	 */
+	private final ArrayDeque<Sample> samples = new ArrayDeque<>();
+
+	/**
+	 * The samples in the window that are larger than every later sample, oldest first. The first is the maximum.
+	 */
+	private final ArrayDeque<Sample> maxCandidates = new ArrayDeque<>();
+
+	private double sum;
+	private Instant latest;
+
+	/**
+	 * Create a new aggregate.
+	 *
+	 * @param window
+	 * 		the length of the window
+	 * @param timestampOf
+	 * 		gets the timestamp of an entry
+	 * @param valueOf
+	 * 		gets the value to aggregate from an entry
+	 */
+	public RollingWindowAggregate(final Duration window, final Function<T, Instant> timestampOf,
+			final ToDoubleFunction<T> valueOf) {
+		if (window.isNegative() || window.isZero()) {
+			throw new IllegalArgumentException("window must be positive, was " + window);
+		}
+		this.windowNanos = window.toNanos();
+		this.timestampOf = timestampOf;
+		this.valueOf = valueOf;
+	}
+
+	/**
+	 * Add an entry to the window.
+	 */
+	@Override
+	public synchronized void accept(final T entry) {
+		final Sample sample = new Sample(timestampOf.apply(entry), valueOf.applyAsDouble(entry));
+		if (latest == null || sample.timestamp.isAfter(latest)) {
+			latest = sample.timestamp;
+		} else if (!sample.timestamp.isAfter(latest.minusNanos(windowNanos))) {
+			// written out of order, and already outside the window
+			return;
+		}
+
+		sum += sample.value;
+		if (samples.isEmpty() || !sample.timestamp.isBefore(samples.peekLast().timestamp)) {
+			samples.addLast(sample);
+			addMaxCandidate(sample);
+		} else {
+			insertLate(sample);
+		}
+
+		evict();
+	}
+
+	/**
+	 * Get the number of entries in the window.
+	 */
+	public synchronized int getCount() {
+		return samples.size();
+	}
+
+	/**
+	 * Get the sum of the values in the window.
+	 */
+	public synchronized double getSum() {
+		return sum;
+	}
+
+	/**
+	 * Get the average of the values in the window, or 0 if it is empty.
+	 */
+	public synchronized double getAverage() {
+		return samples.isEmpty() ? 0 : sum / samples.size();
+	}
+
+	/**
+	 * Get the largest value in the window, or 0 if it is empty.
+	 */
+	public synchronized double getMax() {
+		return maxCandidates.isEmpty() ? 0 : maxCandidates.peekFirst().value;
+	}
+
+	/**
+	 * Get the number of entries per second over the window.
+	 */
+	public synchronized double getCountPerSecond() {
+		return samples.size() * 1_000_000_000.0 / windowNanos;
+	}
+
+	/**
+	 * Get the timestamp of the latest entry, or null if there has been none.
+	 */
+	public synchronized Instant getLatest() {
+		return latest;
+	}
+
+	/**
+	 * Add a sample to the end of maxCandidates, removing the candidates that are not larger than it.
+	 */
+	private void addMaxCandidate(final Sample sample) {
+		while (!maxCandidates.isEmpty() && maxCandidates.peekLast().value <= sample.value) {
+			maxCandidates.removeLast();
+		}
+		maxCandidates.addLast(sample);
+	}
+
+	/**
+	 * Insert a sample that is older than the newest one, after the samples that are not newer than it. Only the newer
+	 * samples are moved, and there are few of them when entries are only slightly out of order.
+	 */
+	private void insertLate(final Sample sample) {
+		final ArrayDeque<Sample> newer = new ArrayDeque<>();
+		while (!samples.isEmpty() && samples.peekLast().timestamp.isAfter(sample.timestamp)) {
+			newer.addFirst(samples.removeLast());
+		}
+		samples.addLast(sample);
+		samples.addAll(newer);
+
+		newer.clear();
+		while (!maxCandidates.isEmpty() && maxCandidates.peekLast().timestamp.isAfter(sample.timestamp)) {
+			newer.addFirst(maxCandidates.removeLast());
+		}
+		// the oldest of the newer candidates is the largest of the newer samples
+		if (newer.isEmpty() || newer.peekFirst().value < sample.value) {
+			addMaxCandidate(sample);
+		}
+		maxCandidates.addAll(newer);
+	}
+
+	/**
+	 * Remove the samples that are older than the window.
+	 */
+	private void evict() {
+		final Instant windowStart = latest.minusNanos(windowNanos);
+		while (!samples.isEmpty() && !samples.peekFirst().timestamp.isAfter(windowStart)) {
+			final Sample removed = samples.removeFirst();
+			sum -= removed.value;
+			if (maxCandidates.peekFirst() == removed) {
+				maxCandidates.removeFirst();
+			}
+		}
+		if (samples.isEmpty()) {
+			// don't let rounding errors accumulate
+			sum = 0;
+		}
+	}
+
+	private static class Sample {
+		private final Instant timestamp;
+		private final double value;
+
+		Sample(final Instant timestamp, final double value) {
+			this.timestamp = timestamp;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A log file reader for large logs. The file is memory mapped and split into chunks on line boundaries, and the
+ * chunks are parsed on several threads. Entries are returned in the order they appear in the file.
+ *
+ * An optional {@link RawLineFilter} is checked against the raw bytes of each line, and lines that it rejects are
+ * skipped without being decoded or parsed. Skipped lines are not seen by any filter or action of this reader, so the
+ * raw filter must only reject lines that are not needed by any of them.
+ *
+ * The parser is called from several threads at once, so it must be thread safe.
+ */
+public class SwirldsLogMappedFileReader<T> extends SwirldsLogReader<T> implements AutoCloseable {
+
+	/**
+	 * The default number of bytes in each chunk.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 32 * 1024 * 1024;
+
+	/**
+	 * The number of chunks per thread that are parsed ahead of the entries being returned.
+	 */
+	private static final int CHUNKS_READ_AHEAD_PER_THREAD = 2;
+
+	/**
+	 * The number of bytes after each chunk that are mapped with it, so that its last line can usually be read without
+	 * mapping more of the file. If the last line runs past this, the mapping is extended until it ends.
+	 */
+	private static final int LINE_OVERLAP = 64 * 1024;
+
+	private static final byte NEWLINE = '\n';
+	private static final byte CARRIAGE_RETURN = '\r';
+
+	private final SwirldsLogParser<T> parser;
+	private final RawLineFilter rawLineFilter;
+	private final FileChannel channel;
+	private final long fileSize;
+	private final int chunkSize;
+	private final int maxPendingChunks;
+	private final ExecutorService threadPool;
+
+	/**
+	 * Chunks being parsed, in file order.
+	 */
+	private final ArrayDeque<Future<List<T>>> pendingChunks = new ArrayDeque<>();
+
+	/**
+	 * The offset in the file of the next chunk to be submitted.
+	 */
+	private long nextChunkStart;
+
+	/**
+	 * The entries of the chunk currently being returned.
+	 */
+	private Iterator<T> currentChunk = Collections.emptyIterator();
+
+	/**
+	 * Create a new log file reader that uses one thread per available processor.
+	 *
+	 * @param logFile
+	 * 		The log file to read.
+	 * @param parser
+	 * 		The parser that should be used to read the log file. Must be thread safe.
+	 * @param rawLineFilter
+	 * 		If not null, lines rejected by this filter are skipped without being parsed.
+	 */
+	public SwirldsLogMappedFileReader(final File logFile, final SwirldsLogParser<T> parser,
+			final RawLineFilter rawLineFilter) throws IOException {
+		this(logFile, parser, rawLineFilter, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Create a new log file reader.
+	 *
+	 * @param logFile
+	 * 		The log file to read.
+	 * @param parser
+	 * 		The parser that should be used to read the log file. Must be thread safe.
+	 * @param rawLineFilter
+	 * 		If not null, lines rejected by this filter are skipped without being parsed.
+	 * @param threadCount
+	 * 		The number of threads that parse chunks.
+	 * @param chunkSize
+	 * 		The number of bytes in each chunk. A chunk also includes the rest of its last line.
+	 */
+	public SwirldsLogMappedFileReader(final File logFile, final SwirldsLogParser<T> parser,
+			final RawLineFilter rawLineFilter, final int threadCount, final int chunkSize) throws IOException {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("threadCount must be at least 1, was " + threadCount);
+		}
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize must be at least 1, was " + chunkSize);
+		}
+		this.parser = parser;
+		this.rawLineFilter = rawLineFilter;
+		this.chunkSize = chunkSize;
+		this.maxPendingChunks = threadCount * CHUNKS_READ_AHEAD_PER_THREAD;
+		this.channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+		this.fileSize = channel.size();
+		this.threadPool = Executors.newFixedThreadPool(threadCount, (Runnable runnable) -> {
+			final Thread thread = new Thread(runnable, "log-reader-" + logFile.getName());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected T readNextEntry() throws IOException {
+		while (true) {
+			if (currentChunk.hasNext()) {
+				return currentChunk.next();
+			}
+
+			submitChunks();
+			final Future<List<T>> next = pendingChunks.poll();
+			if (next == null) {
+				return null;
+			}
+			try {
+				currentChunk = next.get().iterator();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("interrupted while waiting for a chunk of the log to be parsed");
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IOException("unable to parse a chunk of the log", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Stop parsing and release the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		threadPool.shutdownNow();
+		pendingChunks.clear();
+		channel.close();
+	}
+
+	/**
+	 * Submit chunks to be parsed until enough are pending or the end of the file is reached.
+	 */
+	private void submitChunks() {
+		while (pendingChunks.size() < maxPendingChunks && nextChunkStart < fileSize) {
+			final long start = nextChunkStart;
+			final long end = Math.min(fileSize, start + chunkSize);
+			pendingChunks.add(threadPool.submit(() -> readChunk(start, end)));
+			nextChunkStart = end;
+		}
+	}
+
+	/**
+	 * Parse the lines that start in a range of the file. The line that starts last may end after the range.
+	 *
+	 * @param start
+	 * 		the offset in the file of the range
+	 * @param end
+	 * 		the offset in the file after the range
+	 * @return the entries parsed from the lines, in order
+	 */
+	private List<T> readChunk(final long start, final long end) throws IOException {
+		// map from the byte before the range, so that we can tell whether a line starts at the start of the range
+		final long mapStart = start == 0 ? 0 : start - 1;
+		// map the range and a little more, which is usually enough to include the rest of the last line
+		int mapLength = (int) Math.min(fileSize - mapStart, Math.min(end - mapStart + LINE_OVERLAP, Integer.MAX_VALUE));
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapLength);
+		final int rangeEnd = (int) Math.min(end - mapStart, mapLength);
+
+		int lineStart = 0;
+		if (start > 0) {
+			// the line that contains the byte before the range belongs to the previous chunk
+			final int newline = indexOf(buffer, NEWLINE, 0, rangeEnd);
+			if (newline < 0) {
+				return Collections.emptyList();
+			}
+			lineStart = newline + 1;
+		}
+
+		final List<T> entries = new ArrayList<>();
+		while (lineStart < rangeEnd) {
+			int lineEnd = indexOf(buffer, NEWLINE, lineStart, mapLength);
+			while (lineEnd < 0 && mapStart + mapLength < fileSize && mapLength < Integer.MAX_VALUE) {
+				// the last line runs past the mapping, so map twice as much of the file and keep looking
+				final int searched = mapLength;
+				mapLength = (int) Math.min(fileSize - mapStart, Math.min(2L * mapLength, Integer.MAX_VALUE));
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapLength);
+				lineEnd = indexOf(buffer, NEWLINE, searched, mapLength);
+			}
+			if (lineEnd < 0) {
+				lineEnd = mapLength;
+			}
+			int contentEnd = lineEnd;
+			if (contentEnd > lineStart && buffer.get(contentEnd - 1) == CARRIAGE_RETURN) {
+				contentEnd--;
+			}
+
+			//skip empty lines, and lines rejected by the raw filter
+			if (!isBlank(buffer, lineStart, contentEnd)
+					&& (rawLineFilter == null || rawLineFilter.test(buffer, lineStart, contentEnd))) {
+				final T entry = parser.parse(decode(buffer, lineStart, contentEnd));
+				if (entry != null) {
+					entries.add(entry);
+				}
+			}
+			lineStart = lineEnd + 1;
+		}
+		return entries;
+	}
+
+	/**
+	 * Find the first occurrence of a byte in a range of a buffer, or -1 if there is none.
+	 */
+	private static int indexOf(final ByteBuffer buffer, final byte value, final int start, final int end) {
+		for (int i = start; i < end; i++) {
+			if (buffer.get(i) == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Check if a range of a buffer contains only whitespace.
+	 */
+	private static boolean isBlank(final ByteBuffer buffer, final int start, final int end) {
+		for (int i = start; i < end; i++) {
+			if (buffer.get(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Decode a range of a buffer as UTF-8.
+	 */
+	private static String decode(final ByteBuffer buffer, final int start, final int end) {
+		final byte[] bytes = new byte[end - start];
+		final ByteBuffer view = buffer.duplicate();
+		view.position(start);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
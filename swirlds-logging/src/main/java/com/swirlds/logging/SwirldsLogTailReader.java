@@ -0,0 +1,351 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * A log reader that follows a log file while it is being written. Each complete line is read only once: when no
+ * complete line is available, {@link #nextEntry()} returns null, and a later call continues where the last one
+ * stopped. A line that is still being written is left for a later call.
+ *
+ * The offset of the first line that has not been read can be saved as a checkpoint, so that a new reader can
+ * continue where an old one stopped. If the file is truncated, reading starts again from its beginning. If it is
+ * replaced by a new file when the log rolls over, the rest of the old file is read first, and then the new file is
+ * read from its beginning.
+ *
+ * Actions added with {@link #addAction(java.util.function.Predicate, java.util.function.Consumer)}, such as a
+ * {@link RollingWindowAggregate}, see each entry as it is read.
+ */
+public class SwirldsLogTailReader<T> extends SwirldsLogReader<T> implements AutoCloseable {
+
+	/**
+	 * The number of bytes read from the file at a time.
+	 */
+	private static final int READ_SIZE = 64 * 1024;
+
+	private static final byte NEWLINE = '\n';
+	private static final byte CARRIAGE_RETURN = '\r';
+
+	private final Path logFile;
+	private final SwirldsLogParser<T> parser;
+
+	private FileChannel channel;
+
+	/**
+	 * Identifies the file that is open, so that we can tell when the log has been replaced by a new file.
+	 */
+	private Object fileKey;
+
+	/**
+	 * Bytes read from the file that are not yet part of a complete line.
+	 */
+	private byte[] pending = new byte[READ_SIZE];
+	private int pendingStart;
+	private int pendingEnd;
+
+	/**
+	 * The offset in the file of the first line that has not been read.
+	 */
+	private long offset;
+
+	/**
+	 * Create a reader that starts at the beginning of the log file.
+	 *
+	 * @param logFile
+	 * 		The log file to read. It does not need to exist yet.
+	 * @param parser
+	 * 		The parser that should be used to read the log file.
+	 */
+	public SwirldsLogTailReader(final File logFile, final SwirldsLogParser<T> parser) {
+		this(logFile, parser, 0);
+	}
+
+	/**
+	 * Create a reader that starts at an offset in the log file, such as one returned by
+	 * {@link #readCheckpoint(File)}.
+	 *
+	 * @param logFile
+	 * 		The log file to read. It does not need to exist yet.
+	 * @param parser
+	 * 		The parser that should be used to read the log file.
+	 * @param offset
+	 * 		The offset of the first line to read. If the file is shorter than this, it is read from the beginning.
+	 */
+	public SwirldsLogTailReader(final File logFile, final SwirldsLogParser<T> parser, final long offset) {
+		if (offset < 0) {
+			throw new IllegalArgumentException("offset must not be negative, was " + offset);
+		}
+		this.logFile = logFile.toPath();
+		this.parser = parser;
+		this.offset = offset;
+	}
+
+	/**
+	 * Get the offset in the file of the first line that has not been read.
+	 */
+	public synchronized long getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Save the offset of the first line that has not been read. The checkpoint file is replaced atomically, so a
+	 * crash leaves either the old or the new checkpoint.
+	 *
+	 * @param checkpointFile
+	 * 		the file to write
+	 */
+	public void writeCheckpoint(final File checkpointFile) throws IOException {
+		final Path target = checkpointFile.toPath();
+		final Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		Files.writeString(temp, Long.toString(getOffset()));
+		Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Read a checkpoint written by {@link #writeCheckpoint(File)}.
+	 *
+	 * @param checkpointFile
+	 * 		the file to read
+	 * @return the offset saved in the checkpoint, or 0 if there is no checkpoint
+	 */
+	public static long readCheckpoint(final File checkpointFile) throws IOException {
+		if (!checkpointFile.exists()) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(Files.readString(checkpointFile.toPath()).strip());
+		} catch (NumberFormatException e) {
+			throw new IOException("invalid checkpoint file " + checkpointFile, e);
+		}
+	}
+
+	/**
+	 * Read every complete line that has been written to the log since the last call, passing the entries to the
+	 * actions of this reader.
+	 *
+	 * @return the number of entries read
+	 */
+	public synchronized int poll() throws IOException {
+		int count = 0;
+		while (nextEntry() != null) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Keep reading the log as it is written, until told to stop. Between polls, this waits until the file system
+	 * reports a change in the directory of the log, or until the maximum wait has passed, whichever comes first.
+	 *
+	 * @param maxWaitMs
+	 * 		the longest time to wait between polls, in milliseconds. Some file systems do not report changes, so
+	 * 		this is also how quickly new lines are seen on them.
+	 * @param keepFollowing
+	 * 		checked before each poll. Following stops when it returns false.
+	 */
+	public void follow(final long maxWaitMs, final BooleanSupplier keepFollowing) throws IOException {
+		final Path directory = logFile.toAbsolutePath().getParent();
+		try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+			directory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+			while (keepFollowing.getAsBoolean()) {
+				poll();
+				final WatchKey key = watcher.poll(maxWaitMs, TimeUnit.MILLISECONDS);
+				if (key != null) {
+					key.pollEvents();
+					key.reset();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected synchronized T readNextEntry() throws IOException {
+		while (true) {
+			final int newline = indexOf(pending, NEWLINE, pendingStart, pendingEnd);
+			if (newline < 0) {
+				if (!readMore()) {
+					// no complete line yet
+					return null;
+				}
+				continue;
+			}
+
+			final int lineStart = pendingStart;
+			int contentEnd = newline;
+			if (contentEnd > lineStart && pending[contentEnd - 1] == CARRIAGE_RETURN) {
+				contentEnd--;
+			}
+			offset += newline + 1 - pendingStart;
+			pendingStart = newline + 1;
+
+			final String line = new String(pending, lineStart, contentEnd - lineStart, StandardCharsets.UTF_8);
+
+			//skip empty lines
+			if (line.isBlank()) {
+				continue;
+			}
+
+			final T entry = parser.parse(line);
+			if (entry != null) {
+				return entry;
+			}
+		}
+	}
+
+	/**
+	 * Stop reading and release the file.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+			channel = null;
+		}
+	}
+
+	/**
+	 * Read more bytes from the file after those already read. Once everything has been read from a file that has
+	 * been replaced, switch to the new file.
+	 *
+	 * @return true if any bytes were read
+	 */
+	private boolean readMore() throws IOException {
+		if (channel == null && !open()) {
+			return false;
+		}
+		if (readFromChannel()) {
+			return true;
+		}
+		if (isReplaced() && open()) {
+			return readFromChannel();
+		}
+		return false;
+	}
+
+	/**
+	 * Read more bytes from the open file after those already read.
+	 *
+	 * @return true if any bytes were read
+	 */
+	private boolean readFromChannel() throws IOException {
+		long position = offset + pendingEnd - pendingStart;
+		if (channel.size() < position) {
+			// the file has been truncated, so start again from its beginning
+			restartAt(0);
+			position = 0;
+		}
+
+		// make room after the partial line
+		if (pendingStart > 0) {
+			System.arraycopy(pending, pendingStart, pending, 0, pendingEnd - pendingStart);
+			pendingEnd -= pendingStart;
+			pendingStart = 0;
+		}
+		if (pending.length - pendingEnd < READ_SIZE) {
+			pending = Arrays.copyOf(pending, pending.length * 2);
+		}
+
+		final int read = channel.read(ByteBuffer.wrap(pending, pendingEnd, pending.length - pendingEnd), position);
+		if (read <= 0) {
+			return false;
+		}
+		pendingEnd += read;
+		return true;
+	}
+
+	/**
+	 * Open the log file, or the new log file if the old one has been replaced.
+	 *
+	 * @return false if there is no log file yet
+	 */
+	private boolean open() throws IOException {
+		final boolean replaced = channel != null;
+		close();
+		try {
+			channel = FileChannel.open(logFile, StandardOpenOption.READ);
+			fileKey = Files.readAttributes(logFile, BasicFileAttributes.class).fileKey();
+		} catch (NoSuchFileException e) {
+			return false;
+		}
+		if (replaced || channel.size() < offset) {
+			// a new file, or a checkpoint from a file that has since rolled over
+			restartAt(0);
+		}
+		return true;
+	}
+
+	/**
+	 * Check if the log file has been replaced by a new file since it was opened.
+	 */
+	private boolean isReplaced() throws IOException {
+		if (fileKey == null) {
+			// the file system cannot identify files, so rely on truncation being detected
+			return false;
+		}
+		try {
+			return !Objects.equals(fileKey, Files.readAttributes(logFile, BasicFileAttributes.class).fileKey());
+		} catch (NoSuchFileException e) {
+			// the old file has been moved and the new one is not there yet, so keep reading the old one
+			return false;
+		}
+	}
+
+	/**
+	 * Discard any partial line, and continue reading at the given offset.
+	 */
+	private void restartAt(final long newOffset) {
+		offset = newOffset;
+		pendingStart = 0;
+		pendingEnd = 0;
+	}
+
+	/**
+	 * Find the first occurrence of a byte in a range of an array, or -1 if there is none.
+	 */
+	private static int indexOf(final byte[] bytes, final byte value, final int start, final int end) {
+		for (int i = start; i < end; i++) {
+			if (bytes[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -14,6 +14,9 @@
 
 package com.swirlds.logging.json;
 
+import com.swirlds.logging.RawLineFilter;
+
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -59,4 +62,18 @@ public class HasMarkerFilter implements Predicate<JsonLogEntry> {
 		}
 		return markers.contains(entry.getMarker());
 	}
+
+	/**
+	 * Get a filter on raw log lines that rejects lines that cannot have one of the markers, so that they can be
+	 * skipped without being parsed. A line passes if it contains the quoted name of one of the markers.
+	 */
+	public RawLineFilter getRawLineFilter() {
+		final List<String> quoted = new ArrayList<>();
+		if (markers != null) {
+			for (String marker : markers) {
+				quoted.add("\"" + marker + "\"");
+			}
+		}
+		return RawLineFilter.containsAny(quoted);
+	}
 }
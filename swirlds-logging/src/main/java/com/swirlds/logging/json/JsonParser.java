@@ -27,9 +27,14 @@ public class JsonParser implements SwirldsLogParser<JsonLogEntry> {
 
 	private static final JsonFactory factory = new JsonFactory();
 
+	/**
+	 * Shared by all lines and all threads. An ObjectMapper is thread safe once configured, and building one for
+	 * every line costs more than parsing the line.
+	 */
+	private static final ObjectMapper mapper = new ObjectMapper(factory);
+
 	@Override
 	public JsonLogEntry parse(String line) {
-		ObjectMapper mapper = new ObjectMapper(factory);
 		JsonNode rootNode;
 		try {
 			rootNode = mapper.readTree(line);
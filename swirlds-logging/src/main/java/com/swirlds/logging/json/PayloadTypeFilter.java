@@ -14,8 +14,10 @@
 
 package com.swirlds.logging.json;
 
+import com.swirlds.logging.RawLineFilter;
 import com.swirlds.logging.payloads.LogPayload;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -67,4 +69,18 @@ public class PayloadTypeFilter implements Predicate<JsonLogEntry> {
 		final String type = extractPayloadType(entry.getRawPayload());
 		return types.contains(type);
 	}
+
+	/**
+	 * Get a filter on raw log lines that rejects lines that cannot have one of the payload types, so that they can
+	 * be skipped without being parsed. A line passes if it contains one of the types between "[]" brackets.
+	 */
+	public RawLineFilter getRawLineFilter() {
+		final List<String> bracketed = new ArrayList<>();
+		if (types != null) {
+			for (String type : types) {
+				bracketed.add("[" + type + "]");
+			}
+		}
+		return RawLineFilter.containsAny(bracketed);
+	}
 }
@@ -75,6 +75,11 @@ abstract class AbstractEventFlow {
 	 */
 	abstract int getForSigsSize();
 
+	/**
+	 * @return the number of signed states waiting to be hashed and signed
+	 */
+	abstract int getStateToHashSignSize();
+
 	/**
 	 * @return the number of events in the forCons queue
 	 */
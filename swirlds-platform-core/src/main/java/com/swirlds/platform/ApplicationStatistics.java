@@ -35,7 +35,15 @@ public class ApplicationStatistics extends AbstractStatistics {
 	 */
 	@Override
 	public void updateOthers() {
-
+		if (statEntries == null) {
+			return;
+		}
+		// incorporate the values that app statistics such as StatsHistogram accumulated since the last update
+		for (StatEntry stat : statEntries) {
+			if (stat.buffered instanceof StatsFoldable) {
+				((StatsFoldable) stat.buffered).fold();
+			}
+		}
 	}
 
 	/**
@@ -1071,5 +1071,6 @@ public abstract class Browser {
 
 		CryptoFactory.configure(Settings.crypto);
 		ReconnectSettingsFactory.configure(Settings.reconnect);
+		NotificationFactory.configure(Settings.notificationDispatchThreads, Settings.notificationMaxBatchSize);
 	}
 }
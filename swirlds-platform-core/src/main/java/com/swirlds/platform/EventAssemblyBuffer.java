@@ -0,0 +1,160 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform;
+
+import com.swirlds.common.Transaction;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The transactions by self that will go into one future event, packed as they are submitted. Any number of threads
+ * may append to it at once without locking. Each append reserves a slot and the bytes it needs, so the total size is
+ * known at all times and the byte budget for an event is checked once per transaction, when it is submitted.
+ * <p>
+ * Once the buffer is sealed, nothing more can be appended, and the event creator takes all of its transactions at
+ * once with {@link #drain()}.
+ * <p>
+ * The buffer holds references to the transactions, not their serialized bytes. The event is still serialized when
+ * it is hashed and when it is sent, by BaseEventHashedData through SerializableDataOutputStream, which writes the
+ * array header and class version itself. The same Transaction objects are also handed to the states by TransLists,
+ * so packing their bytes here would add a copy of every transaction without removing the one made when hashing.
+ */
+class EventAssemblyBuffer {
+	/** returned by {@link #tryAppend(Transaction)} when the transaction was added */
+	static final int APPENDED = 0;
+	/** returned by {@link #tryAppend(Transaction)} when the transaction didn't fit, and this call sealed the buffer */
+	static final int SEALED_BY_CALLER = 1;
+	/** returned by {@link #tryAppend(Transaction)} when the buffer had already been sealed by another call */
+	static final int ALREADY_SEALED = 2;
+
+	/** the bit in {@link #reserved} that is set once the buffer is sealed */
+	private static final long SEALED = Long.MIN_VALUE;
+
+	/** the transactions, in the order their slots were reserved */
+	private final Transaction[] transactions;
+	/** the maximum number of bytes of transactions in the buffer */
+	private final int maxBytes;
+	/** the number of bytes reserved (upper 32 bits) and slots reserved (lower 32 bits), plus the sealed bit */
+	private final AtomicLong reserved = new AtomicLong(0);
+	/** the number of reserved slots that have been filled in */
+	private final AtomicInteger written = new AtomicInteger(0);
+
+	/**
+	 * @param maxCount
+	 * 		the maximum number of transactions in the buffer
+	 * @param maxBytes
+	 * 		the maximum number of bytes of transactions in the buffer
+	 */
+	EventAssemblyBuffer(final int maxCount, final int maxBytes) {
+		this.transactions = new Transaction[maxCount];
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Append a transaction, if there is room for it. If there isn't, the buffer is sealed.
+	 *
+	 * @param trans
+	 * 		the transaction to append
+	 * @return {@link #APPENDED}, {@link #SEALED_BY_CALLER} or {@link #ALREADY_SEALED}
+	 */
+	int tryAppend(final Transaction trans) {
+		final int size = trans.size();
+		while (true) {
+			final long state = reserved.get();
+			if ((state & SEALED) != 0) {
+				return ALREADY_SEALED;
+			}
+			final int count = (int) state;
+			final int bytes = (int) (state >>> 32);
+			// a transaction is never too big for an empty buffer, so every transaction eventually fits in one
+			if (count == transactions.length || (count > 0 && bytes + size > maxBytes)) {
+				if (reserved.compareAndSet(state, state | SEALED)) {
+					return SEALED_BY_CALLER;
+				}
+				continue;
+			}
+			final long next = ((long) (bytes + size) << 32) | (count + 1);
+			if (reserved.compareAndSet(state, next)) {
+				transactions[count] = trans;
+				written.incrementAndGet();
+				return APPENDED;
+			}
+		}
+	}
+
+	/**
+	 * Stop any more transactions from being appended
+	 *
+	 * @return true if this call sealed the buffer, false if it was already sealed
+	 */
+	boolean seal() {
+		while (true) {
+			final long state = reserved.get();
+			if ((state & SEALED) != 0) {
+				return false;
+			}
+			if (reserved.compareAndSet(state, state | SEALED)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * @return true if the buffer has no more room for transactions, because it is full or sealed
+	 */
+	boolean isSealed() {
+		return (reserved.get() & SEALED) != 0;
+	}
+
+	/**
+	 * @return the number of transactions appended so far
+	 */
+	int getCount() {
+		return (int) reserved.get();
+	}
+
+	/**
+	 * @return the total size in bytes of the transactions appended so far
+	 */
+	int getBytes() {
+		return (int) ((reserved.get() & ~SEALED) >>> 32);
+	}
+
+	/**
+	 * @return the maximum number of transactions the buffer can hold
+	 */
+	int getCapacity() {
+		return transactions.length;
+	}
+
+	/**
+	 * Get all the transactions in a sealed buffer. This waits for appends that have reserved a slot to finish
+	 * filling it in, which only takes a moment. It must only be called once, after the buffer is sealed.
+	 *
+	 * @return the transactions, in the order they were appended
+	 */
+	Transaction[] drain() {
+		final int count = getCount();
+		while (written.get() < count) {
+			Thread.onSpinWait();
+		}
+		if (count == transactions.length) {
+			return transactions;
+		}
+		return Arrays.copyOf(transactions, count);
+	}
+}
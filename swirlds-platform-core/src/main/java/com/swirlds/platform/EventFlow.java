@@ -15,8 +15,12 @@ package com.swirlds.platform;
 
 import com.swirlds.common.Address;
 import com.swirlds.common.SwirldState;
+import com.swirlds.common.SwirldState.BatchSwirldState;
+import com.swirlds.common.SwirldState.ParallelSwirldState;
 import com.swirlds.common.SwirldState.SwirldState2;
 import com.swirlds.common.Transaction;
+import com.swirlds.common.TransactionDroppedException;
+import com.swirlds.common.TransactionSubmission;
 import com.swirlds.common.crypto.CryptoFactory;
 import com.swirlds.common.crypto.Cryptography;
 import com.swirlds.common.crypto.TransactionSignature;
@@ -24,6 +28,7 @@ import com.swirlds.common.crypto.Hash;
 import com.swirlds.logging.LogMarker;
 import com.swirlds.common.merkle.hash.FutureMerkleHash;
 import com.swirlds.common.merkle.hash.MerkleHashChecker;
+import com.swirlds.platform.internal.SpscBlockingQueue;
 import com.swirlds.platform.state.SignedState;
 import com.swirlds.platform.state.StateInfo;
 import org.apache.commons.lang3.tuple.Pair;
@@ -40,11 +45,12 @@ import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -71,6 +77,11 @@ class EventFlow extends AbstractEventFlow {
 
 	/** use this for all logging, as controlled by the optional data/log4j2.xml file */
 	private static final Logger log = LogManager.getLogger();
+	/**
+	 * the number of events the rings of forCurr, forWork and forNext are created with. forNext holds every event
+	 * handled since the last shuffle, so a ring that fills up grows rather than blocking.
+	 */
+	private static final int EVENT_QUEUE_CAPACITY = 1024;
 
 	/** Platform that instantiates/uses this */
 	private final AbstractPlatform platform;
@@ -96,19 +107,24 @@ class EventFlow extends AbstractEventFlow {
 	private final Semaphore getStateSemaphore = new Semaphore(1);
 
 	// Other classes SHOULD NOT ACCESS forCurr. The one exception is that
-	// TransLists should access forCurr, but only to add TransLists.NoEvent to unblock it when the
-	// queue is empty and transactions are waiting to be handled).
-
-	/** Events to send to stateCurr. */
-	private final BlockingQueue<EventImpl> forCurr;
+	// TransLists should wake up threadCurr and threadWork (through unblockCurrWork) when their
+	// queues are empty and transactions are waiting to be handled).
+	//
+	// forCurr, forWork and forNext each have a single producer and a single consumer, so they are lock-free
+	// SpscBlockingQueues backed by preallocated rings. As before, each one returns the event with the earliest
+	// estimated consensus timestamp first, so stateCurr and stateWork handle transactions in roughly the order
+	// consensus will.
+
+	/** Events to send to stateCurr. Only the intake thread adds to it, and only threadCurr takes from it. */
+	private final SpscBlockingQueue<EventImpl> forCurr;
 	/** consensus events to send to stateCons */
 	private final BlockingQueue<EventImpl> forCons;
 	/** old events to delete after signed state */
 	private final BlockingQueue<EventImpl> forSigs;
-	/** events to send to stateWork */
-	private volatile BlockingQueue<EventImpl> forWork;
-	/** queue to swap with forWork when shuffling */
-	private volatile BlockingQueue<EventImpl> forNext;
+	/** events to send to stateWork. Only threadCurr adds to it, and only threadWork takes from it. */
+	private volatile SpscBlockingQueue<EventImpl> forWork;
+	/** queue to swap with forWork when shuffling. Only threadWork adds to it. */
+	private volatile SpscBlockingQueue<EventImpl> forNext;
 	/** forCurr --> stateCurr */
 	private StoppableThread threadCurr;
 	/** forCons --> stateCons */
@@ -127,6 +143,9 @@ class EventFlow extends AbstractEventFlow {
 	/** does the app's state inherit from SwirldState2? */
 	private final boolean swirldState2;
 
+	/** handles consensus transactions in parallel, or null if the app's state is not a ParallelSwirldState */
+	private final ParallelTransactionExecutor parallelExecutor;
+
 	/**
 	 * indicates whether a state was saved in the current freeze period. we are only saving the first state
 	 * in the freeze period. this variable is only used by threadCons so there is no synchronization needed
@@ -149,8 +168,28 @@ class EventFlow extends AbstractEventFlow {
 	/** A deque used by doCons to store the minimum generation of famous witnesses per round */
 	private final Deque<Pair<Long, Long>> doConsMinGenFamous = new ConcurrentLinkedDeque<>();
 
-	/** A queue that holds only 1 object about a state that needs to be hashed and signed. */
-	private final BlockingQueue<SignedState> stateToHashSign = new ArrayBlockingQueue<>(1);
+	/**
+	 * A queue of the states that are being hashed and need to be signed, in round order. Their hashes are computed
+	 * concurrently, but they are signed one at a time, in order, by threadStateHashSign.
+	 */
+	private final BlockingQueue<StateToHashSign> stateToHashSign =
+			new ArrayBlockingQueue<>(Math.max(1, Settings.signedStateHashPipelineDepth));
+
+	/** a signed state whose hash is being computed, waiting to be signed */
+	private static final class StateToHashSign {
+		/** the state being hashed */
+		private final SignedState signedState;
+		/** the hash of the state, once it has been computed */
+		private final FutureMerkleHash hash;
+		/** the value of System.nanoTime() when hashing started */
+		private final long startTime;
+
+		private StateToHashSign(final SignedState signedState, final FutureMerkleHash hash, final long startTime) {
+			this.signedState = signedState;
+			this.hash = hash;
+			this.startTime = startTime;
+		}
+	}
 
 	/** how many of {threadCons, threadCurr, threadWork} exist (either 2 or 3) */
 	private final int numThreads;
@@ -170,12 +209,15 @@ class EventFlow extends AbstractEventFlow {
 	EventFlow(AbstractPlatform platform, SwirldState initialState) {
 		this.platform = platform;
 		this.swirldState2 = (initialState instanceof SwirldState2);
+		this.parallelExecutor = (initialState instanceof ParallelSwirldState && Settings.parallelTransactionThreads > 1)
+				? new ParallelTransactionExecutor(Settings.parallelTransactionThreads)
+				: null;
 		this.transLists = new TransLists(this);
 		lastShuffle = Instant.now(); // wait a while before first shuffle, so maybe queues aren't empty
 
 		this.setState(initialState);
 
-		Comparator<EventImpl> cmp = (x, y) -> {
+		final Comparator<EventImpl> cmp = (x, y) -> {
 			if (x == null || y == null || x.getConsensusTimestamp() == null
 					|| y.getConsensusTimestamp() == null) {
 				return 0;
@@ -184,7 +226,7 @@ class EventFlow extends AbstractEventFlow {
 					.compareTo(y.getConsensusTimestamp());
 		};
 
-		forCurr = new PriorityBlockingQueue<>(100, cmp);
+		forCurr = new SpscBlockingQueue<>(EVENT_QUEUE_CAPACITY, cmp);
 		forCons = Settings.maxEventQueueForCons == 0
 				? new LinkedBlockingQueue<>()
 				: new ArrayBlockingQueue<>(Settings.maxEventQueueForCons);
@@ -192,8 +234,8 @@ class EventFlow extends AbstractEventFlow {
 		forSigs = new LinkedBlockingQueue<>();
 
 		if (!swirldState2) {
-			forWork = new PriorityBlockingQueue<>(100, cmp);
-			forNext = new PriorityBlockingQueue<>(100, cmp);
+			forWork = new SpscBlockingQueue<>(EVENT_QUEUE_CAPACITY, cmp);
+			forNext = new SpscBlockingQueue<>(EVENT_QUEUE_CAPACITY, cmp);
 		}
 
 		if (!swirldState2) {
@@ -322,6 +364,14 @@ class EventFlow extends AbstractEventFlow {
 		return forSigs.size();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	int getStateToHashSignSize() {
+		return stateToHashSign.size();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -335,26 +385,24 @@ class EventFlow extends AbstractEventFlow {
 	 */
 	@Override
 	void forCurrPut(EventImpl event) {
-		try {
-			event.estimateTime(platform.getSelfId(), platform.getStats().avgSelfCreatedTimestamp.getWeightedMean(),
-					platform.getStats().avgOtherReceivedTimestamp.getWeightedMean());
-			// update the estimate now, so the queue can sort on it
-			forCurr.put(event);
-		} catch (InterruptedException e) {
-			log.error(EXCEPTION.getMarker(), "error:{} event:{}", e, event);
-		}
+		event.estimateTime(platform.getSelfId(), platform.getStats().avgSelfCreatedTimestamp.getWeightedMean(),
+				platform.getStats().avgOtherReceivedTimestamp.getWeightedMean());
+		// update the estimate now, so the queue can sort on it. The queue never blocks.
+		forCurr.put(event);
 	}
 
 	/**
-	 * if forCurr is empty, then put noEvent to unblock threadCurr, otherwise don't (the check and put are
-	 * not atomic together, but that's ok), and also do the same for forWork.
+	 * if forCurr is empty, then wake up threadCurr so it can handle waiting transactions, otherwise don't (the
+	 * check and wake up are not atomic together, but that's ok), and also do the same for forWork. Waking up
+	 * doesn't add anything to the queues, so it is safe to call from any thread.
 	 **/
 	void unblockCurrWork() {
-		if (forCurr.peek() == null) { // unblock threadCurr, if it's blocked
-			forCurr.offer(transLists.noEvent);// this unblocks it (then noEvent is later ignored)
+		if (forCurr.isEmpty()) { // unblock threadCurr, if it's blocked
+			forCurr.wakeUp();
 		}
-		if (forWork != null && forWork.peek() == null) { // unblock threadCurr, if it's blocked
-			forWork.offer(transLists.noEvent);// this unblocks it (then noEvent is later ignored)
+		final SpscBlockingQueue<EventImpl> work = forWork;
+		if (work != null && work.isEmpty()) { // unblock threadWork, if it's blocked
+			work.wakeUp();
 		}
 	}
 
@@ -562,9 +610,76 @@ class EventFlow extends AbstractEventFlow {
 			return false;
 		}
 
+		platform.getStats().getTransactionTracer().offered(transaction);
 		return transLists.offer(transaction, system);
 	}
 
+	/**
+	 * Store a new transaction by the app, the same as {@link #createTransaction(boolean, Transaction)}, and
+	 * describe the outcome. If it is accepted, the returned submission holds a future that is completed when the
+	 * transaction has been handled by stateCons.
+	 *
+	 * @param transaction
+	 * 		the new transaction being created locally by the app
+	 * @return the outcome of the submission
+	 */
+	TransactionSubmission submitTransaction(Transaction transaction) {
+		if (Settings.enableBetaMirror && platform.isZeroStakeNode()) {
+			return TransactionSubmission.invalid();
+		}
+
+		if (transaction == null
+				|| transaction.getLength() > Settings.transactionMaxBytes) {
+			return TransactionSubmission.invalid();
+		}
+
+		// the future must be set before the transaction can possibly be handled
+		final CompletableFuture<Instant> future = new CompletableFuture<>();
+		transaction.setConsensusFuture(future);
+		platform.getStats().getTransactionTracer().offered(transaction);
+		if (!transLists.offer(transaction, false)) {
+			transaction.setConsensusFuture(null);
+			return TransactionSubmission.busy(transLists.estimateRetryAfter(), transLists.getEventSize());
+		}
+		return TransactionSubmission.accepted(future, transLists.getEventSize());
+	}
+
+	/**
+	 * Complete the futures of the transactions in an event by self that were waiting for it to be handled by
+	 * stateCons
+	 *
+	 * @param event
+	 * 		the event, which has consensus
+	 * @param transactions
+	 * 		the transactions in the event
+	 */
+	private static void completeConsensusFutures(final EventImpl event, final Transaction[] transactions) {
+		for (int i = 0; i < transactions.length; i++) {
+			final CompletableFuture<Instant> future = transactions[i].getConsensusFuture();
+			if (future != null) {
+				transactions[i].setConsensusFuture(null);
+				future.complete(event.getTransactionTime(i));
+			}
+		}
+	}
+
+	/**
+	 * Complete the future of a transaction by self exceptionally, because it will no longer be handled by stateCons.
+	 * This must not be called while holding a lock, since the future may run the app's callbacks.
+	 *
+	 * @param transaction
+	 * 		the transaction that was dropped
+	 * @param reason
+	 * 		why it was dropped
+	 */
+	static void dropConsensusFuture(final Transaction transaction, final String reason) {
+		final CompletableFuture<Instant> future = transaction.getConsensusFuture();
+		if (future != null) {
+			transaction.setConsensusFuture(null);
+			future.completeExceptionally(new TransactionDroppedException(reason));
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -692,9 +807,9 @@ class EventFlow extends AbstractEventFlow {
 						timeCreated, estConsTime, trans, address);
 				if (event != null && event.getReachedConsTimestamp() != null) {
 					// we only add this stat for transactions that have reached consensus
-					platform.getStats().avgConsHandleTime.recordValue(
-							event.getReachedConsTimestamp().until(Instant.now(),
-									ChronoUnit.NANOS) / 1_000_000_000.0);
+					final long consHandleNanos = event.getReachedConsTimestamp().until(Instant.now(), ChronoUnit.NANOS);
+					platform.getStats().avgConsHandleTime.accumulateValue(consHandleNanos / 1_000_000_000.0);
+					platform.getStats().consHandleTimeHistogram.recordNanos(consHandleNanos);
 				}
 			} else { // send user transactions to SwirldState
 
@@ -714,12 +829,12 @@ class EventFlow extends AbstractEventFlow {
 
 				// we only add these stats for transactions that have reached consensus
 				if (event != null && event.getReachedConsTimestamp() != null) {
-					platform.getStats().avgSecTransHandled.recordValue(
+					platform.getStats().avgSecTransHandled.accumulateValue(
 							(System.nanoTime() - startTime) / 1_000_000_000.0);
-					platform.getStats().transHandledPerSecond.cycle();
-					platform.getStats().avgConsHandleTime.recordValue(
-							event.getReachedConsTimestamp().until(Instant.now(),
-									ChronoUnit.NANOS) / 1_000_000_000.0);
+					platform.getStats().transHandledPerSecond.accumulateCycle();
+					final long consHandleNanos = event.getReachedConsTimestamp().until(Instant.now(), ChronoUnit.NANOS);
+					platform.getStats().avgConsHandleTime.accumulateValue(consHandleNanos / 1_000_000_000.0);
+					platform.getStats().consHandleTimeHistogram.recordNanos(consHandleNanos);
 				}
 			}
 		} catch (InterruptedException ex) {
@@ -740,6 +855,82 @@ class EventFlow extends AbstractEventFlow {
 		}
 	}
 
+	/**
+	 * Handle a run of consecutive non-system transactions from one event with a single call to
+	 * {@link BatchSwirldState#handleTransactions}. This behaves like calling
+	 * {@link #handleTransaction(AbstractPlatform, boolean, boolean, StateInfo, boolean, EventImpl, Transaction,
+	 * Address, Instant, long)} for each of them, but the statistics are only updated once for the whole batch.
+	 * If the state is a ParallelSwirldState, consensus transactions are handed to parallelExecutor instead.
+	 *
+	 * @param platform
+	 * 		the platform managing this event, state, and hashgraph
+	 * @param state
+	 * 		the state to send the transactions to, which must hold a BatchSwirldState
+	 * @param isConsensus
+	 * 		should the state be told that these transactions are part of the consensus?
+	 * @param event
+	 * 		the event containing these transactions
+	 * @param transactions
+	 * 		all the transactions of the event
+	 * @param offset
+	 * 		the index of the first transaction to handle
+	 * @param length
+	 * 		the number of transactions to handle, none of which may be system transactions
+	 * @param baseTime
+	 * 		timestamp (consensus or estimated) of the event. The transaction at index i gets this plus i
+	 * 		nanoseconds.
+	 */
+	private void handleTransactions(AbstractPlatform platform, StateInfo state, boolean isConsensus,
+			EventImpl event, Transaction[] transactions, int offset, int length, Instant baseTime) {
+		if (state.isFrozen()) { // don't send a state any transactions after we promised not to.
+			log.error(
+					"ERROR: EventFlow.handleTransactions was given transactions for a frozen state");
+			return;
+		}
+
+		// let the state handle these transactions
+		try {// guard against bad apps crashing the browser
+			// If we have consensus, validate any signatures present and wait if necessary
+			if (isConsensus) {
+				for (int i = offset; i < offset + length; i++) {
+					for (TransactionSignature sig : transactions[i].getSignatures()) {
+						// Block & Ignore the Void return
+						sig.waitForFuture().get();
+					}
+				}
+			}
+			long startTime = System.nanoTime();
+
+			if (isConsensus && parallelExecutor != null) {
+				int conflicts = parallelExecutor.execute((ParallelSwirldState) state.getState(),
+						event.getCreatorId(), event.getTimeCreated(), baseTime.plusNanos(offset), transactions,
+						offset, length);
+				platform.getStats().avgTransConflictPercent.recordValue(100.0 * conflicts / length);
+			} else {
+				((BatchSwirldState) state.getState()).handleTransactions(event.getCreatorId(), isConsensus,
+						event.getTimeCreated(), baseTime.plusNanos(offset), transactions, offset, length);
+			}
+
+			// we only add these stats for transactions that have reached consensus
+			if (event.getReachedConsTimestamp() != null) {
+				platform.getStats().avgSecTransHandled.accumulateValue(
+						(System.nanoTime() - startTime) / 1_000_000_000.0 / length);
+				platform.getStats().transHandledPerSecond.accumulate(length);
+				final long consHandleNanos = event.getReachedConsTimestamp().until(Instant.now(), ChronoUnit.NANOS);
+				platform.getStats().avgConsHandleTime.accumulateValue(consHandleNanos / 1_000_000_000.0);
+				platform.getStats().consHandleTimeHistogram.recordNanos(consHandleNanos);
+			}
+		} catch (InterruptedException ex) {
+			log.debug(TESTING_EXCEPTIONS_ACCEPTABLE_RECONNECT.getMarker(),
+					"EventFlow::handleTransactions Interrupted [ nodeId = {} ]", platform.getSelfId().getId(), ex);
+			Thread.currentThread().interrupt();
+		} catch (Exception ex) {
+			log.error(EXCEPTION.getMarker(),
+					"error while calling the app's SwirldState.handleTransactions with event {}",
+					toShortString(event), ex);
+		}
+	}
+
 	@Override
 	void addMinGenInfo(long round, long minGeneration) {
 		doConsMinGenFamous.add(Pair.of(round, minGeneration));
@@ -867,27 +1058,31 @@ class EventFlow extends AbstractEventFlow {
 					}
 				}
 
-				// The doCons thread will not wait for a state to be signed, it will put it into this queue to be done
-				// in the background. If the hashing cannot be done before the next state needs to be signed, doCons
-				// will block and wait.
+				// The doCons thread will not wait for a state to be hashed or signed. It starts hashing it in the
+				// background and puts it into this queue to be signed. Several states can be hashed at once, and only
+				// if Settings.signedStateHashPipelineDepth states are still waiting will doCons block and wait.
 				log.info(SIGNED_STATE.getMarker(),
 						"about to put a NewSignedStateInfo to stateToHashSign for round:{} , event: {}",
 						event.getRoundReceived(),
 						toShortString(event));
 
-				stateToHashSign.put(
-						new SignedState(
-								immutableStateCons,
-								event.getRoundReceived(),
-								numEventsCons.get(),
-								hashEventsCons,
-								platform.getHashgraph().getAddressBook().copy(),
-								events,
-								ssConsTime,
-								savedStateInFreeze,
-								minGen
-						)
+				final SignedState signedState = new SignedState(
+						immutableStateCons,
+						event.getRoundReceived(),
+						numEventsCons.get(),
+						hashEventsCons,
+						platform.getHashgraph().getAddressBook().copy(),
+						events,
+						ssConsTime,
+						savedStateInFreeze,
+						minGen
 				);
+				log.info(LogMarker.MERKLE_HASHING.getMarker(), "Starting hashing of SignedState");
+				// Use digestTreeAsync because it is significantly (10x+) faster for large trees. Nodes that were not
+				// changed since the previous signed state still have their hash, so they are not hashed again.
+				final long startHash = System.nanoTime();
+				stateToHashSign.put(new StateToHashSign(signedState, cryptography.digestTreeAsync(signedState),
+						startHash));
 				immutableStateCons.decrementReferenceCount();
 			}
 		}
@@ -937,19 +1132,20 @@ class EventFlow extends AbstractEventFlow {
 
 	private void stateHashSign() throws InterruptedException {
 		log.info(SIGNED_STATE.getMarker(), "stateHashSign:: about to hash and sign the state");
-		// get the state to be hashed and signed, wait if necessary
-		SignedState signedState = stateToHashSign.take();
+		// get the oldest state being hashed, wait if necessary
+		final StateToHashSign next = stateToHashSign.take();
+		final SignedState signedState = next.signedState;
 
-		// hash a new signed state, signed only by self so far,
+		// sign a new signed state once it is hashed, signed only by self so far,
 		// create a transaction with self signature (and gossip to other members),
 		// and start collecting signatures on it from other members.
 		long startTime = System.nanoTime();
-		log.info(LogMarker.MERKLE_HASHING.getMarker(), "Starting hashing of SignedState");
 
-		// Use digestTreeAsync because it is significantly (10x+) faster for large trees
-		final FutureMerkleHash hashFuture = cryptography.digestTreeAsync(signedState);
-		// wait for the hash to be computed
-		hashFuture.get();
+		// wait for the hash to be computed. Newer states may finish hashing first, but they are signed in order.
+		next.hash.get();
+		final long hashNanos = System.nanoTime() - next.startTime;
+		platform.getStats().avgSecStateHash.recordValue(hashNanos / 1_000_000_000.0);
+		platform.getStats().stateHashTimeHistogram.recordNanos(hashNanos);
 
 		if (Settings.checkSignedStateHashes) {
 			MerkleHashChecker.checkSync(cryptography, signedState, node ->
@@ -1005,7 +1201,8 @@ class EventFlow extends AbstractEventFlow {
 		transLists.shuffle(); // move and copy the lists of transactions, too
 		log.debug(QUEUES.getMarker(), "SHUFFLE stateWork:{}",
 				stateWork.getState());
-		BlockingQueue<EventImpl> t = forWork;
+		// all 3 threads are waiting on the barrier, so swapping changes which thread produces each queue safely
+		SpscBlockingQueue<EventImpl> t = forWork;
 		forWork = forNext;
 		forNext = t;
 		lastShuffle = Instant.now(); // don't shuffle again, for a while
@@ -1130,6 +1327,12 @@ class EventFlow extends AbstractEventFlow {
 			return null;
 		}
 
+		final boolean traceSelfEvent = TransactionTracer.isEnabled() && fromQueue == forCons
+				&& platform.getSelfId().equalsMain(event.getCreatorId());
+		if (traceSelfEvent) {
+			platform.getStats().getTransactionTracer().stamp(event.getTransactions(), TransactionTracer.DEQUEUED);
+		}
+
 		// If we are handling consensus events, we should not handle any events after the freeze state, and before the
 		// end of the freeze period
 		if (fromQueue == forCons && savedStateInFreeze) {
@@ -1170,6 +1373,18 @@ class EventFlow extends AbstractEventFlow {
 			stateInfo.setLastCons(event);// not used for SwirldsState2
 		}
 
+		// the transactions can only be handled once their signatures have been expanded and they have been prehandled
+		try {
+			event.waitForPrehandle();
+		} catch (InterruptedException e) {
+			log.error(RECONNECT.getMarker(),
+					"takeHandlePut() waitForPrehandle() interrupted");
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			log.error(EXCEPTION.getMarker(), "prehandling the transactions of {} failed", toShortString(event), e);
+		}
+
 		// for SwirldState2, we say events from states other than stateCons are
 		// not consensus, even if they are, to keep the contract that every
 		// transaction is handled twice, once marked as consensus and once not.
@@ -1184,6 +1399,23 @@ class EventFlow extends AbstractEventFlow {
 			for (int i = 0; i < transactions.length; i++) {
 				boolean isConsensus = event.isConsensus() && allowIsConsensusTrue;
 
+				if (!transactions[i].isSystem() && stateInfo.getState() instanceof BatchSwirldState) {
+					// send this transaction, and all the non-system ones right after it, in a single call
+					int end = i + 1;
+					while (end < transactions.length && !transactions[end].isSystem()) {
+						end++;
+					}
+					handleTransactions(platform, stateInfo, isConsensus, event, transactions, i, end - i,
+							baseTime);
+					if (selfConsTrans || isSwirldState2()) {
+						for (int j = i; j < end; j++) {
+							transLists.pollCons();
+						}
+					}
+					i = end - 1; // the loop increment moves on to the transaction after the batch
+					continue;
+				}
+
 				// this is the only place where handleTransaction is called on system
 				// transactions with ignoreSystem == false
 				handleTransaction(//
@@ -1206,6 +1438,12 @@ class EventFlow extends AbstractEventFlow {
 				}
 			}
 		}
+		if (selfConsTrans && event.isConsensus()) {
+			completeConsensusFutures(event, transactions);
+		}
+		if (traceSelfEvent) {
+			platform.getStats().getTransactionTracer().handled(transactions);
+		}
 		if (toQueue != null) {
 			event.estimateTime(platform.getSelfId(), platform.getStats().avgSelfCreatedTimestamp.getWeightedMean(),
 					platform.getStats().avgOtherReceivedTimestamp.getWeightedMean());
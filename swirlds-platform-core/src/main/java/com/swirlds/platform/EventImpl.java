@@ -30,7 +30,7 @@ import com.swirlds.common.events.EventSerializationOptions;
 import com.swirlds.common.io.OptionalSelfSerializable;
 import com.swirlds.common.io.SerializableDataInputStream;
 import com.swirlds.common.io.SerializableDataOutputStream;
-import com.swirlds.common.stream.Timestamped;
+import com.swirlds.common.stream.ConsensusOrdered;
 import com.swirlds.platform.event.EventCounter;
 import com.swirlds.platform.event.InternalEventData;
 import com.swirlds.platform.internal.CreatorSeqPair;
@@ -41,6 +41,8 @@ import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * An internal platform event. It holds all the event data relevant to the platform. It implements the Event interface
@@ -48,7 +50,7 @@ import java.util.ArrayList;
  */
 @ConstructableIgnored
 public class EventImpl extends AbstractSerializableHashable implements Comparable<EventImpl>, Event,
-		OptionalSelfSerializable<EventSerializationOptions>, Timestamped {
+		OptionalSelfSerializable<EventSerializationOptions>, ConsensusOrdered {
 	/** The part of a base event that affects the hash that is signed */
 	private BaseEventHashedData baseEventHashedData;
 	/** The part of a base event which doesn't affect the hash that is signed */
@@ -774,6 +776,30 @@ public class EventImpl extends AbstractSerializableHashable implements Comparabl
 		internalEventData.setRunningHash(runningHash);
 	}
 
+	/**
+	 * @param prehandled
+	 * 		completes once the transactions of this event have been prehandled
+	 */
+	void setPrehandled(Future<?> prehandled) {
+		internalEventData.setPrehandled(prehandled);
+	}
+
+	/**
+	 * Wait until the signatures of the transactions in this event have been expanded and the transactions have
+	 * been prehandled by the app. Returns immediately if that was done before the event was added to the hashgraph.
+	 *
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting
+	 * @throws ExecutionException
+	 * 		if prehandling failed
+	 */
+	void waitForPrehandle() throws InterruptedException, ExecutionException {
+		Future<?> prehandled = internalEventData.getPrehandled();
+		if (prehandled != null) {
+			prehandled.get();
+		}
+	}
+
 	/**
 	 * @return n-1 for the nth witness added to a round (-1 if not a witness. Can be different on different computers)
 	 */
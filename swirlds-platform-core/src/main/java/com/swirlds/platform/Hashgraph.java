@@ -16,6 +16,7 @@ package com.swirlds.platform;
 import com.swirlds.common.Address;
 import com.swirlds.common.AddressBook;
 import com.swirlds.common.NodeId;
+import com.swirlds.common.SwirldState;
 import com.swirlds.common.Transaction;
 import com.swirlds.common.crypto.CryptoFactory;
 import com.swirlds.common.crypto.TransactionSignature;
@@ -26,6 +27,7 @@ import com.swirlds.platform.event.EventIntakeTask;
 import com.swirlds.platform.event.EventUtils;
 import com.swirlds.platform.event.TransactionConstants;
 import com.swirlds.platform.internal.CreatorSeqPair;
+import com.swirlds.platform.internal.PlatformThreadFactory;
 import com.swirlds.platform.state.SignedState;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -46,7 +48,10 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
@@ -73,6 +78,8 @@ class Hashgraph extends AbstractHashgraph {
 	static final Marker INTAKE = MarkerManager.getMarker("INTAKE");
 	/** use this for all logging, as controlled by the optional data/log4j2.xml file */
 	private static final Logger log = LogManager.getLogger();
+	/** how long an idle prehandle thread is kept before it exits, in seconds */
+	private static final long PREHANDLE_IDLE_THREAD_SECONDS = 60;
 	/** immutable current version of the address book. (will later store one per round) */
 	private final AddressBook latestAddressBook; // if this code is changed to non-final, make it volatile
 	/** the Platform that is using this hashgraph */
@@ -85,8 +92,14 @@ class Hashgraph extends AbstractHashgraph {
 	private final AtomicLong numTrans = new AtomicLong(0);
 	/** sequence number of first known event by each member (-1 if none) */
 	private final AtomicLongArray firstSeq;
-	/** A pool of threads used for processing received events and creating new events */
-	//private ExecutorService intakeThreadPool;
+	/** hashes and checks the signatures of received events before the intake thread processes them */
+	private final ExecutorService intakeThreadPool;
+	/**
+	 * expands signatures and prehandles the transactions of new events, or null to do it on the intake thread. Its
+	 * threads are daemon threads that exit when idle, so they neither keep the JVM alive nor outlive a platform that
+	 * was shut down.
+	 */
+	private final ExecutorService prehandlePool;
 	/** sequence number of last known event by each member (-1 if none) */
 	private final AtomicLongArray lastSeq;
 	/** number of members not started yet */
@@ -144,8 +157,9 @@ class Hashgraph extends AbstractHashgraph {
 	 * 		purposes
 	 * @param executorService
 	 * 		a executor service used for instantiating internal thread pool for process EventInfo instances
-	 * @implNote executorService is no longer used	due to the change to move validation to single threaded model
-	 * 		This will be re-evaluated in the future
+	 * @implNote events are still validated and added to the hashgraph by a single thread, but if
+	 * 		{@link Settings#preprocessIntakeEvents} is true, they are hashed and have their signatures checked on
+	 * 		executorService as soon as they are received
 	 */
 	Hashgraph(AbstractPlatform platform, AddressBook addressBook, NodeId selfId, boolean startIntakeThreads,
 			ExecutorService executorService) {
@@ -195,7 +209,27 @@ class Hashgraph extends AbstractHashgraph {
 			// start a thread that will forever process events from the intake queue
 			startThreadPollIntakeQueue();
 		}
-		//intakeThreadPool = executorService;
+		intakeThreadPool = executorService;
+		prehandlePool = Settings.prehandleThreads > 0 ? newPrehandlePool(Settings.prehandleThreads) : null;
+	}
+
+	/**
+	 * Create the pool of daemon threads that prehandle transactions, whose threads exit when idle
+	 *
+	 * @param numThreads
+	 * 		the most threads the pool may have
+	 * @return the pool
+	 */
+	private static ExecutorService newPrehandlePool(int numThreads) {
+		final ThreadFactory factory = new PlatformThreadFactory("prehandle_");
+		final ThreadPoolExecutor pool = new ThreadPoolExecutor(numThreads, numThreads,
+				PREHANDLE_IDLE_THREAD_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (Runnable r) -> {
+			final Thread thread = factory.newThread(r);
+			thread.setDaemon(true);
+			return thread;
+		});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
 	}
 
 	@Override
@@ -581,6 +615,12 @@ class Hashgraph extends AbstractHashgraph {
 					lastRoundReceivedAllTransCons = lastRRwithUserTransaction;
 				}
 			}
+			if (selfId.equalsMain(e.getCreatorId()) && e.getTransactions() != null) {
+				// its transactions will never be handled with consensus
+				for (Transaction trans : e.getTransactions()) {
+					EventFlow.dropConsensusFuture(trans, "the event holding it went stale");
+				}
+			}
 			log.warn(STALE_EVENTS.getMarker(), "Stale event ({},{})",
 					e.getCreatorId(), e.getCreatorSeq());
 		}
@@ -778,8 +818,10 @@ class Hashgraph extends AbstractHashgraph {
 	 * If eventInfo.newEvent==false, then this is an event received in a sync, and all parameters are used.
 	 *
 	 * @param validateEventTask
+	 * @return true if the event was added to the intake queue, false if it was discarded, for example because it is a
+	 * 		duplicate of an event we already have
 	 */
-	void addEvent(final ValidateEventTask validateEventTask) {
+	boolean addEvent(final ValidateEventTask validateEventTask) {
 
 		// If beta mirror node logic is enabled and the event originated from a node known to have a zero stake
 		// then we should discard this event and not even worry about validating the signature in order
@@ -789,7 +831,7 @@ class Hashgraph extends AbstractHashgraph {
 			log.error(TESTING_EXCEPTIONS.getMarker(),
 					"Event Intake: Received an event from a zero stake node [ nodeId = {}, eventSeq = {} ]",
 					validateEventTask::getCreatorId, validateEventTask::getCreatorSeqPair);
-			return;
+			return false;
 		}
 
 		// add the potential event to the queue to be added to the hashgraph by the pollIntakeQueue method
@@ -815,7 +857,7 @@ class Hashgraph extends AbstractHashgraph {
 					//} else { // intake != null
 					//	log.error(Settings.EXCEPTION, "already in intakeMap {}", eventInfo);
 					//}
-					return;
+					return false;
 				}
 				log.debug(INTAKE_EVENT.getMarker(),
 						"Adding event ({},{}) to intake, other parent ({},{})",
@@ -840,7 +882,7 @@ class Hashgraph extends AbstractHashgraph {
 								validateEventTask.getSelfParentGen(), minGeneration,
 								validateEventTask.getSelfParentHashInstance(),
 								validateEventTask.getOtherParentHashInstance());
-						return;
+						return false;
 					}
 				}
 				// if the event has an other parent, try to find it
@@ -863,10 +905,18 @@ class Hashgraph extends AbstractHashgraph {
 								validateEventTask.getOtherParentHashInstance());
 
 						validateEventTask.clearParents();
-						return;
+						return false;
 					}
 				}
 
+				// start hashing and checking the signature while the rest of the sync is still being read. The intake
+				// thread will wait for this to finish when it gets to this event, so the order is unchanged.
+				if (Settings.preprocessIntakeEvents && intakeThreadPool != null) {
+					validateEventTask.startPreprocessing(intakeThreadPool, Settings.verifyEventSigs
+							? getAddressBook().getAddress(validateEventTask.getCreatorId()).getSigPublicKey()
+							: null, platform.getStats().sigVerifyTimeHistogram);
+				}
+
 				//log.error(Settings.EXCEPTION, "intakeQueue put {}", eventInfo);
 				intakeMap.putIfAbsent(csPair, validateEventTask);
 				intakeQueue.put(validateEventTask);
@@ -880,8 +930,7 @@ class Hashgraph extends AbstractHashgraph {
 				// to be
 				// created should have its other parent in the queue before it.
 				lastInfoByMember.set((int) validateEventTask.getCreatorId(), validateEventTask);
-				// the last step is to submit these potential events to the thread pool to be processed in parallel
-				//intakeThreadPool.submit(() -> this.processIntakeEvent(validateEventTask));
+				return true;
 			} finally {
 				addRecEventLock.unlock();
 			}
@@ -890,6 +939,7 @@ class Hashgraph extends AbstractHashgraph {
 			// should never happen, and we don't have a simple way of recovering from it
 			log.error(EXCEPTION.getMarker(), "CRITICAL ERROR, adding to the event intake queue failed", e);
 		}
+		return false;
 	}
 
 	/**
@@ -950,7 +1000,9 @@ class Hashgraph extends AbstractHashgraph {
 	 */
 	private void processIntakeEvent(ValidateEventTask validateEventTask) {
 		try {
-			CryptoFactory.getInstance().digestSync(validateEventTask.getHashedData());
+			// the hash is needed to check the parents of the events that follow. Wait for preprocessing to compute
+			// it, or compute it here if preprocessing was not started or failed
+			final Boolean preverifiedSignature = validateEventTask.waitForPreprocessing();
 
 			EventImpl selfParent = null;
 			if (validateEventTask.getSelfParent() != null) {
@@ -1107,10 +1159,18 @@ class Hashgraph extends AbstractHashgraph {
 				// if we aren't verifying signatures, then say they're all valid
 				validateEventTask.setEventValidity(true);
 			} else {
-				// we are verifying signatures, but this event hasn't been verified yet
-				PublicKey publicKey = getAddressBook()
-						.getAddress(event.getCreatorId()).getSigPublicKey();
-				boolean valid = Crypto.verifySignature(event.getBaseHash().getValue(), event.getSignature(), publicKey);
+				final boolean valid;
+				if (preverifiedSignature != null) {
+					// the signature was already checked by the intake thread pool
+					valid = preverifiedSignature;
+				} else {
+					// we are verifying signatures, but this event hasn't been verified yet
+					PublicKey publicKey = getAddressBook()
+							.getAddress(event.getCreatorId()).getSigPublicKey();
+					final long startTime = System.nanoTime();
+					valid = Crypto.verifySignature(event.getBaseHash().getValue(), event.getSignature(), publicKey);
+					platform.getStats().sigVerifyTimeHistogram.recordNanos(System.nanoTime() - startTime);
+				}
 				validateEventTask.setEventValidity(valid);
 
 				// the signature failed verification, so discard the event and don't record it
@@ -1133,8 +1193,12 @@ class Hashgraph extends AbstractHashgraph {
 			// Signature expansion should be the last thing that is done. It can be fairly time consuming, so we don't
 			// want to delay the verification of an event for it because other events depend on this one being valid.
 			// Furthermore, we don't want to validate signatures contained in an event that is invalid.
-			handleSignatureExpansion(validateEventTask.getTransactions());
+			prehandle(event, validateEventTask.getTransactions());
 
+		} catch (InterruptedException e) {
+			// the intake thread is being stopped, so let it see the interrupt
+			Thread.currentThread().interrupt();
+			validateEventTask.setEventNull();
 		} catch (Exception e) {
 			log.error(EXCEPTION.getMarker(), "Error while processing intake event", e);
 		}
@@ -1231,6 +1295,7 @@ class Hashgraph extends AbstractHashgraph {
 			// and remove from transLists in EventFlow
 			Transaction[] transactions = platform.getEventFlow()
 					.pollTransListsForEvent();
+			platform.getStats().getTransactionTracer().stamp(transactions, TransactionTracer.EVENT_CREATED);
 
 			Instant timeCreated = Instant.now();
 			// null means the constructor will make a sig, not check it
@@ -1331,7 +1396,7 @@ class Hashgraph extends AbstractHashgraph {
 
 			// Signature expansion should be the last thing that is done. It can be fairly time consuming, so we don't
 			// want to delay the creation of an event or its adding to the hashgraph.
-			handleSignatureExpansion(transactions);
+			prehandle(event, transactions);
 
 		} catch (Exception e) {
 			log.error(EXCEPTION.getMarker(), "Error while creating new event", e);
@@ -1595,6 +1660,51 @@ class Hashgraph extends AbstractHashgraph {
 		validateEventTask.clearParents();
 	}
 
+	/**
+	 * Expand the signatures of the transactions in a new event, start verifying them, and let the app prehandle
+	 * the transactions. If {@link Settings#prehandleThreads} is positive this is done on prehandlePool, and
+	 * EventFlow waits for it before handling the event's transactions. Otherwise it is done before returning.
+	 *
+	 * @param event
+	 * 		the event holding the transactions
+	 * @param transactions
+	 * 		the transactions of the event
+	 */
+	private void prehandle(EventImpl event, Transaction[] transactions) {
+		if (transactions == null || transactions.length == 0) {
+			return;
+		}
+		if (prehandlePool == null) {
+			handleSignatureExpansion(transactions);
+			prehandleTransactions(transactions);
+			return;
+		}
+		event.setPrehandled(prehandlePool.submit(() -> {
+			handleSignatureExpansion(transactions);
+			prehandleTransactions(transactions);
+		}));
+	}
+
+	/**
+	 * Pass each non-system transaction to the app's {@link SwirldState#prehandleTransaction(Transaction)}
+	 */
+	private void prehandleTransactions(Transaction[] transactions) {
+		final SwirldState state = platform.getEventFlow().getConsensusState();
+		if (state == null) {
+			return;
+		}
+		for (Transaction t : transactions) {
+			try {
+				if (!t.isSystem()) {
+					state.prehandleTransaction(t);
+				}
+			} catch (Exception ex) {
+				log.error(EXCEPTION.getMarker(),
+						"prehandleTransaction threw an unhandled exception", ex);
+			}
+		}
+	}
+
 	/** Expand signatures for the given array of transactions */
 	private void handleSignatureExpansion(Transaction[] transactions) {
 		// Expand signatures for the given transactions
@@ -0,0 +1,88 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform;
+
+import com.swirlds.common.SwirldState.ParallelSwirldState;
+import com.swirlds.common.Transaction;
+import com.swirlds.common.crypto.CryptoFactory;
+import com.swirlds.common.crypto.Hash;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import static com.swirlds.logging.LogMarker.EXCEPTION;
+
+/**
+ * Checks that a {@link ParallelSwirldState} gives the same result when a batch of consensus transactions is handled
+ * in parallel, the way the Platform does it when parallelTransactionThreads is more than 1, as when the same batch is
+ * handled one transaction at a time in consensus order. A difference means that the app declared an incomplete
+ * footprint, or that the state modifies a structure that does not allow concurrent writes.
+ * <p>
+ * This is meant to be called from an app's tests, with batches that resemble its real transactions. Since the
+ * threads can interleave differently on every run, a check that passes does not prove that the state is safe, so
+ * it should be repeated many times.
+ */
+public final class ParallelTransactionChecker {
+	/** use this for all logging, as controlled by the optional data/log4j2.xml file */
+	private static final Logger log = LogManager.getLogger();
+
+	private ParallelTransactionChecker() {
+	}
+
+	/**
+	 * Handle a batch of consensus transactions serially on one new state and in parallel on another, and compare
+	 * the hashes of the two states.
+	 *
+	 * @param stateFactory
+	 * 		creates a new state. It is called twice, and both states must be identical.
+	 * @param numThreads
+	 * 		the number of threads to handle the transactions on in parallel
+	 * @param creator
+	 * 		the creator of the event holding the transactions
+	 * @param timeCreated
+	 * 		the claimed creation time of that event
+	 * @param timestamp
+	 * 		the consensus timestamp of the first transaction. Each later one is one nanosecond later.
+	 * @param transactions
+	 * 		the transactions to handle
+	 * @return true if both states have the same hash
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting for the transactions to be handled in parallel
+	 */
+	public static boolean check(final Supplier<? extends ParallelSwirldState> stateFactory, final int numThreads,
+			final long creator, final Instant timeCreated, final Instant timestamp, final Transaction[] transactions)
+			throws InterruptedException {
+		final ParallelSwirldState serialState = stateFactory.get();
+		for (int i = 0; i < transactions.length; i++) {
+			serialState.handleTransaction(creator, true, timeCreated, timestamp.plusNanos(i), transactions[i], null);
+		}
+
+		final ParallelSwirldState parallelState = stateFactory.get();
+		new ParallelTransactionExecutor(numThreads).execute(parallelState, creator, timeCreated, timestamp,
+				transactions, 0, transactions.length);
+
+		final Hash serialHash = CryptoFactory.getInstance().digestTreeSync(serialState);
+		final Hash parallelHash = CryptoFactory.getInstance().digestTreeSync(parallelState);
+		if (!serialHash.equals(parallelHash)) {
+			log.error(EXCEPTION.getMarker(),
+					"handling {} transactions in parallel gave state hash {}, but handling them serially gave {}",
+					transactions.length, parallelHash, serialHash);
+			return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform;
+
+import com.swirlds.common.SwirldState.ParallelSwirldState;
+import com.swirlds.common.Transaction;
+import com.swirlds.platform.internal.PlatformThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.swirlds.logging.LogMarker.EXCEPTION;
+
+/**
+ * Handles a batch of consensus transactions for a {@link ParallelSwirldState}, running transactions whose
+ * declared keys do not conflict on several threads at once.
+ * <p>
+ * The batch is split into waves. Each transaction is put in the earliest wave that comes after every wave
+ * holding an earlier transaction it conflicts with. The waves are run one after the other, and the
+ * transactions within a wave are run concurrently. Since conflicting transactions always run in consensus
+ * order, and non-conflicting ones cannot observe each other, the result is the same as handling the batch
+ * serially, as long as the state allows concurrent writes to different keys. The schedule only depends on the
+ * batch, so it is the same on every member. {@link ParallelTransactionChecker} compares the two results.
+ */
+class ParallelTransactionExecutor {
+	/** use this for all logging, as controlled by the optional data/log4j2.xml file */
+	private static final Logger log = LogManager.getLogger();
+
+	/** how long an idle thread is kept before it exits, in seconds */
+	private static final long IDLE_THREAD_SECONDS = 60;
+
+	/**
+	 * the threads that handle transactions. They are daemon threads that exit when idle, so an executor that is
+	 * no longer used, such as one belonging to a platform that was shut down, does not keep its threads.
+	 */
+	private final ThreadPoolExecutor pool;
+
+	/**
+	 * @param numThreads
+	 * 		the number of threads used to handle transactions
+	 */
+	ParallelTransactionExecutor(int numThreads) {
+		final ThreadFactory factory = new PlatformThreadFactory("parallel_trans_");
+		this.pool = new ThreadPoolExecutor(numThreads, numThreads, IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), (Runnable r) -> {
+			final Thread thread = factory.newThread(r);
+			thread.setDaemon(true);
+			return thread;
+		});
+		pool.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Handle a batch of consensus transactions from one event, returning once all of them have been handled.
+	 *
+	 * @param state
+	 * 		the state to send the transactions to
+	 * @param creator
+	 * 		the creator of the event holding the transactions
+	 * @param timeCreated
+	 * 		the claimed creation time of that event
+	 * @param timestamp
+	 * 		the consensus timestamp of the first transaction. Each later one is one nanosecond later.
+	 * @param transactions
+	 * 		the transactions of the event
+	 * @param offset
+	 * 		the index of the first transaction to handle
+	 * @param length
+	 * 		the number of transactions to handle
+	 * @return the number of transactions that could not run in the first wave because of a conflict
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting for the transactions to be handled
+	 */
+	int execute(ParallelSwirldState state, long creator, Instant timeCreated, Instant timestamp,
+			Transaction[] transactions, int offset, int length) throws InterruptedException {
+		// the indexes of the transactions in each wave, in consensus order
+		List<List<Integer>> waves = new ArrayList<>();
+		// the last wave that wrote each key, and the last wave that read it
+		Map<Object, Integer> lastWrite = new HashMap<>();
+		Map<Object, Integer> lastRead = new HashMap<>();
+		// no transaction may go in a wave before this one, because of an earlier undeclared transaction
+		int floor = 0;
+		int conflicts = 0;
+		List<Object> reads = new ArrayList<>();
+		List<Object> writes = new ArrayList<>();
+
+		for (int i = offset; i < offset + length; i++) {
+			reads.clear();
+			writes.clear();
+			int wave;
+			if (!state.getFootprint(creator, transactions[i], reads, writes)) {
+				// unknown keys, so it must run alone, after everything before it and before everything after it
+				wave = waves.size();
+				floor = wave + 1;
+				conflicts++;
+			} else {
+				wave = floor;
+				for (Object key : reads) {
+					wave = Math.max(wave, lastWrite.getOrDefault(key, -1) + 1);
+				}
+				for (Object key : writes) {
+					wave = Math.max(wave, lastWrite.getOrDefault(key, -1) + 1);
+					wave = Math.max(wave, lastRead.getOrDefault(key, -1) + 1);
+				}
+				if (wave > floor) {
+					conflicts++;
+				}
+				for (Object key : reads) {
+					lastRead.merge(key, wave, Math::max);
+				}
+				for (Object key : writes) {
+					lastWrite.put(key, wave);
+				}
+			}
+			while (waves.size() <= wave) {
+				waves.add(new ArrayList<>());
+			}
+			waves.get(wave).add(i);
+		}
+
+		for (List<Integer> wave : waves) {
+			if (wave.size() == 1) {
+				// not worth handing to another thread
+				handle(state, creator, timeCreated, timestamp, transactions, offset, wave.get(0));
+				continue;
+			}
+			List<Callable<Void>> tasks = new ArrayList<>(wave.size());
+			for (int i : wave) {
+				tasks.add(() -> {
+					handle(state, creator, timeCreated, timestamp, transactions, offset, i);
+					return null;
+				});
+			}
+			for (Future<Void> future : pool.invokeAll(tasks)) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					// handle() catches everything the app throws, so this should never happen
+					log.error(EXCEPTION.getMarker(), "parallel transaction handling failed", e);
+				}
+			}
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Handle one transaction, in the same way as if it were handled serially
+	 */
+	private static void handle(ParallelSwirldState state, long creator, Instant timeCreated, Instant timestamp,
+			Transaction[] transactions, int offset, int index) {
+		try {// guard against bad apps crashing the browser
+			state.handleTransaction(creator, true, timeCreated, timestamp.plusNanos(index - offset),
+					transactions[index], null);
+		} catch (Exception e) {
+			log.error(EXCEPTION.getMarker(),
+					"error while calling the app's SwirldState.handleTransaction in parallel", e);
+		}
+	}
+
+}
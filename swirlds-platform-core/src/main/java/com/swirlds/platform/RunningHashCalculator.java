@@ -14,9 +14,13 @@
 
 package com.swirlds.platform;
 
+import com.swirlds.common.crypto.CryptoFactory;
+import com.swirlds.common.crypto.Cryptography;
 import com.swirlds.common.crypto.DigestType;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.crypto.ImmutableHash;
+import com.swirlds.common.stream.ChannelStreamFileWriter;
+import com.swirlds.common.stream.ObjectStreamConsumer;
 import com.swirlds.common.stream.ObjectStreamCreator;
 import com.swirlds.common.stream.TimestampStreamFileWriter;
 import com.swirlds.platform.event.EventUtils;
@@ -26,9 +30,12 @@ import org.apache.logging.log4j.Logger;
 import java.io.File;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static com.swirlds.common.Constants.SEC_TO_MS;
 import static com.swirlds.logging.LogMarker.EVENT_STREAM;
+import static com.swirlds.logging.LogMarker.EXCEPTION;
 import static com.swirlds.logging.LogMarker.OBJECT_STREAM_DETAIL;
 import static com.swirlds.logging.LogMarker.RECONNECT;
 
@@ -42,14 +49,21 @@ public class RunningHashCalculator {
 	 * through the round received that the SignedState represents, is stored in the SignedState;
 	 * when eventStreaming is enabled, a running hash of hashes of all consensus events have been written
 	 * is saved in the beginning of each new event stream file.
+	 *
+	 * The hash of each event is started on the {@link Cryptography} engine as the event is put in this queue, so the
+	 * hashes of the events in the queue are computed in parallel, while the running hash is chained in order by
+	 * threadCalcRunningHash. The capacity of this queue bounds how far hashing can run ahead of chaining, and the
+	 * capacity of forCons bounds how far chaining can run ahead of doCons.
 	 */
-	private BlockingQueue<EventImpl> forRunningHash;
+	private BlockingQueue<EventToChain> forRunningHash;
 	/** A thread that calculates RunningHash for consensus events */
 	private StoppableThread threadCalcRunningHash;
 	/** calculates RunningHash for consensus events */
 	private ObjectStreamCreator<EventImpl> objectStreamCreator;
 	/** serializes consensus events to event stream files */
-	private TimestampStreamFileWriter<EventImpl> consumer;
+	private ObjectStreamConsumer<EventImpl> consumer;
+	/** the same as consumer if it writes through a FileChannel, else null */
+	private volatile ChannelStreamFileWriter<EventImpl> channelWriter;
 	/** initialHash loaded from signed state */
 	private Hash initialHash = new ImmutableHash(new byte[DigestType.SHA_384.digestLength()]);
 	/**
@@ -70,9 +84,28 @@ public class RunningHashCalculator {
 
 	private AbstractPlatform platform;
 
+	/** computes the hashes of consensus events */
+	private final Cryptography cryptography;
+
+	/**
+	 * A consensus event waiting to be added to the running hash, along with the hash of the event, which is being
+	 * computed in the background
+	 */
+	private static class EventToChain {
+		/** the consensus event */
+		private final EventImpl event;
+		/** completes once the hash of the event has been computed and set */
+		private final Future<Hash> hash;
+
+		EventToChain(final EventImpl event, final Future<Hash> hash) {
+			this.event = event;
+			this.hash = hash;
+		}
+	}
 
 	public RunningHashCalculator(final AbstractPlatform platform) {
 		this.platform = platform;
+		this.cryptography = CryptoFactory.getInstance();
 		forRunningHash = new ArrayBlockingQueue<>(Settings.eventStreamQueueCapacity);
 	}
 
@@ -90,12 +123,28 @@ public class RunningHashCalculator {
 	 */
 	void startCalcRunningHashThread() {
 		if (Settings.enableEventStreaming) {
-			//initialize and start TimestampStreamFileWriter, set directory and set startWriteAtCompleteWindow;
-			consumer = new TimestampStreamFileWriter<>(initialHash, eventStreamDir,
-					Settings.eventsLogPeriod * SEC_TO_MS,
-					this.platform,
-					startWriteAtCompleteWindow,
-					Settings.eventStreamQueueCapacity);
+			final int compressionBlockSize =
+					Settings.eventStreamCompression ? Settings.eventStreamCompressionBlockSize : 0;
+			//initialize and start the stream file writer, set directory and set startWriteAtCompleteWindow;
+			if (Settings.eventStreamChannelWriter) {
+				channelWriter = new ChannelStreamFileWriter<>(initialHash, eventStreamDir,
+						Settings.eventsLogPeriod * SEC_TO_MS,
+						this.platform,
+						startWriteAtCompleteWindow,
+						Settings.eventStreamQueueCapacity,
+						Settings.eventStreamWriteBufferSize,
+						compressionBlockSize,
+						Settings.eventStreamFsyncPeriodMs,
+						(nanos) -> platform.getStats().avgSecEventStreamFsync.recordValue(nanos / 1_000_000_000.0));
+				consumer = channelWriter;
+			} else {
+				consumer = new TimestampStreamFileWriter<>(initialHash, eventStreamDir,
+						Settings.eventsLogPeriod * SEC_TO_MS,
+						this.platform,
+						startWriteAtCompleteWindow,
+						Settings.eventStreamQueueCapacity,
+						compressionBlockSize);
+			}
 		}
 		objectStreamCreator = new ObjectStreamCreator<>(initialHash, consumer);
 		threadCalcRunningHash = new StoppableThread("threadCalcRunningHash",
@@ -107,14 +156,16 @@ public class RunningHashCalculator {
 
 	/**
 	 * calcRunningHash is repeatedly called by the threadCalRunningHash thread.
-	 * Each time, it takes one event from forRunningHash queue
+	 * Each time, it takes one event from forRunningHash queue,
+	 * waits for the hash of that event (which has been computed in the background since the event was queued),
 	 * streamCreator updates RunningHash,
 	 * and sends this event to consumer which serializes this event to file if eventStreaming is enabled
 	 *
 	 * @throws InterruptedException
 	 */
 	private void calcRunningHash() throws InterruptedException {
-		EventImpl event = forRunningHash.take();
+		final EventToChain toChain = forRunningHash.take();
+		final EventImpl event = toChain.event;
 
 		// if freeze period is started, we don't update runningHash,
 		// don't put events to forCons queue, don't write events to stream file
@@ -122,6 +173,14 @@ public class RunningHashCalculator {
 			return;
 		}
 
+		try {
+			toChain.hash.get();
+		} catch (ExecutionException e) {
+			// the hash was not set, so objectStreamCreator will compute it on this thread instead
+			log.error(EXCEPTION.getMarker(), "failed to hash consensus event {}",
+					EventUtils.toShortString(event), e.getCause());
+		}
+
 		if (Settings.enableEventStreaming) {
 			// When we freeze the platform, the last event to be written to EventStream file is the last event in the
 			// freeze round.
@@ -205,7 +264,25 @@ public class RunningHashCalculator {
 	}
 
 	/**
-	 * put consensus events into forRunningHash queue
+	 * @return the number of events waiting to be written to event stream files by the FileChannel writer, or 0 if
+	 * 		it is not being used
+	 */
+	int getStreamWriteQueueSize() {
+		final ChannelStreamFileWriter<EventImpl> writer = channelWriter;
+		return writer == null ? 0 : writer.getQueueSize();
+	}
+
+	/**
+	 * @return the number of bytes written to event stream files by the FileChannel writer since the last call, or 0
+	 * 		if it is not being used
+	 */
+	long getStreamBytesWrittenSinceLast() {
+		final ChannelStreamFileWriter<EventImpl> writer = channelWriter;
+		return writer == null ? 0 : writer.getBytesWrittenSinceLast();
+	}
+
+	/**
+	 * put consensus events into forRunningHash queue, and start computing the hash of the event in the background
 	 *
 	 * This method is called by Hashgraph when it first finds consensus for an event. If the queue is full,
 	 * then this will block until it isn't full, which will block whatever thread called Hashgraph.addEvent.
@@ -216,7 +293,7 @@ public class RunningHashCalculator {
 		try {
 			// put this consensus event into the queue for calculating running Hash
 			// later this event will be put into forCons queue
-			forRunningHash.put(event);
+			forRunningHash.put(new EventToChain(event, cryptography.digestAsync(event)));
 		} catch (InterruptedException e) {
 			log.info(RECONNECT.getMarker(), "forRunningHashPut interrupted");
 		}
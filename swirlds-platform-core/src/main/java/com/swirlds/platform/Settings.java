@@ -144,6 +144,12 @@ class Settings {
 	static int signedStateFreq = 1;
 	/** max events that can be put in the forCons queue in EventFlow (0 for infinity) */
 	static int maxEventQueueForCons = 500;
+	/**
+	 * number of threads used to handle non-conflicting consensus transactions at the same time, if the app's
+	 * state implements ParallelSwirldState (0 or 1 to handle them one at a time). This is off by default, because
+	 * the state must allow concurrent writes, as described in ParallelSwirldState.
+	 */
+	static int parallelTransactionThreads = 0;
 	/**
 	 * Stop accepting new non-system transactions into the 4 transaction queues if any of them have more
 	 * than this many.
@@ -197,6 +203,14 @@ class Settings {
 
 	/** for BufferedInputStream and BufferedOutputStream for syncing */
 	static int bufferSize = 8 * 1024;
+	/**
+	 * if true, each pair of members shares a single socket, opened by the member with the lower ID. The syncs
+	 * initiated by each side (with their heartbeats and reconnects) are carried over it as two separate channels,
+	 * each with its own flow control. This must be the same for all members.
+	 */
+	static boolean multiplexSyncConnections = false;
+	/** the number of bytes a multiplexed channel may send before the receiver grants it more credit */
+	static int multiplexChannelWindow = 256 * 1024;
 
 	/**
 	 * The IP_TOS to set for a socket, from 0 to 255, or -1 to not set one. This number (if not -1) will be
@@ -335,6 +349,19 @@ class Settings {
 	 */
 	static int eventIntakeThreadMultiplier = 1;
 
+	/**
+	 * If true, events received in a sync are hashed and have their signatures checked by the event intake thread
+	 * pool as soon as they are read, instead of by the single intake thread when it reaches them. They are still
+	 * added to the hashgraph in the order they were received.
+	 */
+	static boolean preprocessIntakeEvents = true;
+	/**
+	 * number of threads that expand signatures and call the app's SwirldState.prehandleTransaction for new events.
+	 * If 0, this is done by the intake thread before the event is added to the hashgraph. If positive, it is done
+	 * in parallel, and the app's expandSignatures and prehandleTransaction may be called on several threads at once.
+	 */
+	static int prehandleThreads = 0;
+
 	/**
 	 * If true, the platform will recalculate the hash of the signed state and check it against the written hash. It
 	 * will also verify that the signatures are valid.
@@ -384,6 +411,59 @@ class Settings {
 	 */
 	static boolean checkSignedStateHashes = false;
 
+	/**
+	 * the maximum number of signed states that may be waiting to be hashed and signed. The hashes of these states are
+	 * computed concurrently, and threadCons only waits when this many are still pending.
+	 */
+	static int signedStateHashPipelineDepth = 4;
+
+	/**
+	 * trace the latency of one in every this many transactions created by self, through each stage from
+	 * createTransaction to being handled by stateCons, and report percentiles of each stage as statistics. If 0,
+	 * no transactions are traced.
+	 */
+	static int transactionTraceSampleRate = 0;
+
+	/** the longest retry delay suggested to a caller whose transaction was rejected because the queues are full */
+	static long transactionRetryAfterMaxMillis = 1000;
+
+	/**
+	 * the number of transactions a subscriber created by Platform.newTransactionSubscriber requests from its
+	 * publisher at a time. It only requests the next batch once the previous one has been accepted.
+	 */
+	static int transactionSubscriberBatch = 1024;
+
+	///////////////////////////////////////////
+	// Peer selection
+
+	/**
+	 * if true, sync callers choose which neighbor to call based on how many new events each neighbor recently
+	 * delivered per second of syncing, instead of choosing mostly at random
+	 */
+	static boolean adaptivePeerSelection = false;
+	/** the number of syncs with a peer after which its contribution to the peer's statistics has halved */
+	static double peerSelectionHalfLife = 20;
+	/**
+	 * the fraction of peer choices made uniformly at random when adaptivePeerSelection is on, so that every
+	 * neighbor keeps being called. Between 0 and 1.
+	 */
+	static double peerSelectionFairness = 0.3;
+
+	///////////////////////////////////////////
+	// Bloom filter sync
+
+	/**
+	 * if true, during a sync both nodes send a Bloom filter of the hashes of the events they know, and each node
+	 * skips sending events that the other node's filter reports as known. This must be the same for all nodes.
+	 */
+	static boolean syncBloomFilter = false;
+	/** the number of bits per event in a sync Bloom filter. 10 bits gives a false positive rate of about 1% */
+	static int syncBloomFilterBitsPerEvent = 10;
+	/** only events within this many generations of the newest known event are added to a sync Bloom filter */
+	static int syncBloomFilterGenerations = 100;
+	/** the maximum size, in bytes, of a sync Bloom filter that will be accepted from another node */
+	static int syncBloomFilterMaxBytes = 1024 * 1024;
+
 	///////////////////////////////////////////
 	// Stale Event During Gossip Threshold
 
@@ -414,6 +494,50 @@ class Settings {
 	/** eventStream files will be generated in this directory */
 	static String eventsLogDir = "./eventstreams";
 
+	/**
+	 * if true, eventStream files are written in batches from pooled direct buffers through a FileChannel, and are
+	 * signed on a separate thread. If false, each event is written through a stream as it arrives.
+	 */
+	static boolean eventStreamChannelWriter = false;
+
+	/** the size in bytes of each direct buffer used when eventStreamChannelWriter is true */
+	static int eventStreamWriteBufferSize = 64 * 1024;
+
+	/**
+	 * when eventStreamChannelWriter is true, the eventStream file is synced to disk after every batch if this is 0,
+	 * or else at most once per this many milliseconds. A file is always synced when it is closed.
+	 */
+	static long eventStreamFsyncPeriodMs = 0;
+
+	/**
+	 * if true, eventStream files are written in the compressed format, in which fixed-size blocks of the file content
+	 * are compressed separately, with a checksum for each block and an index of the blocks. Readers accept both
+	 * formats.
+	 */
+	static boolean eventStreamCompression = false;
+
+	/** the number of uncompressed bytes in each block of a compressed eventStream file */
+	static int eventStreamCompressionBlockSize = 256 * 1024;
+
+	/**
+	 * number of threads that read and deserialize event stream files ahead of the one being played back during
+	 * state recovery. If 0, the number of available processors is used.
+	 */
+	static int eventStreamParseThreads = 0;
+
+	/**
+	 * number of threads that deliver asynchronous notifications to listeners. If 0, each listener class gets its own
+	 * thread. If positive, the listener classes share this many threads, and notifications that are ORDERED are kept in
+	 * order per listener class and partition key.
+	 */
+	static int notificationDispatchThreads = 0;
+
+	/**
+	 * when notificationDispatchThreads is positive, the most notifications that each thread delivers at a time.
+	 * Listeners that accept batches are given them in a single call.
+	 */
+	static int notificationMaxBatchSize = 64;
+
 	/** new marker for stream event start after which a version number is expected */
 	final static byte STREAM_EVENT_START_WITH_VERSION = 0x5a;
 
@@ -52,12 +52,25 @@ import static com.swirlds.common.PlatformStatNames.SIGNED_STATE_HASHING_TIME;
  * <li><b>dupEv%</b> - percentage of events received that are already known *
  * <li><b>ev/syncS</b> - number of events sent per successful sync *
  * <li><b>ev/syncR</b> - number of events received per successful sync *
+ * <li><b>ev/syncSkip</b> - number of events not sent per successful sync because the other node's Bloom filter
+ * reported them as known (compare with dupEv% to see the saving) *
  * <li><b>events/sec</b> - number of unique events received per second (created by self and others) *
+ * <li><b>eventStreamBytes/sec</b> - bytes written to EventStream files per second by the FileChannel writer *
  * <li><b>eventStreamQueueSize</b> - size of the queue from which we take events and write to EventStream file *
+ * <li><b>eventStreamWriteQueueSize</b> - number of events waiting to be written to EventStream files by the
+ * FileChannel writer *
  * <li><b>icSync/sec</b> - (interrupted call syncs) syncs interrupted per second initiated by this member *
  * <li><b>irSync/sec</b> - (interrupted receive syncs) syncs interrupted per second initiated by other
  * member *
  * <li><b>lastSeq</b> - last event number generated by me *
+ * <li><b>latC2H_p50, latC2H_p90, latC2H_p99, latC2H_p999, latC2H_max</b> - percentiles and max of the time from
+ * knowing consensus for a transaction to handling it (in seconds) *
+ * <li><b>latSigVerify_p50, latSigVerify_p90, latSigVerify_p99, latSigVerify_p999, latSigVerify_max</b> -
+ * percentiles and max of the time to verify the signature of an event received from another member (in seconds) *
+ * <li><b>latStateHash_p50, latStateHash_p90, latStateHash_p99, latStateHash_p999, latStateHash_max</b> -
+ * percentiles and max of the time from starting to hash a signed state to its hash being known (in seconds) *
+ * <li><b>latSync_p50, latSync_p90, latSync_p99, latSync_p999, latSync_max</b> - percentiles and max of the
+ * duration of a successful sync (in seconds) *
  * <li><b>local</b> - number of members running on this local machine *
  * <li><b>memberID</b> - ID number of this member *
  * <li><b>members</b> - total number of members participating *
@@ -76,19 +89,27 @@ import static com.swirlds.common.PlatformStatNames.SIGNED_STATE_HASHING_TIME;
  * (in seconds) *
  * <li><b>secC2RC</b> - time from another member creating an event to it being received and and knowing
  * consensus for it (in seconds) *
+ * <li><b>secEventStreamFsync</b> - time taken to sync an EventStream file to disk (in seconds) *
  * <li><b>secR2C</b> - time from receiving an event to knowing its consensus (in seconds) *
  * <li><b>secR2F</b> - time from a round's first received event to all the famous witnesses being known (in
  * seconds) *
  * <li><b>secR2nR</b> - time from fist event received in one round, to first event received in the next
  * round (in seconds) *
+ * <li><b>secStateHash</b> - time from starting to hash a signed state to its hash being known (in seconds) *
  * <li><b>simListenSyncs</b> - avg number of simultaneous listening syncs happening at any given time *
  * <li><b>simSyncs</b> - avg number of simultaneous syncs happening at any given time *
  * <li><b>sync/secC</b> - (call syncs) syncs completed per second initiated by this member *
  * <li><b>sync/secR</b> - (receive syncs) syncs completed per second initiated by other member *
+ * <li><b>stateHashQ</b> - number of signed states being hashed and waiting to be signed *
  * <li><b>threads</b> - the current number of live threads *
  * <li><b>time</b> - the current time *
  * <li><b>TLS</b> - 1 if using TLS, 0 if not *
+ * <li><b>trace_*_p50, trace_*_p90, trace_*_p99, trace_*_p999, trace_*_max</b> - percentiles and max of the time a
+ * sampled transaction by self spends in each stage, from createTransaction to being handled by stateCons (in
+ * seconds). These only exist if Settings.transactionTraceSampleRate is positive. *
  * <li><b>transCons</b> - transCons queue size *
+ * <li><b>transConflict%</b> - percentage of consensus transactions that could not be handled in parallel
+ * because of a conflict with an earlier one (only for a ParallelSwirldState) *
  * <li><b>transEvent</b> - transEvent queue size *
  * <li><b>trans/event</b> - number of app transactions in each event *
  * <li><b>trans/sec</b> - number of app transactions received per second (from unique events created by self
@@ -143,8 +164,14 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 	StatsRunningAverage avgReceivedConsensusTime;
 	/** time for a member, from knowing consensus to handling that consensus transaction */
 	StatsRunningAverage avgConsHandleTime;
+	/** histogram of the time for a member, from knowing consensus to handling that consensus transaction */
+	StatsHistogram consHandleTimeHistogram;
+	/** percentage of consensus transactions handled in parallel that had to wait for a conflicting one */
+	StatsRunningAverage avgTransConflictPercent;
 	/** average wall clock time from start of a successful sync until it's done */
 	StatsRunningAverage avgSyncDuration;
+	/** histogram of the wall clock time from start of a successful sync until it's done */
+	StatsHistogram syncDurationHistogram;
 	/** average wall clock time for step 1 of a successful sync */
 	StatsRunningAverage avgSyncDuration1;
 	/** average wall clock time for step 2 of a successful sync */
@@ -213,6 +240,18 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 	StatsRunningAverage avgSecStateCopy;
 	/** average time it takes to create a new SignedState (in seconds) */
 	StatsRunningAverage avgSecNewSignedState;
+	/** traces the latency of sampled transactions by self through each stage */
+	private final TransactionTracer transactionTracer;
+	/** average time from starting to hash a signed state to its hash being known (in seconds) */
+	StatsRunningAverage avgSecStateHash;
+	/** histogram of the time from starting to hash a signed state to its hash being known */
+	StatsHistogram stateHashTimeHistogram;
+	/** histogram of the time to verify the signature of an event received from another member */
+	StatsHistogram sigVerifyTimeHistogram;
+	/** average time taken to sync an EventStream file to disk (in seconds) */
+	StatsRunningAverage avgSecEventStreamFsync;
+	/** number of signed states being hashed and waiting to be signed [stateToHashSign.size()] */
+	StatsRunningAverage avgStateHashQueueSize;
 
 	/** boolean result of function {@link SyncManager#shouldCreateEvent(NodeId, boolean, int, int)} */
 	StatsRunningAverage shouldCreateEvent;
@@ -267,12 +306,18 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 	StatsRunningAverage avgQ4forHash;
 	/** size of the queue from which we take events and write to EventStream file */
 	StatsRunningAverage eventStreamQueueSize;
+	/** number of events waiting to be written to EventStream files by the FileChannel writer */
+	StatsRunningAverage eventStreamWriteQueueSize;
+	/** number of bytes written to EventStream files per second by the FileChannel writer */
+	StatsSpeedometer eventStreamBytesPerSecond;
 	/** latest round with signed state by a supermajority */
 	StatsRunningAverage avgRoundSupermajority;
 	/** number of events sent per successful sync */
 	StatsRunningAverage avgEventsPerSyncSent;
 	/** number of events received per successful sync */
 	StatsRunningAverage avgEventsPerSyncRec;
+	/** number of events not sent per successful sync because the other node's Bloom filter reported them as known */
+	StatsRunningAverage avgEventsSkippedPerSync;
 	/** INTERNAL: total number of events in memory, for all members on the local machine together */
 	StatsRunningAverage avgEventsInMem;
 	/** running average of the number of signatures collected on each signed state */
@@ -291,6 +336,13 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 	@Override
 	public void updateOthers() {
 		try {
+			// incorporate the values accumulated on hot paths since the last update
+			for (StatEntry stat : statEntries) {
+				if (stat.buffered instanceof StatsFoldable) {
+					((StatsFoldable) stat.buffered).fold();
+				}
+			}
+
 			// don't update anything until the platform creates the hashgraph
 			if (platform.getHashgraph() != null) {
 
@@ -330,7 +382,10 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 				avgQ1forCurr.recordValue(platform.getEventFlow().getForCurrSize());
 				avgQ2forCons.recordValue(platform.getEventFlow().getForConsSize());
 				avgQ3forSigs.recordValue(platform.getEventFlow().getForSigsSize());
+				avgStateHashQueueSize.recordValue(platform.getEventFlow().getStateToHashSignSize());
 				eventStreamQueueSize.recordValue(platform.getRunningHashCalculator().getForStreamSize());
+				eventStreamWriteQueueSize.recordValue(platform.getRunningHashCalculator().getStreamWriteQueueSize());
+				eventStreamBytesPerSecond.update(platform.getRunningHashCalculator().getStreamBytesWrittenSinceLast());
 
 				avgQ4forHash.recordValue(platform.getHashgraph().getEventIntakeQueueSize());
 				avgRoundSupermajority.recordValue(
@@ -374,6 +429,7 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 	public Statistics(AbstractPlatform platform) {
 		super();
 		this.platform = platform;
+		this.transactionTracer = new TransactionTracer(Settings.halfLife);
 		this.osBean = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
 		this.thbean = ManagementFactory.getThreadMXBean();
 		int abSize = platform.getAddressBook() == null ? 0 : platform.getAddressBook().getSize(); //0 during unit tests
@@ -507,6 +563,32 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 						},//
 						null,//
 						() -> avgConsHandleTime.getWeightedMean()),//
+				new StatEntry(//
+						CATEGORY,//
+						"latC2H",//
+						"percentiles and max of the time from knowing consensus for a transaction to handling it " +
+								"(in seconds)",//
+						"%,10.6f",//
+						consHandleTimeHistogram,//
+						(h) -> {
+							consHandleTimeHistogram = new StatsHistogram(h);
+							return consHandleTimeHistogram;
+						},//
+						null,//
+						() -> consHandleTimeHistogram.getPercentile(0.5)),//
+				new StatEntry(//
+						INTERNAL_CATEGORY,//
+						"transConflict%",//
+						"percentage of consensus transactions that could not be handled in parallel because of a " +
+								"conflict with an earlier one",//
+						"%,7.2f",//
+						avgTransConflictPercent,//
+						(h) -> {
+							avgTransConflictPercent = new StatsRunningAverage(h);
+							return avgTransConflictPercent;
+						},//
+						null,//
+						() -> avgTransConflictPercent.getWeightedMean()),//
 				new StatEntry(//
 						CATEGORY,//
 						"sec/sync",//
@@ -519,6 +601,18 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 						},//
 						null,//
 						() -> avgSyncDuration.getWeightedMean()),//
+				new StatEntry(//
+						CATEGORY,//
+						"latSync",//
+						"percentiles and max of the duration of a successful sync (in seconds)",//
+						"%,10.6f",//
+						syncDurationHistogram,//
+						(h) -> {
+							syncDurationHistogram = new StatsHistogram(h);
+							return syncDurationHistogram;
+						},//
+						null,//
+						() -> syncDurationHistogram.getPercentile(0.5)),//
 				new StatEntry(//
 						INTERNAL_CATEGORY,//
 						"sec/sync1",//
@@ -1099,6 +1193,19 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 						},//
 						null,//
 						() -> avgEventsPerSyncRec.getWeightedMean()),//
+				new StatEntry(//
+						INTERNAL_CATEGORY,//
+						"ev/syncSkip",//
+						"number of events not sent per successful sync because the other node already had them, " +
+								"according to its Bloom filter",//
+						"%,8.1f",//
+						avgEventsSkippedPerSync,//
+						(h) -> {
+							avgEventsSkippedPerSync = new StatsRunningAverage(h);
+							return avgEventsSkippedPerSync;
+						},//
+						null,//
+						() -> avgEventsSkippedPerSync.getWeightedMean()),//
 				new StatEntry(//
 						INTERNAL_CATEGORY,//
 						"secSC2T",//
@@ -1326,6 +1433,56 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 						},//
 						null,//
 						() -> avgSecNewSignedState.getWeightedMean()),//
+				new StatEntry(//
+						INTERNAL_CATEGORY,//
+						"secStateHash",//
+						"average time from starting to hash a signed state to its hash being known (in seconds)",//
+						"%,10.3f",//
+						avgSecStateHash,//
+						(h) -> {
+							avgSecStateHash = new StatsRunningAverage(h);
+							return avgSecStateHash;
+						},//
+						null,//
+						() -> avgSecStateHash.getWeightedMean()),//
+				new StatEntry(//
+						INTERNAL_CATEGORY,//
+						"latStateHash",//
+						"percentiles and max of the time from starting to hash a signed state to its hash being " +
+								"known (in seconds)",//
+						"%,10.6f",//
+						stateHashTimeHistogram,//
+						(h) -> {
+							stateHashTimeHistogram = new StatsHistogram(h);
+							return stateHashTimeHistogram;
+						},//
+						null,//
+						() -> stateHashTimeHistogram.getPercentile(0.5)),//
+				new StatEntry(//
+						INTERNAL_CATEGORY,//
+						"latSigVerify",//
+						"percentiles and max of the time to verify the signature of an event received from another " +
+								"member (in seconds)",//
+						"%,10.6f",//
+						sigVerifyTimeHistogram,//
+						(h) -> {
+							sigVerifyTimeHistogram = new StatsHistogram(h);
+							return sigVerifyTimeHistogram;
+						},//
+						null,//
+						() -> sigVerifyTimeHistogram.getPercentile(0.5)),//
+				new StatEntry(//
+						INTERNAL_CATEGORY,//
+						"stateHashQ",//
+						"number of signed states being hashed and waiting to be signed",//
+						"%,10.3f",//
+						avgStateHashQueueSize,//
+						(h) -> {
+							avgStateHashQueueSize = new StatsRunningAverage(h);
+							return avgStateHashQueueSize;
+						},//
+						null,//
+						() -> avgStateHashQueueSize.getWeightedMean()),//
 				new StatEntry(//
 						CATEGORY,//
 						"bytes/sec_sync",//
@@ -1575,6 +1732,39 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 						(h) -> eventStreamQueueSize = new StatsRunningAverage(h),//
 						null,//
 						() -> eventStreamQueueSize.getWeightedMean()),
+				new StatEntry(//
+						INFO_CATEGORY,//
+						"eventStreamWriteQueueSize",//
+						"number of events waiting to be written to EventStream files by the FileChannel writer",//
+						"%,13.0f",//
+						eventStreamWriteQueueSize,//
+						(h) -> eventStreamWriteQueueSize = new StatsRunningAverage(h),//
+						null,//
+						() -> eventStreamWriteQueueSize.getWeightedMean()),
+				new StatEntry(//
+						INFO_CATEGORY,//
+						"eventStreamBytes/sec",//
+						"bytes written to EventStream files per second by the FileChannel writer",//
+						"%,16.2f",//
+						eventStreamBytesPerSecond,//
+						(h) -> {
+							eventStreamBytesPerSecond = new StatsSpeedometer(6 * h);
+							return eventStreamBytesPerSecond;
+						},//
+						(h) -> eventStreamBytesPerSecond.reset(6 * h),//
+						() -> eventStreamBytesPerSecond.getCyclesPerSecond()),
+				new StatEntry(//
+						INFO_CATEGORY,//
+						"secEventStreamFsync",//
+						"time taken to sync an EventStream file to disk (in seconds)",//
+						"%,10.6f",//
+						avgSecEventStreamFsync,//
+						(h) -> {
+							avgSecEventStreamFsync = new StatsRunningAverage(h);
+							return avgSecEventStreamFsync;
+						},//
+						null,//
+						() -> avgSecEventStreamFsync.getWeightedMean()),
 		};
 		List<StatEntry> entryList = new ArrayList<>();
 		entryList.addAll(Arrays.asList(statEntries));
@@ -1603,9 +1793,31 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 					null,//
 					() -> avgBytePerSecSent[ii].getCyclesPerSecond()));
 		}
+		if (TransactionTracer.isEnabled()) {
+			for (int i = 0; i < TransactionTracer.INTERVAL_NAMES.length; i++) {
+				final StatsHistogram histogram = transactionTracer.getHistogram(i);
+				entryList.add(new StatEntry(
+						INTERNAL_CATEGORY,//
+						String.format("trace_%s", TransactionTracer.INTERVAL_NAMES[i]),//
+						String.format("percentiles and max of the time a sampled transaction by self takes for %s " +
+								"(in seconds)", TransactionTracer.INTERVAL_NAMES[i]),//
+						"%,10.6f",//
+						histogram,//
+						null,//
+						null,//
+						() -> histogram.getPercentile(0.5)));
+			}
+		}
 		statEntries = entryList.toArray(statEntries);
 	}
 
+	/**
+	 * @return the tracer that measures the latency of sampled transactions by self at each stage
+	 */
+	TransactionTracer getTransactionTracer() {
+		return transactionTracer;
+	}
+
 	//
 	// ConsensusStats below
 	//
@@ -1651,6 +1863,10 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 
 	@Override
 	public void consensusReached(EventImpl event) {
+		if (TransactionTracer.isEnabled() && platform.getSelfId().equalsMain(event.getCreatorId())) {
+			transactionTracer.stamp(event.getTransactions(), TransactionTracer.CONSENSUS);
+		}
+
 		// Keep a running average of how many seconds from when I first know of an event
 		// until it achieves consensus. Actually, keep two such averages: one for events I
 		// create, and one for events I receive.
@@ -1659,14 +1875,14 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 		if (event.hasUserTransactions()) {
 			if (platform.getSelfId().equalsMain(event.getCreatorId())) { // set either created or received time to now
 				avgCreatedConsensusTime
-						.recordValue(event.getTimeReceived().until(Instant.now(),
+						.accumulateValue(event.getTimeReceived().until(Instant.now(),
 								ChronoUnit.NANOS) / 1_000_000_000.0);
 			} else {
 				avgReceivedConsensusTime
-						.recordValue(event.getTimeReceived().until(Instant.now(),
+						.accumulateValue(event.getTimeReceived().until(Instant.now(),
 								ChronoUnit.NANOS) / 1_000_000_000.0);
 				avgCreatedReceivedConsensusTime
-						.recordValue(event.getTimeCreated().until(Instant.now(),
+						.accumulateValue(event.getTimeCreated().until(Instant.now(),
 								ChronoUnit.NANOS) / 1_000_000_000.0);
 			}
 		}
@@ -1675,11 +1891,11 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 		// have user transactions in them.
 		if (event.hasUserTransactions()) {
 			if (platform.getSelfId().equalsMain(event.getCreatorId())) {
-				avgSelfCreatedTimestamp.recordValue(
+				avgSelfCreatedTimestamp.accumulateValue(
 						event.getTimeCreated().until(event.getConsensusTimestamp(),
 								ChronoUnit.NANOS) / 1_000_000_000.0);
 			} else {
-				avgOtherReceivedTimestamp.recordValue(
+				avgOtherReceivedTimestamp.accumulateValue(
 						event.getTimeReceived().until(event.getConsensusTimestamp(),
 								ChronoUnit.NANOS) / 1_000_000_000.0);
 			}
@@ -1693,6 +1909,6 @@ public class Statistics extends AbstractStatistics implements ConsensusStats {
 
 	@Override
 	public void dotProductTime(long nanoTime) {
-		timeFracDot.update(((double) nanoTime) / 1_000_000_000);
+		timeFracDot.accumulate(((double) nanoTime) / 1_000_000_000);
 	}
 }
@@ -0,0 +1,266 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform;
+
+import com.swirlds.common.StatsPercentiles;
+import com.swirlds.common.internal.StatsBuffer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * This class maintains a histogram of durations, so that percentiles such as p99 can be reported as well as the
+ * mean. It uses a log-linear layout like HdrHistogram: each power of 2 is divided into 16 equal buckets, so any
+ * percentile is accurate to within about 6%, and the memory used is constant no matter how many durations are
+ * recorded or how large they are.
+ * <p>
+ * Durations are given in nanoseconds to recordNanos(), which only increments a counter, and so can be called on hot
+ * paths from many threads without locking. They are incorporated into the histogram when the statistics thread calls
+ * fold(), once a second. The counts are exponentially weighted in time, with a given half life, so the percentiles
+ * describe recent durations. All values reported are in seconds.
+ */
+public class StatsHistogram implements StatsPercentiles, StatsFoldable {
+	/** the number of buckets each power of 2 is divided into */
+	private static final int SUB_BUCKETS = 16;
+	/** log2 of SUB_BUCKETS */
+	private static final int SUB_BUCKET_BITS = 4;
+	/** enough buckets for any non-negative long */
+	private static final int NUM_BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	/** a bucket whose weight decays below this is emptied, so old durations stop counting towards the max */
+	private static final double MIN_WEIGHT = 0.01;
+	/** the percentile recorded in the history buffers each time the histogram is folded */
+	private static final double HISTORY_PERCENTILE = 0.99;
+
+	/** the number of durations in each bucket recorded since the last fold() */
+	private final AtomicLongArray pendingCounts = new AtomicLongArray(NUM_BUCKETS);
+	/** the sum of the durations recorded since the last fold(), in seconds */
+	private final DoubleAdder pendingSum = new DoubleAdder();
+	/** the sum of the squares of the durations recorded since the last fold(), in seconds squared */
+	private final DoubleAdder pendingSumSquares = new DoubleAdder();
+
+	/** the exponentially weighted number of durations in each bucket */
+	private double[] counts;
+	/** the sum of counts */
+	private double total;
+	/** the exponentially weighted sum of the durations, in seconds */
+	private double sum;
+	/** the exponentially weighted sum of the squares of the durations, in seconds squared */
+	private double sumSquares;
+	/** the weights are halved each time this many nanoseconds pass */
+	private double halfLifeNanos;
+	/** the value of System.nanoTime() at the last fold() */
+	private long lastFold;
+
+	/** the entire history of the p99 of this histogram */
+	private StatsBuffer allHistory;
+	/** the recent history of the p99 of this histogram */
+	private StatsBuffer recentHistory;
+
+	/**
+	 * Instantiate a histogram with the given halfLife and start the measurements right now.
+	 *
+	 * @param halfLife
+	 * 		half of the exponential weighting comes from the last halfLife seconds
+	 */
+	public StatsHistogram(double halfLife) {
+		reset(halfLife);
+	}
+
+	/**
+	 * get the entire history of the 99th percentile of this histogram, recorded once a second. The caller should not
+	 * modify it.
+	 */
+	@Override
+	public StatsBuffer getAllHistory() {
+		return allHistory;
+	}
+
+	/**
+	 * get the recent history of the 99th percentile of this histogram, recorded once a second. The caller should not
+	 * modify it.
+	 */
+	@Override
+	public StatsBuffer getRecentHistory() {
+		return recentHistory;
+	}
+
+	/**
+	 * Start over on the measurements and counts, with the weighting having a half life of halfLife seconds. This is
+	 * equivalent to instantiating a new histogram.
+	 *
+	 * @param halfLife
+	 * 		half of the exponential weighting comes from the last halfLife seconds
+	 */
+	@Override
+	public synchronized void reset(double halfLife) {
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			pendingCounts.set(i, 0);
+		}
+		pendingSum.reset();
+		pendingSumSquares.reset();
+		counts = new double[NUM_BUCKETS];
+		total = 0;
+		sum = 0;
+		sumSquares = 0;
+		halfLifeNanos = Math.max(1, halfLife * 1_000_000_000.0);
+		lastFold = System.nanoTime();
+		allHistory = new StatsBuffer(Settings.statsBufferSize, 0,
+				Settings.statsSkipSeconds);
+		recentHistory = new StatsBuffer(Settings.statsBufferSize,
+				Settings.statsRecentSeconds, 0);
+	}
+
+	/**
+	 * Record a duration, to be incorporated into the histogram at the next fold(). This does no locking, so it is
+	 * cheap to call on hot paths from many threads.
+	 *
+	 * @param nanos
+	 * 		the duration, in nanoseconds. A negative duration is recorded as 0.
+	 */
+	public void recordNanos(long nanos) {
+		final long value = Math.max(0, nanos);
+		final double seconds = value / 1_000_000_000.0;
+		pendingCounts.incrementAndGet(bucket(value));
+		pendingSum.add(seconds);
+		pendingSumSquares.add(seconds * seconds);
+	}
+
+	/**
+	 * Decay the weights of the durations already in the histogram according to the time since the last call, and
+	 * incorporate the durations recorded since then. If the histogram is not empty, its 99th percentile is recorded
+	 * in the history buffers.
+	 */
+	@Override
+	public synchronized void fold() {
+		final long now = System.nanoTime();
+		final double decay = Math.pow(0.5, (now - lastFold) / halfLifeNanos);
+		lastFold = now;
+		total = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			double count = counts[i] * decay + pendingCounts.getAndSet(i, 0);
+			if (count < MIN_WEIGHT) {
+				count = 0;
+			}
+			counts[i] = count;
+			total += count;
+		}
+		if (total == 0) {
+			pendingSum.reset();
+			pendingSumSquares.reset();
+			sum = 0;
+			sumSquares = 0;
+			return;
+		}
+		sum = sum * decay + pendingSum.sumThenReset();
+		sumSquares = sumSquares * decay + pendingSumSquares.sumThenReset();
+		final double p99 = getPercentile(HISTORY_PERCENTILE);
+		allHistory.record(p99);
+		recentHistory.record(p99);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized double getPercentile(double percentile) {
+		if (total == 0) {
+			return 0;
+		}
+		final double target = percentile * total;
+		double cumulative = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			cumulative += counts[i];
+			if (cumulative >= target && counts[i] > 0) {
+				return upperBound(i) / 1_000_000_000.0;
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized double getMean() {
+		return total == 0 ? 0 : sum / total;
+	}
+
+	/**
+	 * get the largest recent duration, to within the width of its bucket
+	 *
+	 * @return the maximum, in seconds, or 0 if no durations were recorded recently
+	 */
+	@Override
+	public synchronized double getMax() {
+		for (int i = NUM_BUCKETS - 1; i >= 0; i--) {
+			if (counts[i] > 0) {
+				return upperBound(i) / 1_000_000_000.0;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * get the smallest recent duration, to within the width of its bucket
+	 *
+	 * @return the minimum, in seconds, or 0 if no durations were recorded recently
+	 */
+	@Override
+	public synchronized double getMin() {
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			if (counts[i] > 0) {
+				return lowerBound(i) / 1_000_000_000.0;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized double getStdDev() {
+		if (total == 0) {
+			return 0;
+		}
+		final double mean = sum / total;
+		return Math.sqrt(Math.max(0, sumSquares / total - mean * mean));
+	}
+
+	/** the bucket that the given non-negative value falls in */
+	private static int bucket(final long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+		return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+	}
+
+	/** the largest value that falls in the given bucket */
+	private static long upperBound(final int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		final int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+		final int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+		return (1L << exponent) + ((long) (subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	/** the smallest value that falls in the given bucket */
+	private static long lowerBound(final int bucket) {
+		return bucket == 0 ? 0 : upperBound(bucket - 1) + 1;
+	}
+}
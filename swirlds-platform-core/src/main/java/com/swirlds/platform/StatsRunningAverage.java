@@ -16,12 +16,19 @@ package com.swirlds.platform;
 import com.swirlds.common.StatsBuffered;
 import com.swirlds.common.internal.StatsBuffer;
 
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * This class maintains a running average of some numeric value. It is exponentially weighted in time, with
  * a given half life. If it is always given the same value, then that value will be the average, regardless
  * of the timing.
+ * <p>
+ * Values can also be given to accumulateValue(), which only adds them to striped counters without locking, and so
+ * can be called on hot paths from many threads with little contention. They are incorporated into the average when
+ * the statistics thread calls fold(), once a second.
  */
-public class StatsRunningAverage implements StatsBuffered {
+public class StatsRunningAverage implements StatsBuffered, StatsFoldable {
 	/** the estimated running average */
 	private double mean = 0;
 	/** each recordValue(X) counts as X calls to values.cycle() */
@@ -30,6 +37,10 @@ public class StatsRunningAverage implements StatsBuffered {
 	private StatsSpeedometer times;
 	/** Did we just perform a reset, and are about to record the first value? */
 	boolean firstRecord = true;
+	/** the sum of the values passed to accumulateValue() since the last fold() */
+	private final DoubleAdder pendingSum = new DoubleAdder();
+	/** the number of values passed to accumulateValue() since the last fold() */
+	private final LongAdder pendingCount = new LongAdder();
 
 	// FORMULA: mean = values.cyclesPerSeconds() / times.cyclesPerSecond()
 
@@ -84,6 +95,8 @@ public class StatsRunningAverage implements StatsBuffered {
 	@Override
 	public void reset(double halfLife) {
 		firstRecord = true;
+		pendingSum.reset();
+		pendingCount.reset();
 		values = new StatsSpeedometer(halfLife, false);
 		times = new StatsSpeedometer(halfLife, false);
 		allHistory = new StatsBuffer(Settings.statsBufferSize, 0,
@@ -123,6 +136,49 @@ public class StatsRunningAverage implements StatsBuffered {
 		recentHistory.record(mean);
 	}
 
+	/**
+	 * Accumulate "value" to be incorporated into the running average at the next fold(). This does no locking and no
+	 * floating point math beyond an addition, so it is cheap to call on hot paths from many threads. The value is
+	 * weighted as if recordValue() had been called with it when fold() is called.
+	 *
+	 * @param value
+	 * 		the value to incorporate into the running average
+	 */
+	public void accumulateValue(double value) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		// the sum is added first, so a fold() that takes this count has always taken this value too
+		pendingSum.add(value);
+		pendingCount.increment();
+	}
+
+	/**
+	 * Incorporate the values passed to accumulateValue() since the last call, as if recordValue() had been called
+	 * with each of them now. The sum and count are not taken atomically, as in StatsHistogram, so a value accumulated
+	 * during the fold may have its value included in this fold and its count in the next one. Nothing is lost, and
+	 * the average is only skewed by the few values that race with each fold.
+	 */
+	@Override
+	public void fold() {
+		// take the count first, so that every value it counts is in the sum taken next
+		final long count = pendingCount.sumThenReset();
+		if (count == 0) {
+			return;
+		}
+		final double sum = pendingSum.sumThenReset();
+		if (firstRecord) {
+			firstRecord = false;
+			values.update(sum);
+			times.update(count);
+			mean = sum / count;
+		} else {
+			mean = values.update(sum) / times.update(count);
+		}
+		allHistory.record(mean);
+		recentHistory.record(mean);
+	}
+
 	/**
 	 * Get the average of recent calls to recordValue(). This is an exponentially-weighted average of recent
 	 * calls, with the weighting by time, not by number of calls to recordValue().
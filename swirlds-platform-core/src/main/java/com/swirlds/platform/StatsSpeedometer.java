@@ -16,6 +16,8 @@ package com.swirlds.platform;
 import com.swirlds.common.StatsBuffered;
 import com.swirlds.common.internal.StatsBuffer;
 
+import java.util.concurrent.atomic.DoubleAdder;
+
 /**
  * This class measures how many times per second the cycle() method is called. It is recalculated every
  * period, where its period is 0.1 seconds by default. If instantiated with gamma=0.9, then half the
@@ -23,7 +25,7 @@ import com.swirlds.common.internal.StatsBuffer;
  * <p>
  * The timer starts at instantiation, and can be reset with the reset() method.
  */
-public class StatsSpeedometer implements StatsBuffered {
+public class StatsSpeedometer implements StatsBuffered, StatsFoldable {
 	private static final double ln2 = Math.log(2);
 	/** find average since this time */
 	private long startTime = System.nanoTime();
@@ -37,6 +39,8 @@ public class StatsSpeedometer implements StatsBuffered {
 	private StatsBuffer allHistory = null;
 	/** the recent history of values of this speedometer */
 	private StatsBuffer recentHistory = null;
+	/** the cycles passed to accumulate() since the last fold(), in striped counters so hot paths don't contend */
+	private final DoubleAdder pendingCycles = new DoubleAdder();
 
 	/**
 	 * {@inheritDoc}
@@ -117,6 +121,7 @@ public class StatsSpeedometer implements StatsBuffered {
 		startTime = System.nanoTime(); // find average since this time
 		lastTime = startTime; // the last time update() was called
 		cyclesPerSecond = 0; // estimated average calls to cycle() per second
+		pendingCycles.reset();
 		if (saveHistory) {
 			allHistory = new StatsBuffer(Settings.statsBufferSize, 0,
 					Settings.statsSkipSeconds);
@@ -195,6 +200,35 @@ public class StatsSpeedometer implements StatsBuffered {
 		return cyclesPerSecond;
 	}
 
+	/**
+	 * Accumulate cycles to be counted at the next fold(). This does no locking, so it is cheap to call on hot paths
+	 * from many threads.
+	 *
+	 * @param numCycles
+	 * 		the number of cycles
+	 */
+	public void accumulate(double numCycles) {
+		pendingCycles.add(numCycles);
+	}
+
+	/**
+	 * Accumulate one cycle to be counted at the next fold()
+	 */
+	public void accumulateCycle() {
+		pendingCycles.add(1);
+	}
+
+	/**
+	 * Count the cycles passed to accumulate() since the last call, as if update() had been called with them now.
+	 */
+	@Override
+	public void fold() {
+		final double numCycles = pendingCycles.sumThenReset();
+		if (numCycles != 0) {
+			update(numCycles);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -21,7 +21,9 @@ import com.swirlds.common.events.ConsensusEvent;
 import com.swirlds.common.io.SelfSerializable;
 import com.swirlds.common.io.SerializableDataInputStream;
 import com.swirlds.common.stream.ObjectStreamUtilities;
+import com.swirlds.common.stream.StreamFileIndex;
 import com.swirlds.platform.event.EventUtils;
+import com.swirlds.platform.internal.PlatformThreadFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -35,8 +37,16 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -65,6 +75,8 @@ class StreamEventParser extends Thread {
 	private boolean isParsingDone = false;
 
 	private final static int POLL_WAIT = 5000;
+	/** the most object stream files that each parsing thread reads ahead of the file being handled */
+	private static final int MAX_FILES_READ_AHEAD_PER_THREAD = 2;
 	static final String MD_ALGORITHM = "SHA-384";
 
 	private String fileDir;
@@ -81,6 +93,22 @@ class StreamEventParser extends Thread {
 	/** the round number of last recover state with valid new user transactions */
 	private volatile long lastRecoverRoundWithNewUserTran;
 
+	/**
+	 * The events read from an event object stream file, and whether the whole file could be read. If it could not,
+	 * the events are the ones read before the error, which are still handled before the error is reported.
+	 */
+	private static class ObjectStreamFileEvents {
+		/** the events read from the file, in consensus order */
+		private final List<EventImpl> events;
+		/** false if an error was found after reading the events */
+		private final boolean complete;
+
+		ObjectStreamFileEvents(final List<EventImpl> events, final boolean complete) {
+			this.events = events;
+			this.complete = complete;
+		}
+	}
+
 	StreamEventParser(String fileDir, Instant startTimestamp, Instant endTimestamp,
 			long roundOfLoadedSignedState, NodeId nodeId) {
 		this.fileDir = fileDir;
@@ -149,7 +177,8 @@ class StreamEventParser extends Thread {
 			//sort file by its name and timestamp order
 			Arrays.sort(files);
 
-			boolean parseResult = true;
+			// decide which files need to be parsed, from their names
+			final List<File> filesToParse = new ArrayList<>();
 			for (int i = 0; i < files.length; i++) {
 				String fullPathName = files[i].getAbsolutePath();
 
@@ -167,7 +196,7 @@ class StreamEventParser extends Thread {
 
 					// if  startTimestamp < secondTimestamp
 					if (startTimestamp.compareTo(secondTimestamp) < 0) {
-						parseResult = parseEventFile(fullPathName, eventHandler);
+						filesToParse.add(files[i]);
 					} else {
 						log.info(EVENT_PARSER.getMarker(), " Skip file {}: first {}  start {} second {}",
 								() -> fullPathName,
@@ -178,14 +207,65 @@ class StreamEventParser extends Thread {
 				} else {
 					// last file will always be opened and parsed since we could not know
 					// what is the timestamp of the last event within the file
-					parseResult = parseEventFile(fullPathName, eventHandler);
+					filesToParse.add(files[i]);
 				}
+			}//for
 
+			parseFiles(filesToParse, eventHandler);
+		}
+	}
+
+	/**
+	 * Parse the given event stream files in order. Object stream files (.soc) are read and deserialized ahead on
+	 * a pool of threads, up to {@link #MAX_FILES_READ_AHEAD_PER_THREAD} files per thread ahead of the one being
+	 * handled, while their events are passed to the eventHandler on this thread in consensus order.
+	 * Old event stream files (.evts) are parsed on this thread when they are reached.
+	 *
+	 * @param files
+	 * 		the files to parse, in order
+	 * @param eventHandler
+	 * 		call back function for handling parsed event object
+	 */
+	private void parseFiles(final List<File> files, final Function<EventImpl, Boolean> eventHandler) {
+		final int threadCount = Settings.eventStreamParseThreads > 0
+				? Settings.eventStreamParseThreads
+				: Runtime.getRuntime().availableProcessors();
+		final int maxReadAhead = threadCount * MAX_FILES_READ_AHEAD_PER_THREAD;
+		final ExecutorService pool = Executors.newFixedThreadPool(threadCount,
+				new PlatformThreadFactory("streamParse_"));
+		// the files being read ahead, in order, with the events read from each once it is done
+		final Deque<Future<ObjectStreamFileEvents>> readAhead = new ArrayDeque<>();
+		int nextToRead = 0;
+		try {
+			for (File file : files) {
+				// keep the pool busy with the object stream files that come next
+				while (nextToRead < files.size() && readAhead.size() < maxReadAhead) {
+					final File toRead = files.get(nextToRead++);
+					if (isStreamFile(toRead)) {
+						readAhead.add(pool.submit(() -> readObjectStreamFile(toRead)));
+					}
+				}
+
+				final String fullPathName = file.getAbsolutePath();
+				final boolean parseResult;
+				if (isStreamFile(file)) {
+					log.info(EVENT_PARSER.getMarker(), "Processing file {}", () -> fullPathName);
+					parseResult = handleObjectStreamEvents(readAhead.remove().get(), eventHandler);
+				} else {
+					parseResult = parseEventFile(fullPathName, eventHandler);
+				}
 				if (!parseResult) {
 					log.error(EXCEPTION.getMarker(), "Experienced error during parsing file {}", fullPathName);
 					break;
 				}
-			}//for
+			}
+		} catch (InterruptedException e) {
+			log.info(EXCEPTION.getMarker(), "parseFiles interrupted");
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			log.error(EXCEPTION.getMarker(), "Experienced error during reading stream file", e.getCause());
+		} finally {
+			pool.shutdownNow();
 		}
 	}
 
@@ -236,8 +316,34 @@ class StreamEventParser extends Thread {
 	 * @return return false if experienced any error otherwise return true
 	 */
 	private boolean parseObjectStreamFile(File file, Function<EventImpl, Boolean> eventHandler) {
-		Iterator<SelfSerializable> iterator = ObjectStreamUtilities.parseStreamFile(file);
+		return handleObjectStreamEvents(readObjectStreamFile(file), eventHandler);
+	}
+
+	/**
+	 * Read and deserialize the events in an event object stream file (.soc), and calculate the hash of each.
+	 * This does not change the state of the parser, so several files can be read at the same time.
+	 *
+	 * @param file
+	 * 		event object stream file
+	 * @return the events in the file, in consensus order. If experienced any error, these are the events read before
+	 * 		it, and they are marked as not complete
+	 */
+	private ObjectStreamFileEvents readObjectStreamFile(File file) {
+		// if the file has an index, skip the rounds that all came before startTimestamp,
+		// since their events would only be discarded by handleEvent
+		final StreamFileIndex index = StreamFileIndex.read(file);
+		final long offset = index == null ? -1 : index.findOffsetAfter(startTimestamp);
+		Iterator<SelfSerializable> iterator;
 		boolean readFirstObject = false;
+		if (offset > 0) {
+			log.info(EVENT_PARSER.getMarker(), "Seeking to offset {} in {} using its index", offset, file.getName());
+			iterator = ObjectStreamUtilities.parseStreamFileFrom(file, offset);
+			// the initialRunningHash is before the offset
+			readFirstObject = true;
+		} else {
+			iterator = ObjectStreamUtilities.parseStreamFile(file);
+		}
+		final List<EventImpl> fileEvents = new ArrayList<>();
 		while (iterator.hasNext()) {
 			SelfSerializable object = iterator.next();
 			if (!readFirstObject) {
@@ -250,17 +356,40 @@ class StreamEventParser extends Thread {
 				if (iterator.hasNext()) {
 					log.error(EXCEPTION.getMarker(), "The file still has objects after reading lastRunningHash {}",
 							iterator.next());
-					return false;
+					return new ObjectStreamFileEvents(fileEvents, false);
 				}
-				return true;
+				return new ObjectStreamFileEvents(fileEvents, true);
 			}
 			if (object == null) {
 				log.error(EXCEPTION.getMarker(), "read null from {}", file.getName());
-				return false;
+				return new ObjectStreamFileEvents(fileEvents, false);
 			}
 			// EventImpl serializes itself as a ConsensusEvent object
 			// thus the object read from stream is a ConsensusEvent object
 			EventImpl event = new EventImpl((ConsensusEvent) object);
+			// calculate Hash for this event
+			CryptoFactory.getInstance().digestSync(event.getBaseEventHashedData());
+			//log.info(EVENT_PARSER, "Hash: {}", () -> event.getHash());
+			event.setConsensus(true);
+			fileEvents.add(event);
+		}
+		return new ObjectStreamFileEvents(fileEvents, true);
+	}
+
+	/**
+	 * Pass the events read from an event object stream file to the eventHandler, in order,
+	 * and only callback if the timestamp of the event which is greater than start search time stamp.
+	 * If the file could not be read completely, the events read before the error are still passed on.
+	 *
+	 * @param fileEvents
+	 * 		the events read by {@link #readObjectStreamFile(File)}
+	 * @param eventHandler
+	 * 		call back function for handling parsed event object
+	 * @return return false if the file could not be read completely otherwise return true
+	 */
+	private boolean handleObjectStreamEvents(ObjectStreamFileEvents fileEvents,
+			Function<EventImpl, Boolean> eventHandler) {
+		for (EventImpl event : fileEvents.events) {
 			if (event.hasUserTransactions() && startTimestamp.isBefore(event.getConsensusTimestamp())
 					&& !event.getConsensusTimestamp().isAfter(endTimestamp)) {
 				// for event to be recovered
@@ -268,13 +397,9 @@ class StreamEventParser extends Thread {
 				// before recovering the last signed state
 				lastRecoverRoundWithNewUserTran = event.getRoundReceived();
 			}
-			// calculate Hash for this event
-			CryptoFactory.getInstance().digestSync(event.getBaseEventHashedData());
-			//log.info(EVENT_PARSER, "Hash: {}", () -> event.getHash());
-			event.setConsensus(true);
 			eventHandler.apply(event);
 		}
-		return true;
+		return fileEvents.complete;
 	}
 
 	/**
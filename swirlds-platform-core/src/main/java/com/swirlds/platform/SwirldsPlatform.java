@@ -29,6 +29,7 @@ import com.swirlds.common.StatEntry;
 import com.swirlds.common.SwirldMain;
 import com.swirlds.common.SwirldState;
 import com.swirlds.common.Transaction;
+import com.swirlds.common.TransactionSubmission;
 import com.swirlds.common.crypto.CryptoFactory;
 import com.swirlds.common.crypto.Cryptography;
 import com.swirlds.common.crypto.Hash;
@@ -59,6 +60,7 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.GraphicsEnvironment;
 import java.awt.Rectangle;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -71,6 +73,7 @@ import java.util.Random;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceArray;
@@ -1200,6 +1203,27 @@ public class SwirldsPlatform extends AbstractPlatform {
 		return eventFlow.createTransaction(false, trans);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public TransactionSubmission submitTransaction(Transaction trans) {
+		// no new transaction allowed during recover mode
+		if (Settings.enableStateRecovery) {
+			return TransactionSubmission.invalid();
+		}
+
+		// if the platform is not active, it is better to reject transactions submitted by the app
+		if (currentPlatformStatus.get() != PlatformStatus.ACTIVE) {
+			return TransactionSubmission.inactive(Duration.ofMillis(Settings.transactionRetryAfterMaxMillis));
+		}
+		return eventFlow.submitTransaction(trans);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Flow.Subscriber<Transaction> newTransactionSubscriber() {
+		return new TransactionSubscriber(this);
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public JFrame createWindow(boolean visible) {
@@ -268,6 +268,7 @@ class SyncCaller implements Runnable {
 									// close the connection, don't reconnect until needed.
 									conn.disconnect(true, 1);
 								}
+								platform.getSyncManager().syncFailed(conn.getOtherId());
 							} catch (Exception e) {
 								log.error(EXCEPTION.getMarker(),
 										"! SyncCaller.sync Exception (so incrementing iCSyncPerSec) while {} " +
@@ -277,6 +278,7 @@ class SyncCaller implements Runnable {
 									// close the connection, don't reconnect until needed.
 									conn.disconnect(true, 2);
 								}
+								platform.getSyncManager().syncFailed(conn.getOtherId());
 							} finally {
 								platform.getSyncServer().numSyncs.decrementAndGet();
 							}
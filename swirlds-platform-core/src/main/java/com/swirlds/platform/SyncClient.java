@@ -21,6 +21,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.swirlds.logging.LogMarker.EXCEPTION;
+import static com.swirlds.logging.LogMarker.SYNC_START;
 
 /**
  * This class remembers connections to multiple members. It connects to servers when requested. The get()
@@ -83,7 +84,21 @@ class SyncClient {
 		}
 		connection = callerConn.get(otherConnId.getIdAsInt());
 		boolean connected = (connection != null && connection.connected());
-		if (!connected) {
+		final boolean multiplexed = Settings.multiplexSyncConnections && selfConnId.sameNetwork(otherConnId);
+		if (connected && multiplexed && selfConnId.getId() < otherConnId.getId()
+				&& !platform.getSyncServer().checkConnected(otherConnId)) {
+			// the other member's caller channel on our socket has been closed, and only we can open a new socket,
+			// so replace this one. Otherwise they could never call us again.
+			log.debug(SYNC_START.getMarker(), "{} reconnecting to {} because its channel to us was closed",
+					selfConnId, otherConnId);
+			connection.disconnect(true, 17);
+			connected = false;
+		}
+		if (!connected && multiplexed && selfConnId.getId() > otherConnId.getId()) {
+			// with multiplexing, only the member with the lower ID opens the socket. Our caller connection is
+			// created by the SyncServer when it accepts that socket.
+			return null;
+		} else if (!connected) {
 			// only try once. This may take a while.
 			connection = SyncConnection.connect(platform, platform.getSelfId(),
 					otherConnId);
@@ -95,6 +110,22 @@ class SyncClient {
 		return connection;
 	}
 
+	/**
+	 * Remember a caller connection that was created by accepting a multiplexed socket from the member with the
+	 * given ID, ending any old one.
+	 *
+	 * @param otherConnId
+	 * 		the connection ID of the member
+	 * @param connection
+	 * 		the new connection
+	 */
+	void setCallerConn(NodeId otherConnId, SyncConnection connection) {
+		SyncConnection oldConn = callerConn.getAndSet(otherConnId.getIdAsInt(), connection);
+		if (oldConn != null && oldConn != connection) {
+			oldConn.disconnect(true, 16);
+		}
+	}
+
 	/**
 	 * Returns the SyncConnection to the member with the given ID. If the connection isn't currently
 	 * working, then it will NOT try to connect to it.
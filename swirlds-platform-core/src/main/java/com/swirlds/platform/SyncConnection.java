@@ -17,6 +17,8 @@ import com.swirlds.common.Address;
 import com.swirlds.common.AddressBook;
 import com.swirlds.common.NodeId;
 import com.swirlds.common.Platform;
+import com.swirlds.platform.internal.PlatformThreadFactory;
+import com.swirlds.platform.sync.MultiplexedConnection;
 import com.swirlds.platform.sync.SyncInputStream;
 import com.swirlds.platform.sync.SyncOutputStream;
 import org.apache.logging.log4j.LogManager;
@@ -25,6 +27,9 @@ import org.apache.logging.log4j.Logger;
 import javax.net.ssl.SSLException;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
@@ -48,6 +53,13 @@ public class SyncConnection {
 
 	private static final byte[] LOCALHOST = new byte[] { 127, 0, 0, 1 };
 
+	/** on a multiplexed connection, the channel carrying syncs initiated by the member that opened the socket */
+	private static final int CHANNEL_DIALER_CALLS = 0;
+	/** on a multiplexed connection, the channel carrying syncs initiated by the member that accepted the socket */
+	private static final int CHANNEL_ACCEPTOR_CALLS = 1;
+	/** creates the threads that read multiplexed connections */
+	private static final PlatformThreadFactory MULTIPLEX_THREAD_FACTORY = new PlatformThreadFactory("sync_mux_");
+
 	private NodeId selfId = null;
 	private NodeId otherId = null;
 	private SyncInputStream dis = null;
@@ -55,6 +67,8 @@ public class SyncConnection {
 	private Socket socket = null;
 	private AbstractPlatform platform = null;
 	private AtomicBoolean connected = new AtomicBoolean(true);
+	/** the channel this connection uses if the socket is multiplexed, or null if it has the socket to itself */
+	private MultiplexedConnection.Channel channel = null;
 
 	SyncShadowGraphManager getSyncShadowGraphManager() {
 		return platform.getSyncShadowGraphManager();
@@ -119,9 +133,38 @@ public class SyncConnection {
 		return platform;
 	}
 
+	/**
+	 * Set how long a read on this connection may block before it throws a {@link SocketTimeoutException}. If the
+	 * socket is shared with other connections, only this connection is affected.
+	 *
+	 * @param timeout
+	 * 		the timeout in milliseconds, or 0 to wait forever
+	 * @throws SocketException
+	 * 		if the socket throws
+	 */
+	public void setTimeout(int timeout) throws SocketException {
+		if (channel != null) {
+			channel.setReadTimeout(timeout);
+		} else {
+			socket.setSoTimeout(timeout);
+		}
+	}
+
+	/**
+	 * @return the timeout set by {@link #setTimeout(int)}, in milliseconds
+	 * @throws SocketException
+	 * 		if the socket throws
+	 */
+	public int getTimeout() throws SocketException {
+		return channel != null ? channel.getReadTimeout() : socket.getSoTimeout();
+	}
+
 	/**
 	 * End this connection by closing the socket and streams, and setting them to null. Also update the
-	 * statistics for the caller (if caller is true) or listener (if false).
+	 * statistics for the caller (if caller is true) or listener (if false). If the socket is multiplexed, only this
+	 * connection's channel is closed, and the socket is closed once the connection sharing it has ended too. The
+	 * member that opened the socket replaces it as soon as it sees either channel closed, in
+	 * {@link SyncClient#getCallerConnOrConnectOnce(NodeId)}.
 	 *
 	 * @param caller
 	 * 		true if it is a caller or heartbeat thread (but not a listener thread) doing this
@@ -142,9 +185,14 @@ public class SyncConnection {
 			}
 		}
 
-		try {
-			socket.close();
-		} catch (Exception e) {
+		if (channel != null) {
+			// the socket is shared with the connection for the other direction, which closes it once both are done
+			channel.close();
+		} else {
+			try {
+				socket.close();
+			} catch (Exception e) {
+			}
 		}
 		try {
 			dis.close();
@@ -157,6 +205,7 @@ public class SyncConnection {
 		socket = null;
 		dis = null;
 		dos = null;
+		channel = null;
 		selfId = otherId = null;
 	}
 
@@ -246,7 +295,15 @@ public class SyncConnection {
 						+ ", it is " + ack);
 			}
 
-			if (clientSocket != null && dis != null) { // set all 3 or none at all
+			if (clientSocket != null && dis != null && Settings.multiplexSyncConnections) {
+				log.debug(SYNC_START.getMarker(), "{} connected to {} (multiplexed)",
+						platform.getSelfId(), otherId);
+				// the handshake streams may have buffered the first frames, so keep reading through them
+				SyncConnection[] conns = multiplex(platform, selfId, otherId, clientSocket, dis,
+						clientSocket.getOutputStream(), true);
+				platform.getSyncServer().setListenerConn(otherId, conns[1]);
+				return conns[0];
+			} else if (clientSocket != null && dis != null) { // set all 3 or none at all
 				log.debug(SYNC_START.getMarker(), "{} connected to {}",
 						platform.getSelfId(), otherId);
 				SyncConnection sc = new SyncConnection();
@@ -277,6 +334,56 @@ public class SyncConnection {
 		return null;
 	}
 
+	/**
+	 * Share a socket that has just been connected, and on which the handshake has been done, between a caller
+	 * connection and a listener connection. The caller connection of each member is the listener connection of
+	 * the other, so syncs initiated by either member, along with their heartbeats and any reconnect, go over the
+	 * one socket.
+	 *
+	 * @param platform
+	 * 		the platform running this hashgraph
+	 * @param selfId
+	 * 		the ID number of the local member
+	 * @param otherId
+	 * 		the ID number of the other member
+	 * @param socket
+	 * 		the socket connecting the two members
+	 * @param in
+	 * 		the stream to read from the socket, including anything buffered during the handshake
+	 * @param out
+	 * 		the stream to write to the socket
+	 * @param dialer
+	 * 		true if the local member opened the socket, false if it accepted it
+	 * @return an array holding the caller connection followed by the listener connection
+	 * @throws IOException
+	 * 		if the socket cannot be configured
+	 */
+	static SyncConnection[] multiplex(AbstractPlatform platform, NodeId selfId, NodeId otherId, Socket socket,
+			InputStream in, OutputStream out, boolean dialer) throws IOException {
+		MultiplexedConnection mux = new MultiplexedConnection(socket, in, out, 2,
+				Settings.multiplexChannelWindow, Settings.bufferSize, MULTIPLEX_THREAD_FACTORY);
+		SyncConnection caller = new SyncConnection();
+		SyncConnection listener = new SyncConnection();
+		caller.setMultiplexed(platform, selfId, otherId, socket,
+				mux.getChannel(dialer ? CHANNEL_DIALER_CALLS : CHANNEL_ACCEPTOR_CALLS));
+		listener.setMultiplexed(platform, selfId, otherId, socket,
+				mux.getChannel(dialer ? CHANNEL_ACCEPTOR_CALLS : CHANNEL_DIALER_CALLS));
+		mux.start();
+		return new SyncConnection[] { caller, listener };
+	}
+
+	/**
+	 * record a connection that uses one channel of a multiplexed socket
+	 */
+	private void setMultiplexed(AbstractPlatform platform, NodeId selfId, NodeId otherId, Socket socket,
+			MultiplexedConnection.Channel channel) {
+		this.channel = channel;
+		channel.setReadTimeout(Settings.timeoutSyncClientSocket);
+		set(platform, selfId, otherId, socket,
+				SyncInputStream.createSyncInputStream(channel.getInputStream(), Settings.bufferSize),
+				SyncOutputStream.createSyncOutputStream(channel.getOutputStream(), Settings.bufferSize));
+	}
+
 	/**
 	 * Find the best way to connect <code>from</code> address <code>to</code> address
 	 *
@@ -381,7 +488,8 @@ public class SyncConnection {
 	boolean connected() {
 		try {
 			if (socket != null && !socket.isClosed() && socket.isBound()
-					&& socket.isConnected() && dis != null && dos != null) {
+					&& socket.isConnected() && dis != null && dos != null
+					&& (channel == null || channel.isOpen())) {
 				return true; // good connection
 			}
 		} catch (Exception e) {
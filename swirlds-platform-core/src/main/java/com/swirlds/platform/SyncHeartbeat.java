@@ -117,7 +117,7 @@ class SyncHeartbeat implements Runnable {
 			long startTime = System.nanoTime();
 			dos.write((int) SyncConstants.heartbeat);
 			dos.flush();
-			conn.getSocket().setSoTimeout(Settings.timeoutSyncClientSocket);
+			conn.setTimeout(Settings.timeoutSyncClientSocket);
 			byte b = dis.readByte();
 			platform.getStats().avgPingMilliseconds[otherId.getIdAsInt()].recordValue(
 					(System.nanoTime() - startTime) / 1_000_000.0);
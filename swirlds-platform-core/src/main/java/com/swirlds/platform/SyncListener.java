@@ -28,7 +28,6 @@ import org.apache.logging.log4j.Logger;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 
@@ -209,7 +208,6 @@ class SyncListener implements Runnable {
 		NodeId selfId;
 		LoggingReentrantLock lockCallListen = platform.getSyncServer().lockCallListen
 				.get(otherId.getIdAsInt());// otherId assumed to be main
-		Socket socket = null;
 		DataInputStream dis;
 
 		log.debug(SYNC_START.getMarker(),
@@ -222,7 +220,6 @@ class SyncListener implements Runnable {
 		}
 		otherId = conn.getOtherId();
 		selfId = conn.getSelfId();
-		socket = conn.getSocket();
 		dis = conn.getDis();
 		if (dis == null) {
 			return false; // there is no connection to otherId, so return immediately
@@ -231,7 +228,7 @@ class SyncListener implements Runnable {
 		// a short timeout so that we will wake up frequently and check whether the connection is still
 		// valid.There is no harm in this timeout being short, because this method will be called
 		// repeatedly until something is received (or until a much longer timeout happens).
-		socket.setSoTimeout(Settings.waitListenerRead);
+		conn.setTimeout(Settings.waitListenerRead);
 		try {
 			log.debug(HEARTBEAT.getMarker(), "{} lsntr wait for {}", selfId, otherId);
 			b = dis.readByte();
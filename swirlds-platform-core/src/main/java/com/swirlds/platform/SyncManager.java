@@ -14,6 +14,8 @@
 package com.swirlds.platform;
 
 import com.swirlds.common.NodeId;
+import com.swirlds.platform.sync.PeerSelectionStrategy;
+import com.swirlds.platform.sync.YieldWeightedPeerSelector;
 import org.apache.logging.log4j.LogManager;
 
 import java.time.Instant;
@@ -24,6 +26,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
@@ -67,6 +70,8 @@ class SyncManager {
 	private final int numNeighbors;
 	/** an array with all the neighbor ids */
 	private int[] neighbors;
+	/** chooses which neighbor to call when {@link Settings#adaptivePeerSelection} is on */
+	private final PeerSelectionStrategy peerSelector;
 
 	/** number of neighbors who think this node has fallen behind */
 	volatile int numReportFallenBehind = 0;
@@ -136,6 +141,7 @@ class SyncManager {
 		for (int i = 0; i < neighbors.length; i++) {
 			allNeighbors.add((long) neighbors[i]);
 		}
+		peerSelector = new YieldWeightedPeerSelector(Settings.peerSelectionHalfLife, Settings.peerSelectionFairness);
 	}
 
 	/**
@@ -193,6 +199,10 @@ class SyncManager {
 			case RANDOM:
 			case PRIORITY:
 				list = new LinkedList<>();
+				if (Settings.adaptivePeerSelection && numNeighbors > 0) {
+					list.add(peerSelector.choosePeer(neighbors, ThreadLocalRandom.current()));
+					return list;
+				}
 				for (int i = 0; i < 10; i++) {
 					long neighbor = connectionGraph.randomNeighbor(selfId.getIdAsInt());
 					// we try to call a neighbor in the bottom 1/3 by number of events created in the latest round, if
@@ -373,6 +383,34 @@ class SyncManager {
 		}
 	}
 
+	/**
+	 * Notifies the sync manager of the result of a sync that completed without errors, so that it can prefer
+	 * neighbors that deliver many new events
+	 *
+	 * @param otherId
+	 * 		the ID of the node we synced with
+	 * @param newEventsRead
+	 * 		the number of events read during the sync that were not already known, and so were added to the intake
+	 * 		queue
+	 * @param bytesRead
+	 * 		the number of bytes read during the sync
+	 * @param durationNanos
+	 * 		the duration of the sync, in nanoseconds
+	 */
+	void syncCompleted(NodeId otherId, int newEventsRead, long bytesRead, long durationNanos) {
+		peerSelector.syncSucceeded(otherId.getId(), newEventsRead, bytesRead, durationNanos);
+	}
+
+	/**
+	 * Notifies the sync manager that a sync with a node failed because of an error
+	 *
+	 * @param otherId
+	 * 		the ID of the node we tried to sync with
+	 */
+	void syncFailed(NodeId otherId) {
+		peerSelector.syncFailed(otherId.getId());
+	}
+
 	/**
 	 * Notify the sync manager that a node has reported that they don't have events we need. This means we have probably
 	 * fallen behind and will need to reconnect
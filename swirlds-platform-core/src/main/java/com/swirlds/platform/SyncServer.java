@@ -160,8 +160,8 @@ class SyncServer implements Runnable {
 			if (conn == null) {
 				return false;
 			}
-			Socket s = conn.getSocket();
-			if (s != null && !s.isClosed() && s.isBound() && s.isConnected()) {
+			// this also checks the channel, if the socket is multiplexed
+			if (conn.connected()) {
 				return true; // this is a good connection, so use it
 			}
 		} catch (Exception e) {
@@ -236,6 +236,10 @@ class SyncServer implements Runnable {
 	 * 		ID number of the remote member
 	 */
 	void tcpConnectionEstablished(Socket socket, NodeId otherId) {
+		if (Settings.multiplexSyncConnections) {
+			multiplexedConnectionEstablished(socket, otherId);
+			return;
+		}
 		SyncConnection sc = new SyncConnection();
 		SyncInputStream dis = null;
 		SyncOutputStream dos = null;
@@ -244,26 +248,58 @@ class SyncServer implements Runnable {
 			dos = SyncOutputStream.createSyncOutputStream(socket.getOutputStream(), Settings.bufferSize);
 
 			sc.set(platform, platform.getSelfId(), otherId, socket, dis, dos);
-			SyncConnection oldConn = listenerConn.get(otherId.getIdAsInt());
-			// end any old connection that might exist with them
-			if (oldConn != null) {
-				log.error(SOCKET_EXCEPTIONS.getMarker(),
-						"{} got new connection from {}, disconnecting old one",
-						sc.getSelfId(), sc.getOtherId());
-				oldConn.disconnect(false, 11);
-			}
-			listenerConn.set(otherId.getIdAsInt(), sc); // remember the new connection
-			platform.getSyncServer().connsCreated.incrementAndGet(); // count new connections
-			log.debug(SYNC_START.getMarker(),
-					"{} accepted connection from {}", sc.getSelfId(),
-					sc.getOtherId());
-
+			setListenerConn(otherId, sc);
 		} catch (IOException e) {
 			log.error(EXCEPTION.getMarker(), "", e);
 			close(dis, dos, socket);
 		}
 	}
 
+	/**
+	 * Called instead of {@link #tcpConnectionEstablished(Socket, NodeId)} when connections are multiplexed. The
+	 * one socket becomes both the listener connection and the caller connection for this member.
+	 *
+	 * @param socket
+	 * 		the socket of the TCP connection that has been established
+	 * @param otherId
+	 * 		ID number of the remote member
+	 */
+	private void multiplexedConnectionEstablished(Socket socket, NodeId otherId) {
+		try {
+			SyncConnection[] conns = SyncConnection.multiplex(platform, platform.getSelfId(), otherId, socket,
+					socket.getInputStream(), socket.getOutputStream(), false);
+			platform.getSyncClient().setCallerConn(otherId, conns[0]);
+			setListenerConn(otherId, conns[1]);
+		} catch (IOException e) {
+			log.error(EXCEPTION.getMarker(), "", e);
+			close(null, null, socket);
+		}
+	}
+
+	/**
+	 * Remember a new listener connection for the given member, ending any old one
+	 *
+	 * @param otherId
+	 * 		ID number of the remote member
+	 * @param sc
+	 * 		the new connection
+	 */
+	void setListenerConn(NodeId otherId, SyncConnection sc) {
+		SyncConnection oldConn = listenerConn.get(otherId.getIdAsInt());
+		// end any old connection that might exist with them
+		if (oldConn != null) {
+			log.error(SOCKET_EXCEPTIONS.getMarker(),
+					"{} got new connection from {}, disconnecting old one",
+					sc.getSelfId(), sc.getOtherId());
+			oldConn.disconnect(false, 11);
+		}
+		listenerConn.set(otherId.getIdAsInt(), sc); // remember the new connection
+		platform.getSyncServer().connsCreated.incrementAndGet(); // count new connections
+		log.debug(SYNC_START.getMarker(),
+				"{} accepted connection from {}", sc.getSelfId(),
+				sc.getOtherId());
+	}
+
 	private void close(DataInputStream dis, DataOutputStream dos,
 			Socket clientSocket) {
 		try {
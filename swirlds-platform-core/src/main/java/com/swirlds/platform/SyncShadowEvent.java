@@ -24,7 +24,7 @@ class SyncShadowEvent {
 	SyncShadowEvent selfParent, otherParent;
 	List<SyncShadowEvent> selfChildren, otherChildren;
 	long sequenceNumber;
-	long searchMark, syncMark;
+	long searchMark, syncMark, sendMark;
 
 	SyncShadowEvent(Event event, SyncShadowEvent selfParent, SyncShadowEvent otherParent) {
 		this(event);
@@ -18,6 +18,7 @@ import com.swirlds.common.crypto.Hash;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,6 +28,8 @@ import java.util.function.Predicate;
 class SyncShadowGraph implements Iterable<SyncShadowEvent> {
 	final HashMap<Hash, SyncShadowEvent> hashToShadowEvent;
 	final HashSet<SyncShadowEvent> shadowEvents;
+	// the shadow events of each generation, so that events can be visited in generation order without sorting
+	final HashMap<Long, List<SyncShadowEvent>> generations = new HashMap<>();
 
 	SyncShadowGraph() {
 		this.hashToShadowEvent = new HashMap<>();
@@ -60,6 +63,29 @@ class SyncShadowGraph implements Iterable<SyncShadowEvent> {
 		return hashToShadowEvent.get(hash);
 	}
 
+	/**
+	 * @param generation
+	 * 		a generation
+	 * @return the shadow events of that generation, in no particular order. Must not be modified.
+	 */
+	List<SyncShadowEvent> generation(long generation) {
+		List<SyncShadowEvent> bucket = generations.get(generation);
+		return bucket == null ? Collections.emptyList() : bucket;
+	}
+
+	private void addToGeneration(SyncShadowEvent s) {
+		generations.computeIfAbsent(s.event.getGeneration(), (Long g) -> new ArrayList<>()).add(s);
+	}
+
+	private void removeFromGeneration(SyncShadowEvent s) {
+		List<SyncShadowEvent> bucket = generations.get(s.event.getGeneration());
+		if (bucket == null)
+			return;
+		bucket.remove(s);
+		if (bucket.isEmpty())
+			generations.remove(s.event.getGeneration());
+	}
+
 //	boolean topologicalInsert(List<ShadowEvent> shadowEvents) {
 //		for(ShadowEvent shadowEvent : shadowEvents)
 //			if(!insert(shadowEvent))
@@ -105,7 +131,8 @@ class SyncShadowGraph implements Iterable<SyncShadowEvent> {
 			op.addOtherChild(shadowEvent);
 
 		hashToShadowEvent.put(shadowEvent.getBaseEventHash(), shadowEvent);
-		shadowEvents.add(shadowEvent);
+		if (shadowEvents.add(shadowEvent))
+			addToGeneration(shadowEvent);
 
 		return true;
 	}
@@ -145,6 +172,7 @@ class SyncShadowGraph implements Iterable<SyncShadowEvent> {
 		s.disconnect();
 		hashToShadowEvent.remove(s.getBaseEventHash());
 		shadowEvents.remove(s);
+		removeFromGeneration(s);
 
 		return true;
 	}
@@ -181,8 +209,10 @@ class SyncShadowGraph implements Iterable<SyncShadowEvent> {
 					s[i].otherChildren.add(s[j]);
 			}
 
-		for (SyncShadowEvent ss : s)
+		for (SyncShadowEvent ss : s) {
 			hashToShadowEvent.put(((EventImpl) ss.event).getBaseHash(), ss);
+			addToGeneration(ss);
+		}
 
 		return new HashSet<>(Arrays.asList(s));
 	}
@@ -18,16 +18,21 @@ import com.swirlds.common.events.Event;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.swirlds.common.crypto.Hash;
+import com.swirlds.platform.sync.SyncBloomFilter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -38,11 +43,16 @@ class SyncShadowGraphManager {
 	HashSet<SyncShadowEvent> tips;
 	long expiredGen;
 	long currSyncMark = 0, currSearchMark = 0;
+	// marks the events chosen by getSendEventList, and the number and generation range of those events
+	long currSendMark = 0;
+	int sendCount;
+	long sendMinGeneration, sendMaxGeneration;
 
 	HashSet<SyncShadowEvent> workingTips;
 	List<Hash> receivedTipHashes;
 	LinkedHashSet<EventImpl> sendList;
 	List<Boolean> sendFlags, receivedTipFlags;
+	SyncBloomFilter receivedBloomFilter;
 
 	SyncShadowGraphManager(AbstractHashgraph hashgraph) {
 		this(new SyncShadowGraph(hashgraph), hashgraph.getMinGenerationNonAncient() - 1);
@@ -248,6 +258,7 @@ class SyncShadowGraphManager {
 		sendList.clear();
 		sendFlags.clear();
 		receivedTipFlags.clear();
+		receivedBloomFilter = null;
 		currSearchMark++;
 		currSyncMark++;
 	}
@@ -298,6 +309,74 @@ class SyncShadowGraphManager {
 		}
 	}
 
+	/**
+	 * Build a Bloom filter of the hashes of the newest events in the shadow graph, to be sent to the peer
+	 *
+	 * @param bitsPerEvent
+	 * 		the number of filter bits to use per event
+	 * @param numGenerations
+	 * 		only events within this many generations of the newest event are added
+	 * @return the filter
+	 */
+	SyncBloomFilter getSendBloomFilter(int bitsPerEvent, int numGenerations) {
+		long maxGeneration = -1;
+		for (SyncShadowEvent s : shadowGraph.shadowEvents)
+			maxGeneration = Math.max(maxGeneration, s.event.getGeneration());
+		long minGeneration = Math.max(expiredGen + 1, maxGeneration - numGenerations + 1);
+
+		List<Hash> hashes = new ArrayList<>();
+		for (SyncShadowEvent s : shadowGraph.shadowEvents)
+			if (s.event.getGeneration() >= minGeneration)
+				hashes.add(s.getBaseEventHash());
+
+		SyncBloomFilter filter = new SyncBloomFilter(hashes.size(), bitsPerEvent, minGeneration, maxGeneration);
+		hashes.forEach(filter::add);
+		return filter;
+	}
+
+	void setReceivedBloomFilter(SyncBloomFilter receivedBloomFilter) {
+		this.receivedBloomFilter = receivedBloomFilter;
+	}
+
+	/**
+	 * Remove from a send list the events that the peer's Bloom filter reports as known, as long as no event that
+	 * stays in the list has them as a parent. A false positive can make the filter report an event the peer lacks,
+	 * so an event is only skipped if everything in the list that descends from it is skipped too. That way the peer
+	 * is never sent an event whose parent was withheld. If no filter was received during this sync, the list is not
+	 * modified.
+	 *
+	 * @param sendList
+	 * 		the events that would be sent to the peer, in topological order
+	 * @return the number of events removed
+	 */
+	int removeKnownByPeer(List<EventImpl> sendList) {
+		if (receivedBloomFilter == null)
+			return 0;
+
+		// walk from the newest events to the oldest, so every child is decided before its parents
+		Set<EventImpl> parentsOfKept = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<EventImpl> kept = new ArrayList<>(sendList.size());
+		for(int i = sendList.size() - 1; i >= 0; i--) {
+			EventImpl e = sendList.get(i);
+			boolean known = receivedBloomFilter.covers(e.getGeneration())
+					&& receivedBloomFilter.mightContain(e.getBaseHash());
+			if (known && !parentsOfKept.contains(e))
+				continue;
+
+			kept.add(e);
+			if (e.getSelfParent() != null)
+				parentsOfKept.add(e.getSelfParent());
+			if (e.getOtherParent() != null)
+				parentsOfKept.add(e.getOtherParent());
+		}
+
+		int removed = sendList.size() - kept.size();
+		Collections.reverse(kept);
+		sendList.clear();
+		sendList.addAll(kept);
+		return removed;
+	}
+
 	private static final Logger log = LogManager.getLogger();
 
 	List<EventImpl> getSendEventList(NodeId selfId, NodeId otherId) {
@@ -307,8 +386,30 @@ class SyncShadowGraphManager {
 		return sendList;
 	}
 
+	/**
+	 * Get the events to send to the peer, in the order they should be sent. The list is ordered by generation,
+	 * which is a topological order, and is shuffled within each generation. It is produced by walking the
+	 * generations of the shadow graph, so it needs no sort, and each generation is shuffled in linear time. Events
+	 * on the send list that are not in the shadow graph are still sent, merged into the list by generation.
+	 *
+	 * @return the events to send
+	 */
 	List<EventImpl> getSendEventList() {
-		Queue<EventImpl> sendQueue = new PriorityQueue<>();
+		currSendMark++;
+		sendCount = 0;
+		sendMinGeneration = Long.MAX_VALUE;
+		sendMaxGeneration = Long.MIN_VALUE;
+
+		// an event on the send list that is not in the shadow graph cannot be marked, but must still be sent
+		List<EventImpl> unshadowed = new ArrayList<>();
+		for(EventImpl e : sendList) {
+			SyncShadowEvent s = shadowGraph.shadow(e);
+			if(s != null)
+				markForSend(s);
+			else
+				unshadowed.add(e);
+		}
+
 		for(SyncShadowEvent workingTip : this.workingTips) {
 			SyncShadowEvent y = workingTip;
 
@@ -324,7 +425,7 @@ class SyncShadowGraphManager {
 
 				boolean yMarkedForSearch = y.searchMark == currSearchMark;
 				if(!yMarkedForSearch)
-					sendQueue.add((EventImpl)y.event);
+					markForSend(y);
 				else
 					break;
 
@@ -332,8 +433,44 @@ class SyncShadowGraphManager {
 			}
 		}
 
-		sendList.addAll(sendQueue);
-		return new ArrayList<>(sendList);
+		List<EventImpl> ordered = new ArrayList<>(sendCount);
+		List<SyncShadowEvent> bucket = new ArrayList<>();
+		Random random = ThreadLocalRandom.current();
+		for(long g = sendMinGeneration; g <= sendMaxGeneration && ordered.size() < sendCount; g++) {
+			bucket.clear();
+			for(SyncShadowEvent s : shadowGraph.generation(g))
+				if(s.sendMark == currSendMark)
+					bucket.add(s);
+
+			// Fisher-Yates shuffle, appending each event as its position is fixed
+			for(int i = bucket.size() - 1; i >= 0; i--) {
+				int j = random.nextInt(i + 1);
+				SyncShadowEvent chosen = bucket.get(j);
+				bucket.set(j, bucket.get(i));
+				ordered.add((EventImpl)chosen.event);
+			}
+		}
+
+		if(!unshadowed.isEmpty()) {
+			log.debug(SYNC_SGM.getMarker(), "`getSendEventList`: {} events on the send list are not in the shadow graph",
+					unshadowed.size());
+			// the sort is stable, so the shuffled order within each generation is kept
+			ordered.addAll(unshadowed);
+			ordered.sort(Comparator.comparingLong(EventImpl::getGeneration));
+		}
+
+		return ordered;
+	}
+
+	// Mark s as an event to send in this sync, counting it only the first time
+	private void markForSend(SyncShadowEvent s) {
+		if(s == null || s.sendMark == currSendMark)
+			return;
+
+		s.sendMark = currSendMark;
+		sendCount++;
+		sendMinGeneration = Math.min(sendMinGeneration, s.event.getGeneration());
+		sendMaxGeneration = Math.max(sendMaxGeneration, s.event.getGeneration());
 	}
 
 	void setReceivedEventList(List<EventImpl> receivedSendList) {
@@ -21,6 +21,7 @@ import com.swirlds.common.events.BaseEventUnhashedData;
 import com.swirlds.common.io.BadIOException;
 import com.swirlds.platform.internal.ArrayLimitExceededException;
 import com.swirlds.platform.internal.PlatformThreadFactory;
+import com.swirlds.platform.sync.SyncBloomFilter;
 import com.swirlds.platform.sync.SyncInputStream;
 import com.swirlds.platform.sync.SyncOutputStream;
 import org.apache.logging.log4j.Level;
@@ -35,7 +36,6 @@ import java.io.SyncFailedException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.Callable;
@@ -171,13 +171,15 @@ public class SyncUtils {
 	 * 		a variable that should be set to true if we encounter a commEventDiscarded message
 	 * @param eventsRead
 	 * 		keeps track of the number of events read
+	 * @param newEventsRead
+	 * 		keeps track of the number of events read that were not already known, so were added to the intake queue
 	 * @throws IOException
 	 * 		anything unexpected was received or the connection broke
 	 */
 	static void readUnknownEvents(SyncInputStream dis, AbstractPlatform platform,
 			long[] selfCounts, AtomicLongArray otherCounts, NodeId id,
 			NodeId otherId, AtomicBoolean gotEventDiscarded,
-			AtomicInteger eventsRead) throws IOException {
+			AtomicInteger eventsRead, AtomicInteger newEventsRead) throws IOException {
 		log.debug(SYNC.getMarker(),
 				"{} starting readUnknownEvents from {}", id, otherId);
 		while (true) {
@@ -208,7 +210,9 @@ public class SyncUtils {
 				ValidateEventTask validateEventTask = new ValidateEventTask(hashedData, unhashedData);
 				log.debug(SYNC_SGM.getMarker(), "{} <- {} `readUnknownEvents`: adding event with self-parent gen {} and self-parent hash {}",
 						id, otherId, hashedData.getSelfParentGen(), hashedData.getSelfParentHash());
-				platform.getHashgraph().addEvent(validateEventTask);
+				if (platform.getHashgraph().addEvent(validateEventTask)) {
+					newEventsRead.incrementAndGet();
+				}
 
 				eventsRead.incrementAndGet();
 				log.debug(TIME_MEASURE.getMarker(),
@@ -326,7 +330,7 @@ public class SyncUtils {
 			throw new BadIOException("not a valid connection ");
 		}
 
-		conn.getSocket().setSoTimeout(Settings.timeoutSyncClientSocket);
+		conn.setTimeout(Settings.timeoutSyncClientSocket);
 
 		log.debug(TIME_MEASURE.getMarker(), "start sync {}-{}", selfId,
 				otherId);
@@ -361,10 +365,16 @@ public class SyncUtils {
 						sgm, caller, canAcceptSync, dos, myCounts, threadName, selfId,
 						otherId));
 
-		t2 = System.nanoTime();
-
 		// now otherCounts is null if and only if a NACK was sent or received.
 
+		if (otherCounts != null && Settings.syncBloomFilter) {
+			doParallel(
+					syncStep2aReadBloomFilter(sgm, caller, selfId, otherId, dis),
+					syncStep2bWriteBloomFilter(sgm, dos, selfId, otherId));
+		}
+
+		t2 = System.nanoTime();
+
 		////////// STEP 3: decide to slow down if neither self nor other is falling behind
 
 		slowDown = syncStep3(otherCounts, myCounts, platform);
@@ -376,11 +386,12 @@ public class SyncUtils {
 			AtomicBoolean hasThisNodeFallenBehind = new AtomicBoolean(false);
 			AtomicBoolean hasOtherNodeFallenBehind = new AtomicBoolean(false);
 			AtomicInteger eventsRead = new AtomicInteger(0);
+			AtomicInteger newEventsRead = new AtomicInteger(0);
 			AtomicInteger eventsWritten = new AtomicInteger(0);
 			doParallel(
 					// THREAD A: READ the events, and create a new event
 					syncStep4aReadEvents(sgm, caller, selfId, otherId, dis, platform, myCounts,
-							otherCounts, threadName, hasThisNodeFallenBehind, eventsRead),
+							otherCounts, threadName, hasThisNodeFallenBehind, eventsRead, newEventsRead),
 					// THREAD B: WRITE the events
 					syncStep4bWriteEvents(sgm, dos, platform, myCounts, otherCounts, selfId,
 							otherId, slowDown, threadName, hasOtherNodeFallenBehind, eventsWritten));
@@ -403,6 +414,9 @@ public class SyncUtils {
 
 			t5 = System.nanoTime();
 
+			platform.getSyncManager().syncCompleted(otherId, newEventsRead.get(),
+					dis.getSyncByteCounter().getCount(), t5 - t0);
+
 			Statistics stats = platform.getStats();
 			stats.avgSyncDuration1.recordValue((t1 - t0) / 1_000_000_000.0);
 			stats.avgSyncDuration2.recordValue((t2 - t1) / 1_000_000_000.0);
@@ -410,6 +424,7 @@ public class SyncUtils {
 			stats.avgSyncDuration4.recordValue((t4 - t3) / 1_000_000_000.0);
 			double syncDurationSec = (t5 - t0) / 1_000_000_000.0;
 			stats.avgSyncDuration.recordValue(syncDurationSec);
+			stats.syncDurationHistogram.recordNanos(t5 - t0);
 
 			double speed = Math.max(dis.getSyncByteCounter().getCount(), dos.getSyncByteCounter().getCount())
 					/ syncDurationSec;
@@ -694,9 +709,15 @@ public class SyncUtils {
 		}
 
 
-		// sort the events by generation, sub-sorting randomly within a generation.
-		Collections.shuffle(diffEvents);
-		diffEvents.sort((EventImpl e1, EventImpl e2) -> (int) (e1.getGeneration() - e2.getGeneration()));
+		// skip the events that the other node's Bloom filter says it already has
+		int eventsSkipped = sgm.removeKnownByPeer(diffEvents);
+		if (Settings.syncBloomFilter) {
+			platform.getStats().avgEventsSkippedPerSync.recordValue(eventsSkipped);
+			log.debug(SYNC_SGM.getMarker(), "{} -> {} `writeUnknownEvents`: {} events skipped by Bloom filter",
+					selfId, otherId, eventsSkipped);
+		}
+
+		// diffEvents is already sorted by generation, sub-sorted randomly within a generation.
 
 		for (EventImpl event : diffEvents) {
 			log.debug(TIME_MEASURE.getMarker(), "start writeUnknownEvents,writeByte {}-{}", selfId, otherId);
@@ -713,6 +734,9 @@ public class SyncUtils {
 			dos.writeSerializable(event.getBaseEventUnhashedData(), false);
 			// Detect and log when a state signature is written.
 			Transaction[] trans = event.getTransactions();
+			if (TransactionTracer.isEnabled() && platform.getSelfId().equalsMain(event.getCreatorId())) {
+				platform.getStats().getTransactionTracer().stamp(trans, TransactionTracer.GOSSIPED);
+			}
 
 			// Leaving log.isEnabled(Level.DEBUG) to avoid executing the for loop when DEBUG is completely disabled
 			if (trans != null && log.isEnabled(Level.DEBUG, STATE_SIG_DIST.getMarker())) {
@@ -1093,6 +1117,67 @@ public class SyncUtils {
 	}
 
 
+	/**
+	 * Sync step 2 thread A: read the other node's Bloom filter of known events (in parallel with 2-B). Only used if
+	 * {@link Settings#syncBloomFilter} is true.
+	 *
+	 * @param sgm
+	 * 		the shadow graph manager for this sync, which will store the filter read
+	 * @param caller
+	 * 		did self (not other) initiate this sync (so caller, not listener)?
+	 * @param selfId
+	 * 		the member ID of self (the member running this Platform)
+	 * @param otherId
+	 * 		the member ID of the member that self is syncing with
+	 * @param dis
+	 * 		the DataInputStream to read from during this sync
+	 * @return the SyncCallable to run
+	 */
+	private static SyncCallable syncStep2aReadBloomFilter(SyncShadowGraphManager sgm, boolean caller,
+			NodeId selfId, NodeId otherId, SyncInputStream dis) {
+		return new SyncCallable(String.format("<tp %6s BLOOM %3s%3s>", //
+				(caller ? "caller" : "lstnr"), selfId, otherId)) {
+			@Override
+			public Object syncCall() throws IOException {
+				SyncBloomFilter filter = SyncBloomFilter.deserialize(dis, Settings.syncBloomFilterMaxBytes);
+				sgm.setReceivedBloomFilter(filter);
+				log.debug(SYNC_SGM.getMarker(), "{} <- {} `syncStep2aReadBloomFilter`: received {} byte filter",
+						selfId, otherId, filter.getSerializedSize());
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Sync step 2-B: send a Bloom filter of the events self knows (in parallel with 2-A). Only used if
+	 * {@link Settings#syncBloomFilter} is true.
+	 *
+	 * @param sgm
+	 * 		the shadow graph manager for this sync, whose events are added to the filter
+	 * @param dos
+	 * 		the DataOutputStream to write to during the sync
+	 * @param selfId
+	 * 		the member ID of self (the member running this Platform)
+	 * @param otherId
+	 * 		the member ID of the member that self is syncing with
+	 * @return the Callable to run
+	 */
+	private static Callable<Object> syncStep2bWriteBloomFilter(SyncShadowGraphManager sgm, SyncOutputStream dos,
+			NodeId selfId, NodeId otherId) {
+		return new Callable<Object>() {
+			@Override
+			public Object call() throws IOException {
+				SyncBloomFilter filter = sgm.getSendBloomFilter(
+						Settings.syncBloomFilterBitsPerEvent, Settings.syncBloomFilterGenerations);
+				filter.serialize(dos);
+				dos.flush();
+				log.debug(SYNC_SGM.getMarker(), "{} -> {} `syncStep2bWriteBloomFilter`: sent {} byte filter",
+						selfId, otherId, filter.getSerializedSize());
+				return null; // returned value is ignored by the caller
+			}
+		};
+	}
+
 	/**
 	 * Sync step 4-A: READ the events, and create a new event
 	 *
@@ -1116,19 +1201,21 @@ public class SyncUtils {
 	 * 		a variable that should be set to true if we encounter a commEventDiscarded message
 	 * @param eventsRead
 	 * 		keeps track of the number of events read
+	 * @param newEventsRead
+	 * 		keeps track of the number of events read that were not already known
 	 * @return the SyncCallable to run
 	 */
 	private static SyncCallable syncStep4aReadEvents(SyncShadowGraphManager sgm,
 			boolean caller, NodeId selfId,
 			NodeId otherId, SyncInputStream dis, AbstractPlatform platform,
 			long[] myCounts, AtomicLongArray otherCounts, String threadName,
-			AtomicBoolean gotEventDiscarded, AtomicInteger eventsRead) {
+			AtomicBoolean gotEventDiscarded, AtomicInteger eventsRead, AtomicInteger newEventsRead) {
 		return new SyncCallable(String.format("<tp %6s ACK   %3s%3s>", //
 				(caller ? "caller" : "lstnr"), selfId, otherId)) {
 			@Override
 			public Object syncCall() throws IOException {
 				readUnknownEvents(dis, platform, myCounts, otherCounts, selfId,
-						otherId, gotEventDiscarded, eventsRead);
+						otherId, gotEventDiscarded, eventsRead, newEventsRead);
 				log.debug(SYNC.getMarker(),
 						"{} -> {} `syncStep4aReadEvents`: finished ",
 						selfId, otherId);
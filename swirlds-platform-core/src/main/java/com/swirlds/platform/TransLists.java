@@ -19,9 +19,13 @@ import com.swirlds.platform.event.TransactionConstants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.LinkedList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
-import static com.swirlds.logging.LogMarker.EXCEPTION;
 import static com.swirlds.logging.LogMarker.FREEZE;
 
 /**
@@ -91,20 +95,98 @@ class TransLists {
 	/** a non-event sometimes added to the forCurr queue to unblock threadCurr */
 	public final EventImpl noEvent = new NoEvent();
 
+	/** returned by pollTransForEvent when there are no transactions waiting */
+	private static final Transaction[] NO_TRANSACTIONS = new Transaction[0];
+
+	/**
+	 * A lock-free queue of transactions, with a count of its elements. Any number of threads may add to it
+	 * concurrently. ConcurrentLinkedQueue.size() walks the whole queue, so the count is kept separately. It is
+	 * incremented after an add and decremented after a remove, so it never exceeds the number of elements
+	 * that can actually be removed.
+	 */
+	private static final class TransQueue {
+		private final ConcurrentLinkedQueue<Transaction> queue;
+		private final AtomicInteger size;
+
+		TransQueue() {
+			queue = new ConcurrentLinkedQueue<>();
+			size = new AtomicInteger(0);
+		}
+
+		/** a copy of the given queue, which must not be changing while it is copied */
+		TransQueue(final TransQueue other) {
+			queue = new ConcurrentLinkedQueue<>(other.queue);
+			size = new AtomicInteger(queue.size());
+		}
+
+		void offer(final Transaction trans) {
+			queue.offer(trans);
+			size.incrementAndGet();
+		}
+
+		Transaction poll() {
+			final Transaction trans = queue.poll();
+			if (trans != null) {
+				size.decrementAndGet();
+			}
+			return trans;
+		}
+
+		int size() {
+			return size.get();
+		}
+
+		void clear() {
+			while (poll() != null) {
+				// discard everything
+			}
+		}
+	}
+
 	/** The owner of this TransLists. It must be the only object to ever access it. */
 	private final EventFlow eventFlow;
 
-	/** list of transactions by self waiting to be put into an event */
-	private final LinkedList<Transaction> transEvent = new LinkedList<>();
-	/** the number of user transactions in the transEvent list */
-	private volatile int numUserTransEvent = 0;
-	private volatile int numFreezeTransEvent = 0;
+	/** the smallest number of transactions an event assembly buffer is created to hold */
+	private static final int MIN_ASSEMBLY_CAPACITY = 256;
+
+	/** the buffer that transactions by self are currently being appended to, for the next event */
+	private final AtomicReference<EventAssemblyBuffer> assembling = new AtomicReference<>();
+	/** buffers that were sealed before the event creator took them, oldest first */
+	private final ConcurrentLinkedQueue<EventAssemblyBuffer> sealedBuffers = new ConcurrentLinkedQueue<>();
+	/**
+	 * the number of transactions a new assembly buffer can hold. It doubles whenever a buffer fills up by count
+	 * rather than by bytes, up to Settings.maxTransactionCountPerEvent.
+	 */
+	private volatile int assemblyCapacity = MIN_ASSEMBLY_CAPACITY;
+	/** the number of transactions by self waiting to be put into an event, in all the assembly buffers */
+	private final AtomicInteger numTransEvent = new AtomicInteger(0);
+	/** the number of transactions by self put into events per second, recently */
+	private final StatsSpeedometer transPutInEvents = new StatsSpeedometer(Settings.halfLife, false);
+	/** the number of user transactions waiting to be put into an event */
+	private final AtomicInteger numUserTransEvent = new AtomicInteger(0);
+	/** the number of freeze system transactions waiting to be put into an event */
+	private final AtomicInteger numFreezeTransEvent = new AtomicInteger(0);
 	/** list of transactions by self waiting to be handled by doCurr */
-	private volatile LinkedList<Transaction> transCurr = new LinkedList<>();
+	private volatile TransQueue transCurr = new TransQueue();
 	/** list of transactions by self waiting to be handled by doWork */
-	private volatile LinkedList<Transaction> transWork = new LinkedList<>();
+	private volatile TransQueue transWork = new TransQueue();
 	/** list of transactions by self waiting to be handled by doCons (which just passes them on) */
-	private final LinkedList<Transaction> transCons = new LinkedList<>();
+	private final TransQueue transCons = new TransQueue();
+
+	/**
+	 * held while a transaction is counted and appended to the assembly buffer and each of the queues, so that
+	 * concurrent offers land in the same order everywhere. doCons removes a transaction from the head of transCons
+	 * each time it handles one of self's transactions in an event, so transCons must be in the same order as the
+	 * events. The appends are only a few non-blocking queue operations, so this is held very briefly.
+	 * Shuffling and clearing also hold it, so a transaction is never added to transCons before it is copied to the
+	 * new transWork, and then added to the new transWork a second time.
+	 */
+	private final Object appendLock = new Object();
+	/**
+	 * only one thread at a time may take transactions for an event, so that each buffer is drained once. This
+	 * never blocks the threads creating transactions.
+	 */
+	private final Object pollForEventLock = new Object();
 
 	/**
 	 * The constructor should be passed an EventFlow which is the only object to access this TransLists.
@@ -114,80 +196,151 @@ class TransLists {
 	 */
 	TransLists(EventFlow eventFlow) {
 		this.eventFlow = eventFlow;
+		this.assembling.set(newAssemblyBuffer());
+	}
+
+	/**
+	 * @return an empty buffer to assemble the transactions for an event
+	 */
+	private EventAssemblyBuffer newAssemblyBuffer() {
+		return new EventAssemblyBuffer(
+				Math.max(1, Math.min(assemblyCapacity, Settings.maxTransactionCountPerEvent)),
+				Settings.maxTransactionBytesPerEvent);
+	}
+
+	/**
+	 * Replace the buffer being assembled with an empty one. Must only be called by the thread that sealed it.
+	 *
+	 * @param sealed
+	 * 		the buffer that was just sealed
+	 */
+	private void replaceAssemblyBuffer(final EventAssemblyBuffer sealed) {
+		if (sealed.getCount() == sealed.getCapacity()) {
+			// filled up by count, not bytes, so the transactions are small. Allow more of them in the next one.
+			assemblyCapacity = Math.min(sealed.getCapacity() * 2, Settings.maxTransactionCountPerEvent);
+		}
+		assembling.set(newAssemblyBuffer());
+	}
+
+	/**
+	 * Append a transaction to the buffer being assembled for the next event, moving on to a new buffer if it
+	 * doesn't fit.
+	 *
+	 * @param trans
+	 * 		the transaction to append
+	 */
+	private void appendForEvent(final Transaction trans) {
+		while (true) {
+			final EventAssemblyBuffer buffer = assembling.get();
+			final int result = buffer.tryAppend(trans);
+			if (result == EventAssemblyBuffer.APPENDED) {
+				return;
+			}
+			if (result == EventAssemblyBuffer.SEALED_BY_CALLER) {
+				// queue it before replacing it, so the event creator always takes the buffers in order
+				sealedBuffers.offer(buffer);
+				replaceAssemblyBuffer(buffer);
+			} else {
+				// whoever sealed it is about to replace it
+				Thread.onSpinWait();
+			}
+		}
 	}
 
 	/**
-	 * remove all the transactions from the list waiting to be in an event, and return them as two arrays
+	 * remove the oldest assembled batch of transactions waiting to be in an event, and return them as an array.
+	 * The batch was packed within Settings.maxTransactionBytesPerEvent as the transactions were submitted, so
+	 * this is just a hand-off of the buffer.
 	 */
-	public synchronized Transaction[] pollTransForEvent() {
+	public Transaction[] pollTransForEvent() {
 		// Early return due to no transactions waiting
-		if (transEvent.size() == 0) {
+		if (numTransEvent.get() == 0) {
 // log.debug(Settings.LOGM_REGRESSION_TESTS,
 // "Regression: Early pollTransForEvent() exit");
-			return new Transaction[0];
+			return NO_TRANSACTIONS;
 		}
 
-		final LinkedList<Transaction> selectedTrans = new LinkedList<>();
-		int currEventSize = 0;
-
-		while (currEventSize < Settings.maxTransactionBytesPerEvent && transEvent.size() > 0) {
-			final Transaction trans = transEvent.peek();
-
-			if (trans != null) {
-				// This event already contains transactions
-				// The next transaction is larger than the remaining space in the event
-				if (trans.size() > (Settings.maxTransactionBytesPerEvent - currEventSize)) {
-// log.debug(Settings.LOGM_REGRESSION_TESTS,
-// "Regression: Transaction size ({}) larger than remaining event space ({})",
-// trans.size(),
-// (Settings.maxTransactionBytesPerEvent - currEventSize));
+		synchronized (pollForEventLock) {
+			EventAssemblyBuffer buffer;
+			while ((buffer = sealedBuffers.poll()) == null) {
+				final EventAssemblyBuffer current = assembling.get();
+				if (current.getCount() == 0) {
+					return NO_TRANSACTIONS;
+				}
+				if (current.seal()) {
+					replaceAssemblyBuffer(current);
+					buffer = current;
 					break;
 				}
+				// a thread creating a transaction sealed it, and is about to queue it
+				Thread.onSpinWait();
+			}
 
-				currEventSize += trans.size();
-				selectedTrans.offer(transEvent.poll());
+			final Transaction[] selectedTrans = buffer.drain();
+			numTransEvent.addAndGet(-selectedTrans.length);
+			transPutInEvents.update(selectedTrans.length);
+			for (Transaction trans : selectedTrans) {
 				if (!trans.isSystem()) {
-					numUserTransEvent--;
+					numUserTransEvent.decrementAndGet();
 				} else {
 					if (trans.getContents(0) == TransactionConstants.SYS_TRANS_STATE_SIG_FREEZE) {
-						numFreezeTransEvent--;
+						final int numFreeze = numFreezeTransEvent.decrementAndGet();
 						log.info(FREEZE.getMarker(),
 								"A Freeze system transaction has been put into selectedTrans. numFreezeTransEvent: {}",
-								numFreezeTransEvent);
+								numFreeze);
 					}
 				}
 			}
+			return selectedTrans;
 		}
-
-		return selectedTrans.toArray(new Transaction[selectedTrans.size()]);
 	}
 
 	/**
 	 * @return the number of user transactions waiting to be put in an event
 	 */
 	public int numUserTransForEvent() {
-		return numUserTransEvent + numFreezeTransEvent;
+		return numUserTransEvent.get() + numFreezeTransEvent.get();
 	}
 
 	public int numFreezeTransEvent() {
-		return numFreezeTransEvent;
+		return numFreezeTransEvent.get();
+	}
+
+	/**
+	 * Estimate how long it will be until a transaction that was just rejected because the lists were full would be
+	 * accepted. This assumes that the fullest list drains at the rate transactions by self are being put into
+	 * events, so it is only a hint.
+	 *
+	 * @return the estimated time, between 1 millisecond and Settings.transactionRetryAfterMaxMillis
+	 */
+	Duration estimateRetryAfter() {
+		int largest = Math.max(numTransEvent.get(), Math.max(transCurr.size(), transCons.size()));
+		if (!eventFlow.isSwirldState2()) {
+			largest = Math.max(largest, transWork.size());
+		}
+		final int excess = Math.max(1, largest - Settings.throttleTransactionQueueSize + 1);
+		final double rate = transPutInEvents.getCyclesPerSecond();
+		final long maxMillis = Math.max(1, Settings.transactionRetryAfterMaxMillis);
+		final long millis = rate > 0 ? (long) Math.ceil(1000.0 * excess / rate) : maxMillis;
+		return Duration.ofMillis(Math.max(1, Math.min(millis, maxMillis)));
 	}
 
 	/**
 	 * Add the given transaction to all the stored lists. If any are full, it does nothing and returns false
-	 * immediately.
+	 * immediately. This only blocks briefly, while the lists are being shuffled or another thread is appending to
+	 * them, so it may be called by many threads at once.
 	 *
 	 * @param trans
 	 * 		The transaction. It must have been created by self.
 	 * @return true if successful
 	 */
-	public synchronized boolean offer(Transaction trans) {
+	public boolean offer(Transaction trans) {
 		// Check if we should ignore this transaction and return false because the queue is full.
 		// Always accept system transactions, but stop accepting others when the queue for the next event is
-		// full.
+		// full. The sizes are read without locking, so the limit may be exceeded by a few transactions.
 		final int t = Settings.throttleTransactionQueueSize;
 		if (!trans.isSystem() && //
-				(transEvent.size() > t //
+				(numTransEvent.get() > t //
 						|| transCurr.size() > t //
 						|| transCons.size() > t //
 						|| (!eventFlow.isSwirldState2()
@@ -195,39 +348,35 @@ class TransLists {
 			return false;
 		}
 
-		boolean ans = true; // this should stay true. The linked lists will never be full or return false.
-		// both SwirldState and SwirldState2 use these 3 queues
-		ans = ans && transEvent.offer(trans);
-		if (ans) {
+		int numFreeze = -1;
+		synchronized (appendLock) {
+			// count the transaction before it can be polled, so the counts never go negative
 			if (!trans.isSystem()) {
-				numUserTransEvent++;
-			} else {
-				if (trans.getContents(0) == TransactionConstants.SYS_TRANS_STATE_SIG_FREEZE) {
-					numFreezeTransEvent++;
-					log.info(FREEZE.getMarker(),
-							"Freeze system transaction has been put into transEvent. numFreezeTransEvent: {}",
-							numFreezeTransEvent);
-				}
+				numUserTransEvent.incrementAndGet();
+			} else if (trans.getContents(0) == TransactionConstants.SYS_TRANS_STATE_SIG_FREEZE) {
+				numFreeze = numFreezeTransEvent.incrementAndGet();
+			}
+			numTransEvent.incrementAndGet();
+			// both SwirldState and SwirldState2 use these 3 queues. They are unbounded, so offer always
+			// succeeds.
+			appendForEvent(trans);
+			transCurr.offer(trans);
+			transCons.offer(trans);
+			// this 4th queue is only for SwirldState
+			if (!eventFlow.isSwirldState2()) {
+				transWork.offer(trans);
 			}
 		}
-		ans = ans && transCurr.offer(trans);
-		ans = ans && transCons.offer(trans);
-		// this 4th queue is only for SwirldState
-		if (!eventFlow.isSwirldState2()) {
-			ans = ans && transWork.offer(trans);
+		if (numFreeze >= 0) {
+			log.info(FREEZE.getMarker(),
+					"Freeze system transaction has been put into transEvent. numFreezeTransEvent: {}",
+					numFreeze);
 		}
 
-		// if forCurr is empty, then put in noEvent so anyone waiting for an event will unblock,
-		// though they will detect that this is a noEvent, and so not process it. It's just there
-		// to make them wake up briefly, so they can process this new transaction. It also does
-		// the same for forWork if it is empty
+		// if forCurr is empty, then wake up anyone waiting for an event, so they can process this new
+		// transaction even though no event arrived. It also does the same for forWork if it is empty
 		eventFlow.unblockCurrWork();
-		if (!ans) {
-			log.error(EXCEPTION.getMarker(),
-					"TransLists queues were all shorter than Settings.throttleQueues,"
-							+ " yet offer returned false");
-		}
-		return ans; // this will be true, unless a bad error has occurred
+		return true;
 	}
 
 	/**
@@ -240,22 +389,22 @@ class TransLists {
 	 * 		true if this is a system transaction
 	 * @return did the insertion succeed?
 	 */
-	public synchronized boolean offer(Transaction trans, boolean system) {
+	public boolean offer(Transaction trans, boolean system) {
 		return offer(trans);
 	}
 
 	/** remove and return the earliest-added event in transCurr, or null if none */
-	public synchronized Transaction pollCurr() {
+	public Transaction pollCurr() {
 		return transCurr.poll();
 	}
 
 	/** remove and return the earliest-added event in transWork, or null if none */
-	public synchronized Transaction pollWork() {
+	public Transaction pollWork() {
 		return transWork.poll();
 	}
 
 	/** remove and return the earliest-added event in transCons, or null if none */
-	public synchronized Transaction pollCons() {
+	public Transaction pollCons() {
 		return transCons.poll();
 	}
 
@@ -264,7 +413,7 @@ class TransLists {
 	 *
 	 * @return the number of transactions
 	 */
-	synchronized int getCurrSize() {
+	int getCurrSize() {
 		return transCurr.size();
 	}
 
@@ -273,17 +422,17 @@ class TransLists {
 	 *
 	 * @return the number of transactions
 	 */
-	synchronized int getWorkSize() {
+	int getWorkSize() {
 		return transWork.size();
 	}
 
 	/**
-	 * get the number of transactions in the transEvent queue
+	 * get the number of transactions waiting to be put into an event
 	 *
 	 * @return the number of transactions
 	 */
-	synchronized int getEventSize() {
-		return transEvent.size();
+	int getEventSize() {
+		return numTransEvent.get();
 	}
 
 	/**
@@ -291,21 +440,22 @@ class TransLists {
 	 *
 	 * @return the number of transactions
 	 */
-	synchronized int getConsSize() {
+	int getConsSize() {
 		return transCons.size();
 	}
 
 	/** Do a shuffle: discard transCurr, move transWork to transCurr, clone transCons to transWork */
-	@SuppressWarnings("unchecked") // needed because stupid Java type erasure gives no alternative
-	public synchronized void shuffle() {
-		transCurr = transWork;
-		transWork = (LinkedList<Transaction>) transCons.clone();
+	public void shuffle() {
+		synchronized (appendLock) {
+			transCurr = transWork;
+			transWork = new TransQueue(transCons);
+		}
 	}
 
 	/** return a single string giving the number of transactions in each list, and swirldState2 */
-	public synchronized String status() {
+	public String status() {
 		return "TransList sizes:"//
-				+ " transEvent=" + transEvent.size()//
+				+ " transEvent=" + numTransEvent.get()//
 				+ " transCurr=" + transCurr.size()//
 				+ " transWork=" + transWork.size()//
 				+ " transCons=" + transCons.size()//
@@ -313,12 +463,29 @@ class TransLists {
 	}
 
 	/**
-	 * Clear all the transactions from TransLists
+	 * Clear all the transactions from TransLists. Every transaction by self that has not been handled by stateCons
+	 * yet is in transCons, so the futures of those that were submitted with one are completed exceptionally.
 	 */
-	synchronized void clear() {
-		transEvent.clear();
-		transCurr.clear();
-		transWork.clear();
-		transCons.clear();
+	void clear() {
+		final List<Transaction> dropped = new ArrayList<>(transCons.size());
+		synchronized (appendLock) {
+			synchronized (pollForEventLock) {
+				sealedBuffers.clear();
+				assembling.set(newAssemblyBuffer());
+				numTransEvent.set(0);
+				numUserTransEvent.set(0);
+				numFreezeTransEvent.set(0);
+			}
+			transCurr.clear();
+			transWork.clear();
+			Transaction trans;
+			while ((trans = transCons.poll()) != null) {
+				dropped.add(trans);
+			}
+		}
+		// outside the lock, since completing a future may run the app's callbacks
+		for (Transaction trans : dropped) {
+			EventFlow.dropConsensusFuture(trans, "the transaction lists were cleared before it reached consensus");
+		}
 	}
 }
@@ -0,0 +1,158 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform;
+
+import com.swirlds.common.Platform;
+import com.swirlds.common.Transaction;
+import com.swirlds.common.TransactionSubmission;
+import com.swirlds.common.threading.StandardThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.swirlds.logging.LogMarker.EXCEPTION;
+
+/**
+ * Receives transactions from a {@link Flow.Publisher}, and submits them to a platform. It only requests as many
+ * transactions as it can submit: it requests a batch of Settings.transactionSubscriberBatch, and requests the next
+ * batch only once the whole batch has been accepted. When the platform is busy, it holds on to the transactions it
+ * has received and retries after the delay the platform suggests, so the publisher sees back-pressure instead of
+ * rejections.
+ * <p>
+ * Transactions that can never be accepted (for example, because they are too large) are discarded and logged.
+ */
+class TransactionSubscriber implements Flow.Subscriber<Transaction> {
+	/** use this for all logging, as controlled by the optional data/log4j2.xml file */
+	private static final Logger log = LogManager.getLogger();
+
+	/** retries the submission of transactions that were rejected because the platform was busy */
+	private static final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(
+			r -> StandardThreadFactory.newThreadFromPool("transSubscriber", r));
+
+	/** the platform to submit transactions to */
+	private final Platform platform;
+	/** the subscription to the publisher, or null before onSubscribe */
+	private Flow.Subscription subscription;
+	/** transactions received from the publisher that have not been accepted yet, oldest first */
+	private final ArrayDeque<Transaction> waiting = new ArrayDeque<>();
+	/** the number of transactions requested from the publisher that have not been received yet */
+	private long outstanding = 0;
+	/** true once the publisher has completed or failed */
+	private boolean done = false;
+	/** true while a retry is scheduled */
+	private boolean retryScheduled = false;
+
+	/**
+	 * @param platform
+	 * 		the platform to submit transactions to
+	 */
+	TransactionSubscriber(final Platform platform) {
+		this.platform = platform;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void onSubscribe(final Flow.Subscription subscription) {
+		if (this.subscription != null) {
+			// a subscriber may only be subscribed once
+			subscription.cancel();
+			return;
+		}
+		this.subscription = subscription;
+		requestMore();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void onNext(final Transaction transaction) {
+		outstanding--;
+		waiting.add(transaction);
+		submitWaiting();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void onError(final Throwable throwable) {
+		log.error(EXCEPTION.getMarker(), "transaction publisher failed", throwable);
+		done = true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void onComplete() {
+		done = true;
+	}
+
+	/**
+	 * Submit the waiting transactions in order, until one is rejected because the platform is busy or inactive.
+	 * Then retry later. Once they have all been submitted, request more.
+	 */
+	private void submitWaiting() {
+		while (!waiting.isEmpty()) {
+			final TransactionSubmission submission = platform.submitTransaction(waiting.peek());
+			switch (submission.getStatus()) {
+				case ACCEPTED:
+					waiting.poll();
+					break;
+				case INVALID:
+					log.error(EXCEPTION.getMarker(), "discarding a published transaction that can never be accepted");
+					waiting.poll();
+					break;
+				default:
+					// BUSY or INACTIVE
+					scheduleRetry(submission.getRetryAfter().toNanos());
+					return;
+			}
+		}
+		requestMore();
+	}
+
+	private void scheduleRetry(final long delayNanos) {
+		if (retryScheduled) {
+			return;
+		}
+		retryScheduled = true;
+		retryScheduler.schedule(() -> {
+			synchronized (this) {
+				retryScheduled = false;
+				submitWaiting();
+			}
+		}, Math.max(1, delayNanos), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Request the next batch from the publisher, if everything from the previous one has been received and accepted
+	 */
+	private void requestMore() {
+		if (done || subscription == null || outstanding > 0 || !waiting.isEmpty()) {
+			return;
+		}
+		outstanding = Math.max(1, Settings.transactionSubscriberBatch);
+		subscription.request(outstanding);
+	}
+}
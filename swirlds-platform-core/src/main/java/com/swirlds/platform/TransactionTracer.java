@@ -0,0 +1,157 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform;
+
+import com.swirlds.common.Transaction;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Traces a sample of the transactions created by self through each stage from being created to being handled by
+ * stateCons, and keeps a histogram of how long each transaction spent between consecutive stages. One in every
+ * Settings.transactionTraceSampleRate transactions is traced, and tracing is off if that setting is 0.
+ * <p>
+ * A traced transaction holds a System.nanoTime() stamp for each stage it has reached. Only the first time a stage
+ * is reached is kept, so an event that is gossiped in several syncs is stamped by the first one. Only this node's
+ * clock is used, so the stages are those this node observes for its own transactions.
+ */
+class TransactionTracer {
+	/** the transaction was given to the platform by createTransaction */
+	static final int OFFERED = 0;
+	/** the transaction was put into a new event by self */
+	static final int EVENT_CREATED = 1;
+	/** the event containing the transaction was first sent to another member in a sync */
+	static final int GOSSIPED = 2;
+	/** the event containing the transaction reached consensus */
+	static final int CONSENSUS = 3;
+	/** the event containing the transaction was taken from forCons to be handled by stateCons */
+	static final int DEQUEUED = 4;
+	/** the transaction was handled by stateCons */
+	static final int HANDLED = 5;
+	/** the number of stages */
+	static final int NUM_STAGES = 6;
+
+	/**
+	 * the name of each interval whose latency is measured. The first NUM_STAGES - 1 are between consecutive stages,
+	 * and the last is from OFFERED to HANDLED.
+	 */
+	static final String[] INTERVAL_NAMES = {
+			"offer2event", "event2gossip", "gossip2cons", "cons2dequeue", "dequeue2handle", "offer2handle" };
+
+	/** the number of transactions by self offered so far, used to choose which ones to trace */
+	private final AtomicLong numOffered = new AtomicLong(0);
+	/** one histogram per element of INTERVAL_NAMES */
+	private final StatsHistogram[] histograms = new StatsHistogram[INTERVAL_NAMES.length];
+
+	/**
+	 * @param halfLife
+	 * 		half of the weight of each histogram comes from the last halfLife seconds
+	 */
+	TransactionTracer(final double halfLife) {
+		for (int i = 0; i < histograms.length; i++) {
+			histograms[i] = new StatsHistogram(halfLife);
+		}
+	}
+
+	/**
+	 * @return true if transactions are being traced
+	 */
+	static boolean isEnabled() {
+		return Settings.transactionTraceSampleRate > 0;
+	}
+
+	/**
+	 * Start tracing this transaction, if it is chosen to be sampled
+	 *
+	 * @param trans
+	 * 		a transaction created by self, which was just offered to the platform
+	 */
+	void offered(final Transaction trans) {
+		if (!isEnabled() || trans.isSystem()) {
+			return;
+		}
+		if (numOffered.getAndIncrement() % Settings.transactionTraceSampleRate == 0) {
+			final AtomicLongArray stamps = new AtomicLongArray(NUM_STAGES);
+			stamps.set(OFFERED, System.nanoTime());
+			trans.setTraceStamps(stamps);
+		}
+	}
+
+	/**
+	 * Record that the traced transactions among these have reached the given stage, unless they reached it before
+	 *
+	 * @param transactions
+	 * 		the transactions of an event created by self
+	 * @param stage
+	 * 		the stage they reached
+	 */
+	void stamp(final Transaction[] transactions, final int stage) {
+		if (!isEnabled() || transactions == null) {
+			return;
+		}
+		long now = 0;
+		for (Transaction trans : transactions) {
+			final AtomicLongArray stamps = trans.getTraceStamps();
+			if (stamps != null) {
+				if (now == 0) {
+					now = System.nanoTime();
+				}
+				stamps.compareAndSet(stage, 0, now);
+			}
+		}
+	}
+
+	/**
+	 * Record that the traced transactions among these have been handled by stateCons, and add their latencies to
+	 * the histograms. A latency is only recorded if the transaction reached both stages it is between.
+	 *
+	 * @param transactions
+	 * 		the transactions of an event created by self
+	 */
+	void handled(final Transaction[] transactions) {
+		if (!isEnabled() || transactions == null) {
+			return;
+		}
+		stamp(transactions, HANDLED);
+		for (Transaction trans : transactions) {
+			final AtomicLongArray stamps = trans.getTraceStamps();
+			if (stamps == null) {
+				continue;
+			}
+			// each transaction is only recorded once, even if it is handled by stateCons again after a reconnect
+			trans.setTraceStamps(null);
+			for (int i = 0; i < NUM_STAGES - 1; i++) {
+				record(i, stamps.get(i), stamps.get(i + 1));
+			}
+			record(INTERVAL_NAMES.length - 1, stamps.get(OFFERED), stamps.get(HANDLED));
+		}
+	}
+
+	private void record(final int interval, final long start, final long end) {
+		if (start != 0 && end != 0) {
+			histograms[interval].recordNanos(end - start);
+		}
+	}
+
+	/**
+	 * @param interval
+	 * 		the index of the interval in INTERVAL_NAMES
+	 * @return the histogram of the latencies for that interval
+	 */
+	StatsHistogram getHistogram(final int interval) {
+		return histograms[interval];
+	}
+}
@@ -14,6 +14,7 @@
 
 package com.swirlds.platform;
 
+import com.swirlds.common.crypto.CryptoFactory;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.Transaction;
 import com.swirlds.common.events.BaseEventHashedData;
@@ -23,7 +24,13 @@ import com.swirlds.platform.internal.CreatorSeqPair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import static com.swirlds.logging.LogMarker.EXCEPTION;
+
+import java.security.PublicKey;
 import java.time.Instant;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * A class used to hold information about an event that is yet to be created and the event itself when it is created
@@ -41,6 +48,12 @@ class ValidateEventTask extends EventIntakeTask {
 	/** indicates whether the event is valid or not, will be null until the validity can be determined */
 	private volatile Boolean validEvent = null;
 
+	/**
+	 * the result of hashing this event and checking its signature on a worker thread, or null if that was not
+	 * started. The result is true if the signature is valid, or if it was not checked.
+	 */
+	private volatile Future<Boolean> preprocessed = null;
+
 	public ValidateEventTask(BaseEventHashedData hashedData, BaseEventUnhashedData unhashedData) {
 		this.hashedData = hashedData;
 		this.unhashedData = unhashedData;
@@ -111,6 +124,53 @@ class ValidateEventTask extends EventIntakeTask {
 		this.validEvent = true;
 	}
 
+	/**
+	 * Start hashing this event, and optionally checking its signature, on a worker thread. This lets the work for
+	 * events received in a sync overlap with reading the rest of the sync, while the intake thread still processes
+	 * events in the order they were received.
+	 *
+	 * @param executor
+	 * 		the executor to do the work on
+	 * @param publicKey
+	 * 		the public key of the creator, to check the signature with, or null if the signature should not be
+	 * 		checked
+	 * @param verifyTime
+	 * 		the histogram to record the time taken to check the signature in
+	 */
+	void startPreprocessing(ExecutorService executor, PublicKey publicKey, StatsHistogram verifyTime) {
+		preprocessed = executor.submit(() -> {
+			CryptoFactory.getInstance().digestSync(hashedData);
+			if (publicKey == null) {
+				return true;
+			}
+			final long startTime = System.nanoTime();
+			final boolean valid = Crypto.verifySignature(hashedData.getHash().getValue(), getSignature(), publicKey);
+			verifyTime.recordNanos(System.nanoTime() - startTime);
+			return valid;
+		});
+	}
+
+	/**
+	 * Wait for the work started by {@link #startPreprocessing(ExecutorService, PublicKey, StatsHistogram)} to finish.
+	 * If it was never started, or if it failed, the event is hashed on the calling thread instead.
+	 *
+	 * @return null if the signature still needs to be checked, otherwise whether the signature is valid
+	 * @throws InterruptedException
+	 * 		if the calling thread is interrupted while waiting
+	 */
+	Boolean waitForPreprocessing() throws InterruptedException {
+		final Future<Boolean> future = preprocessed;
+		if (future != null) {
+			try {
+				return future.get();
+			} catch (ExecutionException e) {
+				log.error(EXCEPTION.getMarker(), "Error while preprocessing intake event {}", this, e);
+			}
+		}
+		CryptoFactory.getInstance().digestSync(hashedData);
+		return null;
+	}
+
 	public BaseEventHashedData getHashedData() {
 		return hashedData;
 	}
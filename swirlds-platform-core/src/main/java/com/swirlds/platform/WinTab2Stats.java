@@ -13,6 +13,7 @@
  */
 package com.swirlds.platform;
 
+import com.swirlds.common.StatsPercentiles;
 import com.swirlds.common.internal.StatsBuffer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -46,6 +47,9 @@ class WinTab2Stats extends WinBrowser.PrePaintableJPanel {
 	private final Color LIGHT_GRAY = new Color(0.9f, 0.9f, 0.9f);
 	private final Color DARK_GRAY = new Color(0.8f, 0.8f, 0.8f);
 
+	/** shown under the values of a statistic that keeps a histogram, to say which value is which */
+	private static final String PERCENTILES_LEGEND = String.join("/", StatsPercentiles.SUFFIXES).replace("_", "");
+
 	/** all the TextArea objects, one per statistic */
 	private JLabel[] statBoxes;
 	/** strings describing each statistic (name, description, formatting string) */
@@ -487,7 +491,8 @@ class WinTab2Stats extends WinBrowser.PrePaintableJPanel {
 				+ "Click on a highlighted square to hide that plot. \n\n" //
 				+ "Each plot shows history divided into periods. Within one period, the blue line goes through "//
 				+ "the average value during that period. The light gray box shows the min and max value during "//
-				+ "that period. The dark gray box shows one standard deviation above and below the mean."));
+				+ "that period. The dark gray box shows one standard deviation above and below the mean. "//
+				+ "Statistics that show several values are histograms: their plots show the 99th percentile."));
 
 		statInfo = stats.getAvailableStats();
 		final int numStats = statInfo.length;
@@ -589,7 +594,9 @@ class WinTab2Stats extends WinBrowser.PrePaintableJPanel {
 			statBoxes[i].setForeground(Color.BLACK);
 			statBoxes[i].setText("<html><center>&nbsp;&nbsp;&nbsp;&nbsp;"
 					+ statInfo[j][0] + "&nbsp;&nbsp;&nbsp;&nbsp;<br>"
-					+ stats.getStatString(j).trim() + "</center></html>");
+					+ stats.getStatString(j).trim()
+					+ (stats.hasPercentiles(j) ? "<br><small>" + PERCENTILES_LEGEND + "</small>" : "")
+					+ "</center></html>");
 			statBoxes[i].setHorizontalAlignment(JLabel.CENTER);
 		}
 	}
@@ -21,6 +21,7 @@ import com.swirlds.platform.RoundInfo;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.concurrent.Future;
 
 /**
  * A class that stores temporary data that is used while calculating consensus inside the platform. This data is not
@@ -84,6 +85,10 @@ public class InternalEventData {
 	@JsonIgnore
 	private Hash runningHash;
 
+	/** completes once the transactions of this event have been prehandled, null if they were prehandled inline */
+	@JsonIgnore
+	private volatile Future<?> prehandled;
+
 	public InternalEventData() {
 		this.timeReceived = Instant.now();
 		this.mark = 0; //ConsensusImpl.currMark starts at 1 and counts up, so all events initially count as unmarked
@@ -448,6 +453,22 @@ public class InternalEventData {
 		this.runningHash = runningHash;
 	}
 
+	/**
+	 * @return completes once the transactions of this event have been prehandled, or null if there is nothing to
+	 * 		wait for
+	 */
+	public Future<?> getPrehandled() {
+		return prehandled;
+	}
+
+	/**
+	 * @param prehandled
+	 * 		completes once the transactions of this event have been prehandled
+	 */
+	public void setPrehandled(Future<?> prehandled) {
+		this.prehandled = prehandled;
+	}
+
 	/**
 	 * @return n-1 for the nth witness added to a round (-1 if not a witness. Can be different on different computers)
 	 */
@@ -0,0 +1,407 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform.internal;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A queue for handing elements from exactly one producer thread to exactly one consumer thread, without locks.
+ * The elements are stored in a preallocated array ring. The producer only writes the put index and the consumer
+ * only writes the take index, so they never contend with each other, and adding an element does not allocate.
+ * <p>
+ * The ring has a fixed capacity, but the queue never blocks the producer and never rejects an element. If the
+ * producer finds the ring full, it links a new ring of twice the capacity and continues there, and the consumer
+ * moves to it once it has emptied the old one. This should be rare if the capacity is chosen well, and afterwards
+ * the bigger ring is reused. The producer must not block because in EventFlow, the producer of forNext only hands
+ * its events on when all the threads meet at the shuffle barrier.
+ * <p>
+ * If the queue is created with a comparator, the consumer takes every element out of the ring when it polls, and
+ * keeps the ones it has not yet returned in a private heap, so that poll always returns the least element that was
+ * added, as {@link java.util.concurrent.PriorityBlockingQueue} does. The heap belongs to the consumer, so it needs no
+ * lock either. Without a comparator, elements come out in the order they were added.
+ * <p>
+ * Only one thread may add elements (offer, put, add) at a time, and only one thread may remove or look at them
+ * (poll, take, peek, drainTo, clear, iterator) at a time. The producer or consumer may change to a different thread,
+ * as long as the old one has finished with the queue before the new one starts (for example, when both are waiting
+ * on the same barrier). Any thread may call size, isEmpty and {@link #wakeUp()}.
+ *
+ * @param <E>
+ * 		the type of the elements
+ */
+public class SpscBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+	/** the largest capacity a ring can grow to */
+	private static final int MAX_RING_CAPACITY = 1 << 30;
+
+	private static final class Ring {
+		/** the elements, each slot is null once its element has been removed */
+		private final Object[] slots;
+		/** slots.length - 1, since the length is a power of 2 */
+		private final int mask;
+		/** the number of elements ever added to this ring, only changed by the producer */
+		private volatile long putIndex = 0;
+		/** the number of elements ever removed from this ring, only changed by the consumer */
+		private volatile long takeIndex = 0;
+		/** the ring the producer moved on to when this one was full, written once by the producer */
+		private volatile Ring next = null;
+
+		private Ring(final int capacity) {
+			slots = new Object[capacity];
+			mask = capacity - 1;
+		}
+	}
+
+	/** the order to return the elements in, or null to return them in the order they were added */
+	private final Comparator<? super E> order;
+	/** elements the consumer has taken out of the ring but not returned yet, or null if there is no order */
+	private final PriorityQueue<E> sorted;
+	/** the ring the producer adds to, only used by the producer */
+	private Ring producerRing;
+	/** the ring the consumer removes from, only used by the consumer */
+	private Ring consumerRing;
+	/** the number of elements ever added, only changed by the producer */
+	private volatile long putCount = 0;
+	/** the number of elements ever returned or cleared, only changed by the consumer */
+	private volatile long takeCount = 0;
+	/** the consumer, if it is currently parked waiting for an element */
+	private volatile Thread waiter = null;
+	/** set by {@link #wakeUp()} to make the consumer's current or next timed poll return early */
+	private volatile boolean wakeUpRequested = false;
+
+	/**
+	 * Create a queue that returns elements in the order they were added.
+	 *
+	 * @param capacity
+	 * 		the number of elements the ring can hold before it has to grow, rounded up to a power of 2
+	 */
+	public SpscBlockingQueue(final int capacity) {
+		this(capacity, null);
+	}
+
+	/**
+	 * Create a queue that returns the least element first.
+	 *
+	 * @param capacity
+	 * 		the number of elements the ring can hold before it has to grow, rounded up to a power of 2
+	 * @param order
+	 * 		the order to return the elements in, or null to return them in the order they were added
+	 */
+	public SpscBlockingQueue(final int capacity, final Comparator<? super E> order) {
+		if (capacity < 1 || capacity > MAX_RING_CAPACITY) {
+			throw new IllegalArgumentException("capacity must be between 1 and " + MAX_RING_CAPACITY);
+		}
+		int ringCapacity = 1;
+		while (ringCapacity < capacity) {
+			ringCapacity <<= 1;
+		}
+		producerRing = consumerRing = new Ring(ringCapacity);
+		this.order = order;
+		this.sorted = order == null ? null : new PriorityQueue<>(capacity, order);
+	}
+
+	/**
+	 * Make the consumer return from its current timed poll, or its next one, even if no element is available.
+	 * This is a cheaper way to wake up the consumer than adding a dummy element, and it may be called from any
+	 * thread.
+	 */
+	public void wakeUp() {
+		wakeUpRequested = true;
+		LockSupport.unpark(waiter);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the producer. This never fails, since the ring grows when it is full.
+	 */
+	@Override
+	public boolean offer(final E e) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		Ring ring = producerRing;
+		long index = ring.putIndex;
+		if (index - ring.takeIndex == ring.slots.length) {
+			// full. Every element before this one is already published, so the consumer can safely move on to
+			// the new ring as soon as it finds the old one empty and linked.
+			final Ring bigger = new Ring(Math.min(ring.slots.length << 1, MAX_RING_CAPACITY));
+			ring.next = bigger;
+			producerRing = ring = bigger;
+			index = 0;
+		}
+		ring.slots[(int) index & ring.mask] = e;
+		// the volatile writes publish the element to the consumer
+		ring.putIndex = index + 1;
+		putCount++;
+		final Thread w = waiter;
+		if (w != null) {
+			LockSupport.unpark(w);
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the producer.
+	 */
+	@Override
+	public void put(final E e) {
+		offer(e);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the producer.
+	 */
+	@Override
+	public boolean offer(final E e, final long timeout, final TimeUnit unit) {
+		return offer(e);
+	}
+
+	/**
+	 * Remove the oldest element from the rings, ignoring the order.
+	 *
+	 * @return the element, or null if the rings are empty
+	 */
+	@SuppressWarnings("unchecked")
+	private E ringPoll() {
+		Ring ring = consumerRing;
+		while (true) {
+			final long index = ring.takeIndex;
+			if (index != ring.putIndex) {
+				final int slot = (int) index & ring.mask;
+				final E e = (E) ring.slots[slot];
+				ring.slots[slot] = null;
+				ring.takeIndex = index + 1;
+				return e;
+			}
+			final Ring next = ring.next;
+			if (next == null) {
+				return null;
+			}
+			// the producer links the next ring only after its last put into this one, so leave this one only if
+			// it is still empty now that the link has been seen
+			if (index == ring.putIndex) {
+				consumerRing = ring = next;
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the consumer.
+	 */
+	@Override
+	public E poll() {
+		final E e;
+		if (sorted == null) {
+			e = ringPoll();
+		} else {
+			E added;
+			while ((added = ringPoll()) != null) {
+				sorted.add(added);
+			}
+			e = sorted.poll();
+		}
+		if (e != null) {
+			takeCount++;
+		}
+		return e;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the consumer. Returns null early if {@link #wakeUp()} is called.
+	 */
+	@Override
+	public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (true) {
+			final E value = poll();
+			if (value != null) {
+				return value;
+			}
+			if (wakeUpRequested) {
+				wakeUpRequested = false;
+				return null;
+			}
+			final long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return null;
+			}
+			waiter = Thread.currentThread();
+			// check again after publishing the waiter, so that an offer or wakeUp in between is not missed
+			if (isEmpty() && !wakeUpRequested) {
+				LockSupport.parkNanos(this, remaining);
+			}
+			waiter = null;
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the consumer. Calls to {@link #wakeUp()} are ignored.
+	 */
+	@Override
+	public E take() throws InterruptedException {
+		while (true) {
+			final E value = poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			if (value != null) {
+				return value;
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the consumer.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public E peek() {
+		if (sorted == null) {
+			Ring ring = consumerRing;
+			while (ring != null) {
+				final long index = ring.takeIndex;
+				if (index != ring.putIndex) {
+					return (E) ring.slots[(int) index & ring.mask];
+				}
+				ring = ring.next;
+			}
+			return null;
+		}
+		E added;
+		while ((added = ringPoll()) != null) {
+			sorted.add(added);
+		}
+		return sorted.peek();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * May be called from any thread.
+	 */
+	@Override
+	public int size() {
+		// read takeCount first, so that the difference can't be negative
+		final long taken = takeCount;
+		return (int) Math.min(Integer.MAX_VALUE, putCount - taken);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * May be called from any thread.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The producer is never blocked, so this is always {@link Integer#MAX_VALUE}.
+	 */
+	@Override
+	public int remainingCapacity() {
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the consumer.
+	 */
+	@Override
+	public void clear() {
+		long cleared = 0;
+		while (ringPoll() != null) {
+			cleared++;
+		}
+		if (sorted != null) {
+			cleared += sorted.size();
+			sorted.clear();
+		}
+		takeCount += cleared;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the consumer.
+	 */
+	@Override
+	public int drainTo(final Collection<? super E> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the consumer.
+	 */
+	@Override
+	public int drainTo(final Collection<? super E> c, final int maxElements) {
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		int n = 0;
+		E value;
+		while (n < maxElements && (value = poll()) != null) {
+			c.add(value);
+			n++;
+		}
+		return n;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must only be called by the consumer. The iterator is a snapshot that is not in any particular order, and it
+	 * does not support remove.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterator<E> iterator() {
+		final List<E> snapshot = sorted == null ? new ArrayList<>() : new ArrayList<>(sorted);
+		for (Ring ring = consumerRing; ring != null; ring = ring.next) {
+			final long end = ring.putIndex;
+			for (long index = ring.takeIndex; index != end; index++) {
+				snapshot.add((E) ring.slots[(int) index & ring.mask]);
+			}
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+}
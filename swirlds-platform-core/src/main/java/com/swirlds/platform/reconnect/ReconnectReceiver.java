@@ -77,8 +77,8 @@ public class ReconnectReceiver {
 
 	private void increaseSocketTimeout() throws ReconnectException {
 		try {
-			originalSocketTimeout = connection.getSocket().getSoTimeout();
-			connection.getSocket().setSoTimeout(SOCKET_TIMEOUT_MILLISECONDS);
+			originalSocketTimeout = connection.getTimeout();
+			connection.setTimeout(SOCKET_TIMEOUT_MILLISECONDS);
 		} catch (SocketException e) {
 			throw new ReconnectException(e);
 		}
@@ -86,7 +86,7 @@ public class ReconnectReceiver {
 
 	private void resetSocketTimeout() throws ReconnectException {
 		try {
-			connection.getSocket().setSoTimeout(originalSocketTimeout);
+			connection.setTimeout(originalSocketTimeout);
 		} catch (SocketException e) {
 			throw new ReconnectException(e);
 		}
@@ -0,0 +1,608 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform.sync;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.swirlds.logging.LogMarker.SOCKET_EXCEPTIONS;
+
+/**
+ * Carries several independent, ordered byte streams (channels) over a single socket. Each chunk of data written
+ * to a channel is sent as a frame:
+ *
+ * <pre>
+ * byte   frame type (DATA, CREDIT, CLOSE)
+ * byte   channel
+ * int    number of payload bytes (DATA), number of bytes of credit granted (CREDIT), or 0 (CLOSE)
+ * byte[] payload (DATA only)
+ * </pre>
+ *
+ * Flow control is per channel and credit based. A channel may only send as many bytes as the receiver has room
+ * for in that channel's receive buffer. As the application consumes bytes, the receiver sends CREDIT frames to
+ * grant more. This means a single reader thread can demultiplex all channels without ever blocking on a slow
+ * consumer, so a stalled channel cannot hold up the others. The reader thread never takes the lock that writers
+ * hold while they write to the socket, so it keeps draining the socket and granting credit even while a writer is
+ * blocked because the peer's TCP buffers are full. Otherwise two peers writing at once could deadlock.
+ * <p>
+ * Each channel can be closed on its own. The peer's end of that channel then sees the end of its stream, while
+ * the other channels carry on. The socket is closed once every channel has been closed.
+ * <p>
+ * The socket's own timeout is not used once the connection is multiplexed, since it would apply to all channels
+ * at once. Each channel has its own read timeout instead, see {@link Channel#setReadTimeout(int)}.
+ * <p>
+ * Both ends must be created with the same number of channels and the same window size.
+ */
+public class MultiplexedConnection {
+	/** use this for all logging, as controlled by the optional data/log4j2.xml file */
+	private static final Logger log = LogManager.getLogger();
+
+	/** a frame carrying channel data */
+	private static final byte FRAME_DATA = 0x01;
+	/** a frame granting the peer more credit on a channel */
+	private static final byte FRAME_CREDIT = 0x02;
+	/** a frame telling the peer that a channel has been closed */
+	private static final byte FRAME_CLOSE = 0x03;
+	/** the largest payload sent in a single frame, so that one channel cannot monopolize the socket */
+	private static final int MAX_FRAME_SIZE = 16 * 1024;
+
+	/** the socket that carries all the channels */
+	private final Socket socket;
+	/** the stream all frames are read from */
+	private final DataInputStream in;
+	/** the stream all frames are written to, guarded by ioLock */
+	private final DataOutputStream out;
+	/** held while writing to out, and never taken by the reader thread */
+	private final ReentrantLock ioLock = new ReentrantLock();
+	/** the channels, indexed by their ID */
+	private final Channel[] channels;
+	/** the thread that reads frames and hands them to the channels */
+	private final Thread reader;
+	/** set once the connection has been closed, either locally or because of an error */
+	private volatile boolean closed = false;
+	/** the number of channels that have been closed locally */
+	private final AtomicInteger channelsClosed = new AtomicInteger(0);
+
+	/**
+	 * Create a multiplexed connection over a socket that has already been connected, and on which any
+	 * handshake has already been done. Any bytes already buffered by the handshake streams must not be lost, so
+	 * the streams used for the handshake should be passed in rather than the socket's raw streams if they are
+	 * buffered.
+	 *
+	 * @param socket
+	 * 		the connected socket
+	 * @param in
+	 * 		the stream to read frames from
+	 * @param out
+	 * 		the stream to write frames to
+	 * @param numChannels
+	 * 		the number of channels to carry
+	 * @param windowSize
+	 * 		the number of bytes each channel may have in flight before it is granted more credit
+	 * @param bufferSize
+	 * 		the buffer size for the underlying streams
+	 * @param threadFactory
+	 * 		creates the thread that reads from the socket
+	 * @throws IOException
+	 * 		if the socket cannot be configured
+	 */
+	public MultiplexedConnection(final Socket socket, final InputStream in, final OutputStream out,
+			final int numChannels, final int windowSize, final int bufferSize, final ThreadFactory threadFactory)
+			throws IOException {
+		if (numChannels <= 0 || numChannels > Byte.MAX_VALUE) {
+			throw new IllegalArgumentException("invalid number of channels: " + numChannels);
+		}
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("windowSize must be positive, was " + windowSize);
+		}
+		this.socket = socket;
+		this.in = new DataInputStream(new BufferedInputStream(in, bufferSize));
+		this.out = new DataOutputStream(new BufferedOutputStream(out, bufferSize));
+		this.channels = new Channel[numChannels];
+		for (int i = 0; i < numChannels; i++) {
+			channels[i] = new Channel((byte) i, windowSize);
+		}
+		// liveness is detected by the per channel timeouts, the reader must never time out in the middle of a frame
+		socket.setSoTimeout(0);
+		this.reader = threadFactory.newThread(this::readFrames);
+		reader.setDaemon(true);
+	}
+
+	/**
+	 * Start reading frames from the socket. No data is delivered to any channel before this is called.
+	 */
+	public void start() {
+		reader.start();
+	}
+
+	/**
+	 * @param id
+	 * 		the ID of the channel, from 0 to the number of channels minus 1
+	 * @return the channel with that ID
+	 */
+	public Channel getChannel(final int id) {
+		return channels[id];
+	}
+
+	/**
+	 * @return true if the connection has not been closed and the socket is still connected
+	 */
+	public boolean isOpen() {
+		return !closed && !socket.isClosed() && socket.isConnected();
+	}
+
+	/**
+	 * Close the socket and every channel. Any thread blocked reading or writing a channel is woken up and gets
+	 * a {@link SocketException}. Calling this more than once has no further effect.
+	 */
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			socket.close();
+		} catch (IOException ignored) {
+			// the connection is being abandoned, there is nothing more to do
+		}
+		for (Channel channel : channels) {
+			channel.connectionClosed();
+		}
+	}
+
+	/**
+	 * The body of the reader thread. Reads frames until the connection fails or is closed.
+	 */
+	private void readFrames() {
+		final byte[] frame = new byte[MAX_FRAME_SIZE];
+		try {
+			while (!closed) {
+				final byte type = in.readByte();
+				final byte id = in.readByte();
+				final int length = in.readInt();
+				if (id < 0 || id >= channels.length) {
+					throw new IOException("frame for unknown channel " + id);
+				}
+				if (type == FRAME_DATA) {
+					if (length <= 0 || length > MAX_FRAME_SIZE) {
+						throw new IOException("invalid frame length " + length);
+					}
+					in.readFully(frame, 0, length);
+					channels[id].received(frame, length);
+				} else if (type == FRAME_CREDIT) {
+					if (length <= 0) {
+						throw new IOException("invalid credit " + length);
+					}
+					channels[id].creditGranted(length);
+				} else if (type == FRAME_CLOSE) {
+					channels[id].peerClosed();
+				} else {
+					throw new IOException("invalid frame type " + type);
+				}
+			}
+		} catch (IOException e) {
+			if (!closed) {
+				log.error(SOCKET_EXCEPTIONS.getMarker(), "multiplexed connection to {} failed",
+						socket.getInetAddress(), e);
+			}
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * Write a frame header, and the payload if there is one. Frames from different channels are never
+	 * interleaved, since they are written while holding ioLock. This may block on the socket, so it must not be
+	 * called while holding any lock that the reader thread takes.
+	 */
+	private void writeFrame(final byte type, final byte id, final byte[] b, final int off, final int len,
+			final boolean flush) throws IOException {
+		ioLock.lock();
+		try {
+			if (closed) {
+				throw new SocketException("multiplexed connection is closed");
+			}
+			out.writeByte(type);
+			out.writeByte(id);
+			out.writeInt(len);
+			if (b != null) {
+				out.write(b, off, len);
+			}
+			if (flush) {
+				out.flush();
+			}
+		} finally {
+			ioLock.unlock();
+		}
+	}
+
+	/**
+	 * Flush all frames written so far, for all channels. This may block on the socket, so it must not be called
+	 * while holding any lock that the reader thread takes.
+	 */
+	private void flushFrames() throws IOException {
+		ioLock.lock();
+		try {
+			if (closed) {
+				throw new SocketException("multiplexed connection is closed");
+			}
+			out.flush();
+		} finally {
+			ioLock.unlock();
+		}
+	}
+
+	/**
+	 * Tell the peer that a channel has been closed, if that can be done without waiting. The frame is not flushed,
+	 * it goes out with the next flush of another channel, or is dropped when the socket closes. If another thread is
+	 * writing, possibly blocked on a dead peer, the frame is not sent, and the peer's read timeout ends its side.
+	 */
+	private void tryWriteCloseFrame(final byte id) {
+		if (!ioLock.tryLock()) {
+			return;
+		}
+		try {
+			if (!closed) {
+				out.writeByte(FRAME_CLOSE);
+				out.writeByte(id);
+				out.writeInt(0);
+			}
+		} catch (IOException ignored) {
+			// the peer will time out instead
+		} finally {
+			ioLock.unlock();
+		}
+	}
+
+	/**
+	 * Called when a channel is closed locally. Once every channel is closed, the socket is closed.
+	 */
+	private void channelClosed() {
+		if (channelsClosed.incrementAndGet() >= channels.length) {
+			close();
+		}
+	}
+
+	/**
+	 * One logical, bidirectional byte stream carried by a {@link MultiplexedConnection}
+	 */
+	public class Channel {
+		/** the ID of this channel, which is the same at both ends */
+		private final byte id;
+		/** bytes received but not yet read by the application, as a circular buffer. Guarded by this. */
+		private final byte[] buffer;
+		/** the index in buffer of the next byte to be read. Guarded by this. */
+		private int head = 0;
+		/** the number of bytes in buffer. Guarded by this. */
+		private int count = 0;
+		/** bytes read by the application that have not yet been returned to the sender as credit */
+		private int unacknowledged = 0;
+		/** the number of bytes we may still send before the peer grants more credit. Guarded by sendLock. */
+		private long credit;
+		/** guards credit */
+		private final Object sendLock = new Object();
+		/** how long a read (or a write waiting for credit) may block, in milliseconds, or 0 to block forever */
+		private volatile int readTimeout = 0;
+		/** set once this channel has been closed locally */
+		private volatile boolean closedLocally = false;
+		/** set once the peer has closed its end of this channel */
+		private volatile boolean closedByPeer = false;
+
+		private final InputStream inputStream = new ChannelInputStream();
+		private final OutputStream outputStream = new ChannelOutputStream();
+
+		private Channel(final byte id, final int windowSize) {
+			this.id = id;
+			this.buffer = new byte[windowSize];
+			this.credit = windowSize;
+		}
+
+		/**
+		 * @return the stream of bytes sent to this channel by the peer
+		 */
+		public InputStream getInputStream() {
+			return inputStream;
+		}
+
+		/**
+		 * @return the stream that sends bytes to the peer's end of this channel
+		 */
+		public OutputStream getOutputStream() {
+			return outputStream;
+		}
+
+		/**
+		 * @return true if neither end has closed this channel, and the connection carrying it is still open
+		 */
+		public boolean isOpen() {
+			return !closedLocally && !closedByPeer && MultiplexedConnection.this.isOpen();
+		}
+
+		/**
+		 * Close this channel, without affecting the other channels of the connection. Any thread blocked reading or
+		 * writing this channel is woken up and gets a {@link SocketException}. Once every channel has been closed,
+		 * the socket is closed. Calling this more than once has no further effect.
+		 */
+		public void close() {
+			synchronized (this) {
+				if (closedLocally) {
+					return;
+				}
+				closedLocally = true;
+			}
+			connectionClosed();
+			tryWriteCloseFrame(id);
+			channelClosed();
+		}
+
+		/**
+		 * Set the timeout for reads on this channel. This takes the place of {@link Socket#setSoTimeout(int)},
+		 * which would affect all channels.
+		 *
+		 * @param readTimeout
+		 * 		the timeout in milliseconds, or 0 to wait forever
+		 */
+		public void setReadTimeout(final int readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+
+		/**
+		 * @return the timeout for reads on this channel, in milliseconds
+		 */
+		public int getReadTimeout() {
+			return readTimeout;
+		}
+
+		/**
+		 * Called by the reader thread when a data frame arrives for this channel
+		 */
+		private synchronized void received(final byte[] data, final int length) throws IOException {
+			if (count + length > buffer.length) {
+				throw new IOException("peer exceeded the flow control window on channel " + id);
+			}
+			final int tail = (head + count) % buffer.length;
+			final int firstPart = Math.min(length, buffer.length - tail);
+			System.arraycopy(data, 0, buffer, tail, firstPart);
+			System.arraycopy(data, firstPart, buffer, 0, length - firstPart);
+			count += length;
+			notifyAll();
+		}
+
+		/**
+		 * Called by the reader thread when the peer grants more credit
+		 */
+		private void creditGranted(final int bytes) {
+			synchronized (sendLock) {
+				credit += bytes;
+				sendLock.notifyAll();
+			}
+		}
+
+		/**
+		 * Called by the reader thread when the peer closes its end of this channel
+		 */
+		private void peerClosed() {
+			closedByPeer = true;
+			connectionClosed();
+		}
+
+		/**
+		 * Wake up every thread waiting on this channel, so that they can see that it or the connection is closed
+		 */
+		private void connectionClosed() {
+			synchronized (this) {
+				notifyAll();
+			}
+			synchronized (sendLock) {
+				sendLock.notifyAll();
+			}
+		}
+
+		/**
+		 * Wait on the given monitor until the condition is true, the connection closes, or the timeout expires
+		 */
+		private long waitFor(final Object monitor, final long deadline) throws IOException {
+			checkNotClosedLocally();
+			long remaining = 0;
+			if (deadline != 0) {
+				remaining = (deadline - System.nanoTime()) / 1_000_000L;
+				if (remaining <= 0) {
+					throw new SocketTimeoutException("timed out on multiplexed channel " + id);
+				}
+			}
+			try {
+				monitor.wait(remaining);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SocketException("interrupted while waiting on multiplexed channel " + id);
+			}
+			return remaining;
+		}
+
+		/**
+		 * Throw if this channel or the whole connection has been closed locally
+		 */
+		private void checkNotClosedLocally() throws SocketException {
+			if (closed) {
+				throw new SocketException("multiplexed connection is closed");
+			}
+			if (closedLocally) {
+				throw new SocketException("multiplexed channel " + id + " is closed");
+			}
+		}
+
+		private long deadline() {
+			final int timeout = readTimeout;
+			return timeout == 0 ? 0 : System.nanoTime() + timeout * 1_000_000L;
+		}
+
+		/**
+		 * Copy available bytes to the destination, blocking until at least one is available. Returns -1 once the
+		 * peer has closed its end of the channel and every byte it sent has been read.
+		 */
+		private int read(final byte[] b, final int off, final int len) throws IOException {
+			checkNotClosedLocally();
+			if (len == 0) {
+				return 0;
+			}
+			final int n;
+			synchronized (this) {
+				final long deadline = deadline();
+				while (count == 0) {
+					if (closedByPeer) {
+						return -1;
+					}
+					waitFor(this, deadline);
+				}
+				n = Math.min(len, count);
+				final int firstPart = Math.min(n, buffer.length - head);
+				System.arraycopy(buffer, head, b, off, firstPart);
+				System.arraycopy(buffer, 0, b, off + firstPart, n - firstPart);
+				head = (head + n) % buffer.length;
+				count -= n;
+			}
+			returnCredit(n);
+			return n;
+		}
+
+		/**
+		 * Return consumed bytes to the sender as credit. Credit is returned in batches of half a window, so that
+		 * a channel being read a few bytes at a time does not send a frame per read.
+		 */
+		private void returnCredit(final int consumed) throws IOException {
+			final int toReturn;
+			synchronized (this) {
+				unacknowledged += consumed;
+				if (unacknowledged < buffer.length / 2) {
+					return;
+				}
+				toReturn = unacknowledged;
+				unacknowledged = 0;
+			}
+			writeFrame(FRAME_CREDIT, id, null, 0, toReturn, true);
+		}
+
+		/**
+		 * Send bytes to the peer, blocking whenever the peer's window for this channel is full. The socket is only
+		 * written to while not holding sendLock, since the reader thread needs sendLock to grant credit.
+		 */
+		private void write(final byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				checkWritable();
+				final long deadline = deadline();
+				int n = takeCredit(len);
+				while (n == 0) {
+					// the peer's buffer is full, so what has been written so far must reach it
+					flushFrames();
+					synchronized (sendLock) {
+						checkWritable();
+						if (credit == 0) {
+							waitFor(sendLock, deadline);
+						}
+					}
+					n = takeCredit(len);
+				}
+				writeFrame(FRAME_DATA, id, b, off, n, false);
+				off += n;
+				len -= n;
+			}
+		}
+
+		/**
+		 * Throw if this channel cannot be written to, because either end has closed it
+		 */
+		private void checkWritable() throws SocketException {
+			checkNotClosedLocally();
+			if (closedByPeer) {
+				throw new SocketException("multiplexed channel " + id + " was closed by the peer");
+			}
+		}
+
+		/**
+		 * Take as much credit as can be used for the next frame of a write
+		 *
+		 * @return the number of bytes that may be sent, or 0 if there is no credit
+		 */
+		private int takeCredit(final int len) {
+			synchronized (sendLock) {
+				final int n = (int) Math.min(Math.min(len, credit), MAX_FRAME_SIZE);
+				credit -= n;
+				return n;
+			}
+		}
+
+		private class ChannelInputStream extends InputStream {
+			@Override
+			public int read() throws IOException {
+				final byte[] one = new byte[1];
+				final int n = Channel.this.read(one, 0, 1);
+				return n < 0 ? -1 : one[0] & 0xFF;
+			}
+
+			@Override
+			public int read(final byte[] b, final int off, final int len) throws IOException {
+				return Channel.this.read(b, off, len);
+			}
+
+			@Override
+			public int available() {
+				synchronized (Channel.this) {
+					return count;
+				}
+			}
+
+			@Override
+			public void close() {
+				Channel.this.close();
+			}
+		}
+
+		private class ChannelOutputStream extends OutputStream {
+			@Override
+			public void write(final int b) throws IOException {
+				Channel.this.write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(final byte[] b, final int off, final int len) throws IOException {
+				Channel.this.write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				flushFrames();
+			}
+
+			@Override
+			public void close() {
+				Channel.this.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform.sync;
+
+import java.util.Random;
+
+/**
+ * Decides which neighbor a sync caller should call next. Implementations are told the outcome of every sync, so
+ * they may prefer peers that have recently been useful to sync with.
+ * <p>
+ * Implementations must be thread safe, since they are used by every caller thread and every listener thread.
+ */
+public interface PeerSelectionStrategy {
+	/**
+	 * Choose the next neighbor to call
+	 *
+	 * @param neighbors
+	 * 		the IDs of all the neighbors that may be called. Must not be empty.
+	 * @param random
+	 * 		the source of randomness to use
+	 * @return the ID of the neighbor to call
+	 */
+	long choosePeer(int[] neighbors, Random random);
+
+	/**
+	 * Record the result of a sync that completed without errors
+	 *
+	 * @param peerId
+	 * 		the ID of the node synced with
+	 * @param eventsReceived
+	 * 		the number of events received from the peer during the sync that were not already known
+	 * @param bytesReceived
+	 * 		the number of bytes received from the peer during the sync
+	 * @param durationNanos
+	 * 		the time the sync took, in nanoseconds
+	 */
+	void syncSucceeded(long peerId, int eventsReceived, long bytesReceived, long durationNanos);
+
+	/**
+	 * Record that a sync with a peer failed because of an error. A peer that is not connected yet is not called, so
+	 * that is not a failure.
+	 *
+	 * @param peerId
+	 * 		the ID of the node that could not be synced with
+	 */
+	void syncFailed(long peerId);
+}
@@ -0,0 +1,117 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform.sync;
+
+/**
+ * Exponentially weighted moving averages of the results of syncs with a single peer. Each sync has the same weight,
+ * regardless of when it happened, so a peer that is rarely called keeps its old averages until it is called again.
+ */
+public class PeerSyncStats {
+	/** the weight of each new sample, between 0 and 1 */
+	private final double alpha;
+
+	/** has no sync with this peer been recorded yet? */
+	private boolean empty = true;
+	/** the average number of events received per sync */
+	private double eventsPerSync;
+	/** the average number of bytes received per sync */
+	private double bytesPerSync;
+	/** the average duration of a sync, in seconds */
+	private double secondsPerSync;
+	/** the fraction of recent sync attempts that failed */
+	private double failureRate;
+
+	/**
+	 * @param halfLife
+	 * 		the number of syncs after which a sample has half of its original weight
+	 */
+	public PeerSyncStats(final double halfLife) {
+		this.alpha = 1 - Math.pow(0.5, 1 / Math.max(halfLife, 1));
+	}
+
+	/**
+	 * Record a successful sync
+	 *
+	 * @param eventsReceived
+	 * 		the number of events received during the sync
+	 * @param bytesReceived
+	 * 		the number of bytes received during the sync
+	 * @param durationNanos
+	 * 		the duration of the sync, in nanoseconds
+	 */
+	public synchronized void recordSuccess(final int eventsReceived, final long bytesReceived,
+			final long durationNanos) {
+		final double seconds = durationNanos / 1_000_000_000.0;
+		if (empty) {
+			eventsPerSync = eventsReceived;
+			bytesPerSync = bytesReceived;
+			secondsPerSync = seconds;
+			failureRate = 0;
+			empty = false;
+			return;
+		}
+		eventsPerSync += alpha * (eventsReceived - eventsPerSync);
+		bytesPerSync += alpha * (bytesReceived - bytesPerSync);
+		secondsPerSync += alpha * (seconds - secondsPerSync);
+		failureRate += alpha * (0 - failureRate);
+	}
+
+	/**
+	 * Record a failed sync attempt
+	 */
+	public synchronized void recordFailure() {
+		if (empty) {
+			failureRate = 1;
+			empty = false;
+			return;
+		}
+		failureRate += alpha * (1 - failureRate);
+	}
+
+	/**
+	 * @return true if no sync with this peer has been recorded yet
+	 */
+	public synchronized boolean isEmpty() {
+		return empty;
+	}
+
+	/**
+	 * @return the average number of events received per sync
+	 */
+	public synchronized double getEventsPerSync() {
+		return eventsPerSync;
+	}
+
+	/**
+	 * @return the average number of bytes received per sync
+	 */
+	public synchronized double getBytesPerSync() {
+		return bytesPerSync;
+	}
+
+	/**
+	 * @return the average duration of a sync, in seconds
+	 */
+	public synchronized double getSecondsPerSync() {
+		return secondsPerSync;
+	}
+
+	/**
+	 * @return the fraction of recent sync attempts that failed, between 0 and 1
+	 */
+	public synchronized double getFailureRate() {
+		return failureRate;
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform.sync;
+
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.io.BadIOException;
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+
+import java.io.IOException;
+
+/**
+ * A Bloom filter over the hashes of the events a node knows, restricted to a window of generations. During a sync,
+ * each node sends one of these to the other, so that the other can skip sending events that are already known.
+ * <p>
+ * A Bloom filter never reports a known event as unknown, but it may report an unknown event as known (a false
+ * positive). So a sender only skips an event the filter reports as known if it also skips every event it would have
+ * sent that descends from it. If the peer really lacks a skipped event, it is sent in a later sync, since it will not
+ * be an ancestor of any tip the peer reports.
+ */
+public class SyncBloomFilter {
+	/** the smallest number of bits a filter will use, even if it is empty */
+	private static final int MIN_BITS = Long.SIZE;
+
+	/** the bits of the filter */
+	private final long[] bits;
+	/** the number of bits in the filter, equal to bits.length * 64 */
+	private final long numBits;
+	/** the number of bits set for each hash added */
+	private final int numHashFunctions;
+	/** the lowest generation of an event whose hash may have been added to this filter */
+	private final long minGeneration;
+	/** the highest generation of an event whose hash may have been added to this filter */
+	private final long maxGeneration;
+
+	/**
+	 * Create an empty filter sized for the given number of hashes
+	 *
+	 * @param expectedEntries
+	 * 		the number of hashes that will be added
+	 * @param bitsPerEntry
+	 * 		the number of bits to use per hash. Approximately 10 bits gives a 1% false positive rate.
+	 * @param minGeneration
+	 * 		the lowest generation of any event that will be added
+	 * @param maxGeneration
+	 * 		the highest generation of any event that will be added
+	 */
+	public SyncBloomFilter(final int expectedEntries, final int bitsPerEntry, final long minGeneration,
+			final long maxGeneration) {
+		if (bitsPerEntry <= 0) {
+			throw new IllegalArgumentException("bitsPerEntry must be positive, was " + bitsPerEntry);
+		}
+		final long requestedBits = Math.max(MIN_BITS, (long) Math.max(0, expectedEntries) * bitsPerEntry);
+		this.bits = new long[(int) ((requestedBits + Long.SIZE - 1) / Long.SIZE)];
+		this.numBits = (long) bits.length * Long.SIZE;
+		// the optimal number of hash functions is (bits / entries) * ln(2)
+		this.numHashFunctions = Math.max(1, (int) Math.round(bitsPerEntry * Math.log(2)));
+		this.minGeneration = minGeneration;
+		this.maxGeneration = maxGeneration;
+	}
+
+	private SyncBloomFilter(final long[] bits, final int numHashFunctions, final long minGeneration,
+			final long maxGeneration) {
+		this.bits = bits;
+		this.numBits = (long) bits.length * Long.SIZE;
+		this.numHashFunctions = numHashFunctions;
+		this.minGeneration = minGeneration;
+		this.maxGeneration = maxGeneration;
+	}
+
+	/**
+	 * Add the hash of an event to the filter
+	 *
+	 * @param hash
+	 * 		the hash of the event
+	 */
+	public void add(final Hash hash) {
+		final long h1 = hashPart(hash.getValue(), 0);
+		final long h2 = hashPart(hash.getValue(), Long.BYTES) | 1;
+		for (int i = 0; i < numHashFunctions; i++) {
+			final long index = Math.floorMod(h1 + i * h2, numBits);
+			bits[(int) (index >>> 6)] |= 1L << index;
+		}
+	}
+
+	/**
+	 * Check whether the hash of an event might have been added to this filter
+	 *
+	 * @param hash
+	 * 		the hash of the event
+	 * @return false if the hash was definitely not added, true if it probably was
+	 */
+	public boolean mightContain(final Hash hash) {
+		final long h1 = hashPart(hash.getValue(), 0);
+		final long h2 = hashPart(hash.getValue(), Long.BYTES) | 1;
+		for (int i = 0; i < numHashFunctions; i++) {
+			final long index = Math.floorMod(h1 + i * h2, numBits);
+			if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Check whether an event with the given generation is inside the window of generations summarized by this
+	 * filter. The filter says nothing about events outside of that window.
+	 *
+	 * @param generation
+	 * 		the generation of the event
+	 * @return true if the filter describes events of this generation
+	 */
+	public boolean covers(final long generation) {
+		return generation >= minGeneration && generation <= maxGeneration;
+	}
+
+	/**
+	 * @return the number of bytes this filter takes when serialized
+	 */
+	public int getSerializedSize() {
+		// 2 generations, the number of hash functions, and the long array with its length
+		return 2 * Long.BYTES + 2 * Integer.BYTES + bits.length * Long.BYTES;
+	}
+
+	/**
+	 * Write this filter to a stream
+	 *
+	 * @param out
+	 * 		the stream to write to
+	 * @throws IOException
+	 * 		if the stream throws
+	 */
+	public void serialize(final SerializableDataOutputStream out) throws IOException {
+		out.writeLong(minGeneration);
+		out.writeLong(maxGeneration);
+		out.writeInt(numHashFunctions);
+		out.writeLongArray(bits);
+	}
+
+	/**
+	 * Read a filter written by {@link #serialize(SerializableDataOutputStream)}
+	 *
+	 * @param in
+	 * 		the stream to read from
+	 * @param maxBytes
+	 * 		the maximum size of the bit array that will be accepted
+	 * @return the filter read
+	 * @throws IOException
+	 * 		if the stream throws, or if the data read is not a valid filter
+	 */
+	public static SyncBloomFilter deserialize(final SerializableDataInputStream in, final int maxBytes)
+			throws IOException {
+		final long minGeneration = in.readLong();
+		final long maxGeneration = in.readLong();
+		final int numHashFunctions = in.readInt();
+		// a filter never uses more hash functions than bits per entry, and that is bounded by the sender's setting
+		if (numHashFunctions <= 0 || numHashFunctions > Byte.MAX_VALUE) {
+			throw new BadIOException("invalid number of Bloom filter hash functions: " + numHashFunctions);
+		}
+		final long[] bits = in.readLongArray(Math.max(1, maxBytes / Long.BYTES));
+		if (bits == null || bits.length == 0) {
+			throw new BadIOException("received an empty Bloom filter");
+		}
+		return new SyncBloomFilter(bits, numHashFunctions, minGeneration, maxGeneration);
+	}
+
+	/**
+	 * Read 8 bytes of a hash as a long. Event hashes are cryptographic, so their bytes are already uniformly
+	 * distributed and can be used directly as the filter's hash functions.
+	 */
+	private static long hashPart(final byte[] value, final int offset) {
+		long result = 0;
+		for (int i = 0; i < Long.BYTES; i++) {
+			result = (result << 8) | (value[(offset + i) % value.length] & 0xFF);
+		}
+		return result;
+	}
+}
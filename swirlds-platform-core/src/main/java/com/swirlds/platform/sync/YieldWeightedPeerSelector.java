@@ -0,0 +1,129 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform.sync;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link PeerSelectionStrategy} that prefers peers that have recently delivered many new events per second of
+ * syncing, and that rarely fail.
+ * <p>
+ * To make sure gossip still reaches every node, a fraction of every choice (the fairness floor) is spread uniformly
+ * over all neighbors. With a floor of f and n neighbors, every neighbor is chosen with probability at least f/n.
+ * Peers that have never been synced with are given the best score seen so far, so that they are tried early.
+ */
+public class YieldWeightedPeerSelector implements PeerSelectionStrategy {
+	/** the smallest sync duration used when computing a score, to avoid dividing by zero */
+	private static final double MIN_SECONDS = 0.001;
+
+	/** the statistics for each peer */
+	private final ConcurrentHashMap<Long, PeerSyncStats> peerStats = new ConcurrentHashMap<>();
+	/** the number of syncs after which a sample has half its original weight */
+	private final double halfLife;
+	/** the fraction of the probability that is spread uniformly across all neighbors, between 0 and 1 */
+	private final double fairnessFloor;
+
+	/**
+	 * @param halfLife
+	 * 		the number of syncs with a peer after which a sample has half its original weight
+	 * @param fairnessFloor
+	 * 		the fraction of the probability of choosing a peer that is spread uniformly over all neighbors,
+	 * 		between 0 (choose only by yield) and 1 (choose uniformly at random)
+	 */
+	public YieldWeightedPeerSelector(final double halfLife, final double fairnessFloor) {
+		if (fairnessFloor < 0 || fairnessFloor > 1) {
+			throw new IllegalArgumentException("fairnessFloor must be between 0 and 1, was " + fairnessFloor);
+		}
+		this.halfLife = halfLife;
+		this.fairnessFloor = fairnessFloor;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long choosePeer(final int[] neighbors, final Random random) {
+		final double[] scores = new double[neighbors.length];
+		double bestScore = 0;
+		for (int i = 0; i < neighbors.length; i++) {
+			final PeerSyncStats stats = peerStats.get((long) neighbors[i]);
+			scores[i] = (stats == null || stats.isEmpty()) ? -1 : score(stats);
+			bestScore = Math.max(bestScore, scores[i]);
+		}
+
+		double total = 0;
+		for (int i = 0; i < scores.length; i++) {
+			if (scores[i] < 0) {
+				// never synced with this peer, so be optimistic about it
+				scores[i] = bestScore;
+			}
+			total += scores[i];
+		}
+
+		// with probability fairnessFloor, or if no peer has a positive score, choose uniformly
+		if (total <= 0 || random.nextDouble() < fairnessFloor) {
+			return neighbors[random.nextInt(neighbors.length)];
+		}
+
+		double target = random.nextDouble() * total;
+		for (int i = 0; i < scores.length; i++) {
+			target -= scores[i];
+			if (target < 0) {
+				return neighbors[i];
+			}
+		}
+		return neighbors[neighbors.length - 1];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void syncSucceeded(final long peerId, final int eventsReceived, final long bytesReceived,
+			final long durationNanos) {
+		getStats(peerId).recordSuccess(eventsReceived, bytesReceived, durationNanos);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void syncFailed(final long peerId) {
+		getStats(peerId).recordFailure();
+	}
+
+	/**
+	 * Get the statistics for a peer, creating them if needed
+	 *
+	 * @param peerId
+	 * 		the ID of the peer
+	 * @return the statistics, never null
+	 */
+	public PeerSyncStats getStats(final long peerId) {
+		return peerStats.computeIfAbsent(peerId, (id) -> new PeerSyncStats(halfLife));
+	}
+
+	/**
+	 * The score of a peer is the number of new events it delivers per second of syncing, weighted by the chance
+	 * that a sync with it succeeds. One is added to the events so that a peer that is up to date with us (and so
+	 * delivers nothing) still has a score based on how fast it responds.
+	 */
+	private static double score(final PeerSyncStats stats) {
+		return (1 + stats.getEventsPerSync())
+				/ Math.max(MIN_SECONDS, stats.getSecondsPerSync())
+				* (1 - stats.getFailureRate());
+	}
+}
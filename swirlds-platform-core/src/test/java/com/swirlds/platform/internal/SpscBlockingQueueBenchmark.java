@@ -0,0 +1,136 @@
+/*
+ * (c) 2016-2020 Swirlds, Inc.
+ *
+ * This software is owned by Swirlds, Inc., which retains title to the software. This software is protected by various
+ * intellectual property laws throughout the world, including copyright and patent laws. This software is licensed and
+ * not sold. You must use this software only in accordance with the terms of the Hashgraph Open Review license at
+ *
+ * https://github.com/hashgraph/swirlds-open-review/raw/master/LICENSE.md
+ *
+ * SWIRLDS MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF THIS SOFTWARE, EITHER EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE,
+ * OR NON-INFRINGEMENT.
+ */
+
+package com.swirlds.platform.internal;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the queues EventFlow can use for forCurr, forWork and forNext, with one thread adding events and another
+ * taking them, as the intake thread and threadCurr do. The events carry estimated consensus timestamps that are
+ * mostly increasing, and every queue returns them ordered the same way EventFlow orders them.
+ * <p>
+ * The producer stops adding while the backlog is full, so that a slow consumer can't make the queue grow without
+ * bound. The handedOff counter is the number of events that made it through the queue.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpscBlockingQueueBenchmark {
+	/** the most events to keep waiting in the queue, which is the capacity EventFlow gives its rings */
+	private static final int MAX_BACKLOG = 1024;
+	/** the number of distinct events to cycle through, a power of 2 */
+	private static final int NUM_EVENTS = 1 << 16;
+
+	/** the queue to measure: the old PriorityBlockingQueue, or the ring with or without the timestamp order */
+	@Param({ "priority", "ordered", "fifo" })
+	public String queueType;
+
+	private BlockingQueue<TimedEvent> queue;
+	private TimedEvent[] events;
+
+	/** stands in for an EventImpl, which is only compared by its estimated consensus timestamp */
+	private static final class TimedEvent {
+		private final Instant consensusTimestamp;
+
+		private TimedEvent(final Instant consensusTimestamp) {
+			this.consensusTimestamp = consensusTimestamp;
+		}
+	}
+
+	/** the number of events each consumer thread received */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		public long handedOff;
+	}
+
+	/** the position of the producer thread in the events array */
+	@State(Scope.Thread)
+	public static class ProducerPosition {
+		private int next;
+	}
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		final Comparator<TimedEvent> cmp = (x, y) -> x.consensusTimestamp.compareTo(y.consensusTimestamp);
+		switch (queueType) {
+			case "priority":
+				queue = new PriorityBlockingQueue<>(100, cmp);
+				break;
+			case "ordered":
+				queue = new SpscBlockingQueue<>(MAX_BACKLOG, cmp);
+				break;
+			case "fifo":
+				queue = new SpscBlockingQueue<>(MAX_BACKLOG);
+				break;
+			default:
+				throw new IllegalArgumentException("unknown queue type " + queueType);
+		}
+
+		// events arrive roughly in consensus order, with some jitter from gossip
+		final Random random = new Random(0);
+		final Instant start = Instant.now();
+		events = new TimedEvent[NUM_EVENTS];
+		for (int i = 0; i < NUM_EVENTS; i++) {
+			events[i] = new TimedEvent(start.plusNanos(i * 1_000L + random.nextInt(50_000)));
+		}
+	}
+
+	@Benchmark
+	@Group("handoff")
+	@GroupThreads(1)
+	public boolean produce(final ProducerPosition position) {
+		if (queue.size() >= MAX_BACKLOG) {
+			return false;
+		}
+		queue.offer(events[position.next++ & (NUM_EVENTS - 1)]);
+		return true;
+	}
+
+	@Benchmark
+	@Group("handoff")
+	@GroupThreads(1)
+	public TimedEvent consume(final Counters counters) {
+		final TimedEvent event = queue.poll();
+		if (event != null) {
+			counters.handedOff++;
+		}
+		return event;
+	}
+}